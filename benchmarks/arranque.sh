@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Benchmark de arranque: tiempo desde "docker run" hasta la primera respuesta 200 de
+# GET /api/vehiculos/disponibles, comparando la imagen estándar con la de arranque rápido (AOT + CDS).
+#
+# Uso: ./benchmarks/arranque.sh [iteraciones]   (por defecto 5)
+# Requiere docker y curl. Levanta su propia base en una red aislada y la elimina al terminar.
+
+set -euo pipefail
+
+ITERACIONES="${1:-5}"
+RED="flota-benchmark"
+DB="flota-benchmark-db"
+APP="flota-benchmark-app"
+PUERTO=18087
+URL="http://localhost:${PUERTO}/api/vehiculos/disponibles"
+
+limpiar() {
+    docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+    docker network rm "$RED" >/dev/null 2>&1 || true
+}
+trap limpiar EXIT
+
+echo "Construyendo imágenes..."
+docker build -q -t flota:estandar . >/dev/null
+docker build -q --target arranque-rapido -t flota:arranque-rapido . >/dev/null
+
+docker network create "$RED" >/dev/null
+docker run -d --name "$DB" --network "$RED" \
+    -e POSTGRES_USER=kavak_user -e POSTGRES_PASSWORD=kavak_pass -e POSTGRES_DB=kavak_db \
+    postgres:15-alpine >/dev/null
+until docker exec "$DB" pg_isready -U kavak_user -d kavak_db >/dev/null 2>&1; do sleep 0.5; done
+
+# Devuelve los milisegundos hasta la primera respuesta exitosa
+medir() {
+    local imagen="$1"
+    local inicio fin
+    inicio=$(date +%s%N)
+    docker run -d --name "$APP" --network "$RED" -p "${PUERTO}:8087" \
+        -e SPRING_DATASOURCE_URL="jdbc:postgresql://${DB}:5432/kavak_db" \
+        -e SPRING_DATASOURCE_USERNAME=kavak_user \
+        -e SPRING_DATASOURCE_PASSWORD=kavak_pass \
+        -e MANTENIMIENTO_PREVENTIVO_HABILITADO=false \
+        "$imagen" >/dev/null
+    until curl -fs -o /dev/null "$URL"; do
+        if [ "$(( ($(date +%s%N) - inicio) / 1000000000 ))" -gt 180 ]; then
+            echo "La aplicación no respondió en 180 s" >&2
+            docker logs "$APP" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    fin=$(date +%s%N)
+    docker rm -f "$APP" >/dev/null
+    echo $(( (fin - inicio) / 1000000 ))
+}
+
+# Primera corrida descartada: crea el esquema (ddl-auto=update) y calienta la caché de disco
+medir flota:estandar >/dev/null
+
+resumen() {
+    local imagen="$1"
+    local tiempos=()
+    for _ in $(seq "$ITERACIONES"); do
+        tiempos+=("$(medir "$imagen")")
+    done
+    local ordenados
+    ordenados=$(printf '%s\n' "${tiempos[@]}" | sort -n)
+    local mediana minimo maximo
+    mediana=$(echo "$ordenados" | sed -n "$(( (ITERACIONES + 1) / 2 ))p")
+    minimo=$(echo "$ordenados" | head -1)
+    maximo=$(echo "$ordenados" | tail -1)
+    printf '%-24s mediana %6s ms   min %6s ms   max %6s ms   (%s)\n' \
+        "$imagen" "$mediana" "$minimo" "$maximo" "${tiempos[*]}"
+}
+
+echo "Tiempo hasta el primer GET /api/vehiculos/disponibles exitoso (${ITERACIONES} corridas por imagen):"
+resumen flota:estandar
+resumen flota:arranque-rapido
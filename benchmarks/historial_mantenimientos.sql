@@ -0,0 +1,59 @@
+-- Benchmark antes/después de la carga de mantenimientos sobre un historial grande.
+-- Genera un vehículo con 200.000 mantenimientos (descripciones de ~2 KB) dentro de una transacción
+-- que se revierte al final, por lo que no deja datos. Ejecutar con: psql -f benchmarks/historial_mantenimientos.sql
+--
+-- Comparar en la salida de EXPLAIN el tiempo total y los "Buffers: shared hit/read" de cada par de consultas.
+
+BEGIN;
+
+INSERT INTO vehiculo (patente, marca, modelo, anio, kilometraje, disponible, kilometraje_pendiente_evaluacion,
+                      fecha_creacion, fecha_actualizacion, version)
+VALUES ('BENCH01', 'Bench', 'Historial', 2020, 900000, true, false, now(), now(), 0);
+
+INSERT INTO mantenimiento (tipo_mantenimiento, descripcion, fecha_creacion, fecha_actualizacion, estado,
+                           kilometraje_en_mantenimiento, costo_estimado, costo_final, vehiculo_id, version)
+SELECT (ARRAY['CAMBIO_ACEITE', 'FRENOS', 'LLANTAS'])[1 + i % 3],
+       repeat('Detalle del trabajo realizado en taller. ', 50),
+       now(), now(),
+       CASE WHEN i % 10 = 0 THEN 'CANCELADO' ELSE 'COMPLETADO' END,
+       i * 5,
+       1000 + i % 500,
+       CASE WHEN i % 4 = 0 THEN NULL ELSE 1100 + i % 500 END,
+       (SELECT id FROM vehiculo WHERE patente = 'BENCH01'),
+       0
+FROM generate_series(1, 200000) AS i;
+
+ANALYZE mantenimiento;
+
+-- 1) Costo total
+-- Antes: se cargaban las entidades completas (todas las columnas, descripción incluida) y se sumaba en Java
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.*
+FROM mantenimiento m
+WHERE m.vehiculo_id = (SELECT id FROM vehiculo WHERE patente = 'BENCH01') AND m.estado = 'COMPLETADO';
+
+-- Después: agregado en la base (resumirCostosPorVehiculo), cubierto por idx_mantenimiento_vehiculo_estado_costos
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(m.id), coalesce(sum(coalesce(m.costo_final, m.costo_estimado)), 0)
+FROM mantenimiento m
+WHERE m.vehiculo_id = (SELECT id FROM vehiculo WHERE patente = 'BENCH01') AND m.estado = 'COMPLETADO';
+
+-- 2) Costo de la columna descripcion al cargar entidades.
+-- La descripción se mantiene en el SELECT de la entidad: todos los DTO de mantenimiento la incluyen y, diferida,
+-- cada mapeo agregaba un SELECT por fila (N+1). Este par mide lo que cuesta traerla; la lógica que no la necesita
+-- usa proyecciones (costos, inactividad en curso).
+-- Con descripción (carga de la entidad)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.id, m.tipo_mantenimiento, m.descripcion, m.fecha_creacion, m.fecha_actualizacion, m.estado,
+       m.kilometraje_en_mantenimiento, m.costo_estimado, m.costo_final, m.vehiculo_id, m.version
+FROM mantenimiento m
+WHERE m.vehiculo_id = (SELECT id FROM vehiculo WHERE patente = 'BENCH01');
+
+-- Sin descripción (referencia: lo que ahorraría una proyección)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.id, m.tipo_mantenimiento, m.fecha_creacion, m.fecha_actualizacion, m.estado,
+       m.kilometraje_en_mantenimiento, m.costo_estimado, m.costo_final, m.vehiculo_id, m.version
+FROM mantenimiento m
+WHERE m.vehiculo_id = (SELECT id FROM vehiculo WHERE patente = 'BENCH01');
+
+ROLLBACK;
@@ -0,0 +1,9 @@
+-- Marca de kilometraje pendiente de evaluación para el planificador de mantenimientos preventivos.
+
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS kilometraje_pendiente_evaluacion BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Índice parcial: solo contiene los vehículos pendientes, por lo que cada corrida lee únicamente esos
+CREATE INDEX IF NOT EXISTS idx_vehiculo_km_pendiente ON vehiculo(id) WHERE kilometraje_pendiente_evaluacion;
+
+CREATE INDEX IF NOT EXISTS idx_mantenimiento_vehiculo_tipo_km
+    ON mantenimiento(vehiculo_id, tipo_mantenimiento, kilometraje_en_mantenimiento);
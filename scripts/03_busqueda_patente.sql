@@ -0,0 +1,9 @@
+-- Búsqueda por prefijo y aproximada (trigramas) sobre la patente.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefijo: LIKE 'AB1%' resuelto como rango sobre un btree
+CREATE INDEX IF NOT EXISTS idx_vehiculo_patente_prefijo ON vehiculo(patente varchar_pattern_ops);
+
+-- Aproximada: operador % (similarity) resuelto con el índice GIN de trigramas
+CREATE INDEX IF NOT EXISTS idx_vehiculo_patente_trgm ON vehiculo USING gin (patente gin_trgm_ops);
@@ -0,0 +1,14 @@
+-- Índices para la consulta multi-criterio de vehículos (GET /api/vehiculos/consulta).
+-- Marca y modelo se filtran con upper(), por eso los índices son funcionales.
+
+-- marca [+ modelo] [+ rango de año]
+CREATE INDEX IF NOT EXISTS idx_vehiculo_marca_modelo_anio ON vehiculo(upper(marca), upper(modelo), anio);
+
+-- disponibles de una marca en un rango de año
+CREATE INDEX IF NOT EXISTS idx_vehiculo_disponible_marca_anio ON vehiculo(disponible, upper(marca), anio);
+
+-- disponibles por debajo/encima de un kilometraje
+CREATE INDEX IF NOT EXISTS idx_vehiculo_disponible_kilometraje ON vehiculo(disponible, kilometraje);
+
+-- rango de año sin marca
+CREATE INDEX IF NOT EXISTS idx_vehiculo_anio ON vehiculo(anio);
@@ -0,0 +1,15 @@
+-- Tabla opcional para Idempotency-Key persistente (idempotencia.persistente=true).
+
+CREATE TABLE IF NOT EXISTS registro_idempotencia (
+    clave          VARCHAR(300) PRIMARY KEY,
+    huella_cuerpo  VARCHAR(64),
+    status         INTEGER      NOT NULL,
+    content_type   VARCHAR(100),
+    cuerpo         BYTEA,
+    fecha_creacion TIMESTAMP    NOT NULL
+);
+
+-- Instalaciones creadas antes de guardar la huella del cuerpo
+ALTER TABLE registro_idempotencia ADD COLUMN IF NOT EXISTS huella_cuerpo VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_registro_idempotencia_fecha ON registro_idempotencia(fecha_creacion);
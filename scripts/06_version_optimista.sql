@@ -0,0 +1,5 @@
+-- Columna de versión para control de concurrencia optimista (@Version) en vehículos y mantenimientos.
+-- Las filas existentes arrancan en 0.
+
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE mantenimiento ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- Índice cubriente para el agregado de costos por vehículo y estado (GET /api/mantenimientos/vehiculo/{id}/costo-total).
+-- Con los costos incluidos la suma se resuelve con un index-only scan, sin leer las filas ni la descripción TEXT.
+
+CREATE INDEX IF NOT EXISTS idx_mantenimiento_vehiculo_estado_costos
+    ON mantenimiento(vehiculo_id, estado) INCLUDE (costo_final, costo_estimado);
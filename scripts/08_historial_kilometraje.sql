@@ -0,0 +1,17 @@
+-- Historial de lecturas de odómetro: una fila por vehículo y día.
+-- Las lecturas individuales se guardan codificadas (varint: segundo del día + delta de km) en la columna lecturas;
+-- las consultas de uso solo leen km_anterior / km_final.
+
+CREATE TABLE IF NOT EXISTS lectura_kilometraje_diaria (
+    vehiculo_id       BIGINT  NOT NULL REFERENCES vehiculo(id) ON DELETE CASCADE,
+    fecha             DATE    NOT NULL,
+    km_anterior       BIGINT  NOT NULL,
+    km_final          BIGINT  NOT NULL,
+    cantidad_lecturas INTEGER NOT NULL,
+    lecturas          BYTEA   NOT NULL,
+    PRIMARY KEY (vehiculo_id, fecha)
+);
+
+-- Consultas de uso de toda la flota por rango de fechas
+CREATE INDEX IF NOT EXISTS idx_lectura_kilometraje_fecha
+    ON lectura_kilometraje_diaria(fecha) INCLUDE (km_anterior, km_final, cantidad_lecturas);
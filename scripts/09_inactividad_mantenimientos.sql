@@ -0,0 +1,29 @@
+-- Tiempo fuera de servicio por mantenimiento: fechas de entrada a cada estado y acumulados diarios.
+-- Las filas existentes toman fecha_actualizacion como entrada a su estado actual (mejor aproximación disponible);
+-- los acumulados de inactividad_diaria arrancan desde la primera transición posterior a este script.
+
+ALTER TABLE mantenimiento ADD COLUMN IF NOT EXISTS fecha_en_proceso TIMESTAMP;
+ALTER TABLE mantenimiento ADD COLUMN IF NOT EXISTS fecha_finalizacion TIMESTAMP;
+
+UPDATE mantenimiento SET fecha_en_proceso = fecha_actualizacion
+WHERE estado = 'EN_PROCESO' AND fecha_en_proceso IS NULL;
+
+UPDATE mantenimiento SET fecha_finalizacion = fecha_actualizacion
+WHERE estado IN ('COMPLETADO', 'CANCELADO') AND fecha_finalizacion IS NULL;
+
+CREATE TABLE IF NOT EXISTS inactividad_diaria (
+    vehiculo_id        BIGINT      NOT NULL REFERENCES vehiculo(id) ON DELETE CASCADE,
+    fecha              DATE        NOT NULL,
+    tipo_mantenimiento VARCHAR(50) NOT NULL,
+    estado             VARCHAR(50) NOT NULL,
+    segundos           BIGINT      NOT NULL,
+    PRIMARY KEY (vehiculo_id, fecha, tipo_mantenimiento, estado)
+);
+
+-- Consultas del tablero por rango de fechas de toda la flota
+CREATE INDEX IF NOT EXISTS idx_inactividad_diaria_fecha
+    ON inactividad_diaria(fecha) INCLUDE (vehiculo_id, tipo_mantenimiento, estado, segundos);
+
+-- Tramos en curso: solo los mantenimientos activos
+CREATE INDEX IF NOT EXISTS idx_mantenimiento_activos
+    ON mantenimiento(fecha_creacion) WHERE estado IN ('PENDIENTE', 'EN_PROCESO');
@@ -0,0 +1,3 @@
+-- Región (shard) dueña de cada vehículo. Las filas existentes quedan en la región por defecto.
+
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS region VARCHAR(10) NOT NULL DEFAULT 'AR';
@@ -0,0 +1,34 @@
+-- Bahías de taller y turnos de mantenimiento.
+-- La restricción de exclusión impide en la base dos turnos superpuestos en la misma bahía, aunque los asignen
+-- instancias distintas con agendas en memoria desactualizadas; requiere btree_gist para combinar = y &&.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE IF NOT EXISTS bahia_taller (
+    id             BIGSERIAL    PRIMARY KEY,
+    nombre         VARCHAR(100) NOT NULL UNIQUE,
+    activa         BOOLEAN      NOT NULL DEFAULT TRUE,
+    fecha_creacion TIMESTAMP    NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS turno_taller (
+    id               BIGSERIAL PRIMARY KEY,
+    bahia_id         BIGINT    NOT NULL REFERENCES bahia_taller(id),
+    mantenimiento_id BIGINT    NOT NULL UNIQUE REFERENCES mantenimiento(id) ON DELETE CASCADE,
+    inicio           TIMESTAMP NOT NULL,
+    fin              TIMESTAMP NOT NULL,
+    fecha_creacion   TIMESTAMP NOT NULL,
+    CONSTRAINT turno_taller_intervalo_valido CHECK (fin > inicio)
+);
+
+-- Aparte del CREATE TABLE para aplicarla también si la tabla la creó Hibernate (ddl-auto=update)
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'turno_taller_sin_superposicion') THEN
+        ALTER TABLE turno_taller ADD CONSTRAINT turno_taller_sin_superposicion
+            EXCLUDE USING gist (bahia_id WITH =, tsrange(inicio, fin) WITH &&);
+    END IF;
+END $$;
+
+-- Carga de la agenda en memoria: solo turnos que todavía no terminaron
+CREATE INDEX IF NOT EXISTS idx_turno_taller_fin ON turno_taller(fin);
@@ -0,0 +1,10 @@
+-- Última posición informada por cada vehículo (índice espacial de disponibles en memoria).
+
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS latitud DOUBLE PRECISION;
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS longitud DOUBLE PRECISION;
+ALTER TABLE vehiculo ADD COLUMN IF NOT EXISTS fecha_posicion TIMESTAMP;
+
+-- Carga y reconstrucción periódica del índice: solo disponibles con posición, sin leer la tabla
+CREATE INDEX IF NOT EXISTS idx_vehiculo_posicion_disponible
+    ON vehiculo (id) INCLUDE (patente, latitud, longitud)
+    WHERE disponible = TRUE AND latitud IS NOT NULL AND longitud IS NOT NULL;
@@ -0,0 +1,12 @@
+-- Prepara la base de un shard regional (sharding.regiones.<REGION>.*) para su índice.
+-- Ejecutar una vez por shard, después de crear el esquema, y antes de insertar datos:
+--   psql -v indice=1 -d kavak_br -f scripts/shards/preparar_shard.sql
+-- El esquema de los shards que no son la región por defecto no lo crea Hibernate ni initdb:
+-- scripts/shards/crear_shards.sh lo copia desde la región por defecto y ejecuta este script.
+-- Los ids de vehículos y mantenimientos del shard arrancan en (indice << 40) + 1, así que cualquier id
+-- identifica su región (ShardingProperties.BITS_ID_LOCAL) y no colisiona con los de otros shards.
+-- Está fuera de scripts/ raíz a propósito: no debe correr automáticamente con initdb.
+
+SELECT format('ALTER TABLE %I ALTER COLUMN id RESTART WITH %s', tabla, (:indice::bigint << 40) + 1)
+FROM unnest(ARRAY['vehiculo', 'mantenimiento']) AS tabla
+\gexec
@@ -0,0 +1,43 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.ClaseCarga;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tamaños de cada bulkhead: pool de conexiones propio y, para las clases que corren fuera del hilo de la
+ * petición (ANALITICA), hilos y cola del ejecutor
+ */
+@Data
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private Map<ClaseCarga, Particion> particiones = new EnumMap<>(Map.of(
+            ClaseCarga.TRANSACCIONAL, new Particion(0, 0, 20),
+            ClaseCarga.ANALITICA, new Particion(4, 20, 5)));
+
+    public Particion particion(ClaseCarga clase) {
+        return particiones.getOrDefault(clase, new Particion());
+    }
+
+    @Data
+    public static class Particion {
+        private int hilos = 4;
+        private int cola = 50;
+        private int conexiones = 10;
+        private Duration esperaConexion = Duration.ofSeconds(5);
+
+        public Particion() {
+        }
+
+        public Particion(int hilos, int cola, int conexiones) {
+            this.hilos = hilos;
+            this.cola = cola;
+            this.conexiones = conexiones;
+        }
+    }
+}
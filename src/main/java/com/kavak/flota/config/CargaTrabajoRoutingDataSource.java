@@ -0,0 +1,49 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.ClaseCarga;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega la conexión del pool correspondiente a la región y la clase de carga del hilo actual:
+ * cada región tiene su base y, dentro de ella, una ráfaga de consultas analíticas no agota las
+ * conexiones transaccionales
+ */
+public class CargaTrabajoRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Clave de búsqueda de un pool
+     */
+    public record Clave(String region, ClaseCarga clase) {
+    }
+
+    private final String regionPorDefecto;
+    private final Map<Clave, HikariDataSource> pools;
+
+    public CargaTrabajoRoutingDataSource(String regionPorDefecto, Map<Clave, HikariDataSource> pools) {
+        this.regionPorDefecto = regionPorDefecto;
+        this.pools = Map.copyOf(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(new Clave(regionPorDefecto, ClaseCarga.TRANSACCIONAL)));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String region = ContextoRegion.actual();
+        return new Clave(region != null ? region : regionPorDefecto, ContextoCargaTrabajo.actual());
+    }
+
+    /**
+     * Pool de una región y clase de carga, para abrir conexiones dedicadas con sus mismos datos de acceso
+     */
+    public HikariDataSource pool(String region, ClaseCarga clase) {
+        return pools.get(new Clave(region, clase));
+    }
+
+    public void cerrar() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
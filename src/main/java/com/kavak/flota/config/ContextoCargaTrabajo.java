@@ -0,0 +1,34 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.ClaseCarga;
+
+import java.util.function.Supplier;
+
+/**
+ * Clase de carga del hilo actual. Determina de qué pool de conexiones se toma la conexión
+ * (ver CargaTrabajoRoutingDataSource). Por defecto es TRANSACCIONAL.
+ */
+public final class ContextoCargaTrabajo {
+
+    private static final ThreadLocal<ClaseCarga> ACTUAL = ThreadLocal.withInitial(() -> ClaseCarga.TRANSACCIONAL);
+
+    private ContextoCargaTrabajo() {
+    }
+
+    public static ClaseCarga actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Ejecuta la tarea con la clase de carga indicada y restaura la anterior al terminar
+     */
+    public static <T> T ejecutarCon(ClaseCarga clase, Supplier<T> tarea) {
+        ClaseCarga anterior = ACTUAL.get();
+        ACTUAL.set(clase);
+        try {
+            return tarea.get();
+        } finally {
+            ACTUAL.set(anterior);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.kavak.flota.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Región (shard) del hilo actual. Junto con la clase de carga determina de qué pool se toma la conexión
+ * (ver CargaTrabajoRoutingDataSource). Sin región fijada se usa la región por defecto.
+ */
+public final class ContextoRegion {
+
+    private static final ThreadLocal<String> ACTUAL = new ThreadLocal<>();
+
+    private ContextoRegion() {
+    }
+
+    /**
+     * @return la región fijada en el hilo, o null si no se fijó ninguna
+     */
+    public static String actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Fija la región del hilo
+     * @return la región que estaba fijada, para restaurarla al terminar
+     */
+    public static String establecer(String region) {
+        String anterior = ACTUAL.get();
+        ACTUAL.set(region);
+        return anterior;
+    }
+
+    /**
+     * Ejecuta la tarea en la región indicada y restaura la anterior al terminar
+     */
+    public static <T> T ejecutarEn(String region, Supplier<T> tarea) {
+        String anterior = establecer(region);
+        try {
+            return tarea.get();
+        } finally {
+            ACTUAL.set(anterior);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Control de admisión para los endpoints de escritura:
+ * cubeta de tokens por cliente y límite global de concurrencia por clase de endpoint
+ */
+@Data
+@ConfigurationProperties(prefix = "control-admision")
+public class ControlAdmisionProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Ráfaga máxima de peticiones que un cliente puede hacer sin esperar
+     */
+    private int capacidadPorCliente = 20;
+
+    /**
+     * Peticiones por segundo que recupera la cubeta de cada cliente
+     */
+    private double tasaPorCliente = 10;
+
+    /**
+     * Cantidad máxima de clientes con cubeta en memoria (los inactivos se descartan)
+     */
+    private long maximoClientes = 100_000;
+
+    private Duration inactividadCliente = Duration.ofMinutes(10);
+
+    /**
+     * Direcciones de los proxies cuya cabecera X-Client-Id se respeta para identificar al cliente;
+     * desde cualquier otra dirección el cliente es la dirección remota
+     */
+    private Set<String> proxiesConfiables = new HashSet<>();
+
+    /**
+     * Peticiones simultáneas permitidas por clase de endpoint (kilometraje, transicion, escritura)
+     */
+    private Map<String, Integer> concurrenciaMaxima = new HashMap<>(Map.of(
+            "kilometraje", 32,
+            "transicion", 32,
+            "escritura", 64));
+}
@@ -0,0 +1,72 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.ClaseCarga;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Un pool de conexiones Hikari por región y clase de carga, y un DataSource principal que enruta entre ellos.
+ * Sin regiones configuradas (sharding.regiones) hay una sola región que usa spring.datasource.*
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    @Bean(destroyMethod = "cerrar")
+    @Primary
+    public CargaTrabajoRoutingDataSource dataSource(BulkheadProperties bulkheadProperties,
+                                                    ShardingProperties shardingProperties,
+                                                    MeterRegistry meterRegistry) {
+        Map<CargaTrabajoRoutingDataSource.Clave, HikariDataSource> pools = new HashMap<>();
+        for (String region : shardingProperties.nombresRegiones()) {
+            for (ClaseCarga clase : ClaseCarga.values()) {
+                HikariDataSource pool = crearPool(clase, bulkheadProperties.particion(clase));
+                if (shardingProperties.isHabilitado()) {
+                    ShardingProperties.Region destino = shardingProperties.getRegiones().get(region);
+                    pool.setPoolName("flota-" + region.toLowerCase() + "-" + clase.name().toLowerCase());
+                    pool.setJdbcUrl(destino.getUrl());
+                    pool.setUsername(destino.getUsername() != null ? destino.getUsername() : username);
+                    pool.setPassword(destino.getPassword() != null ? destino.getPassword() : password);
+                }
+                // Los pools no son beans: se registran a mano para conservar las métricas hikaricp.*
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                pools.put(new CargaTrabajoRoutingDataSource.Clave(region, clase), pool);
+            }
+        }
+        return new CargaTrabajoRoutingDataSource(shardingProperties.getRegionPorDefecto(), pools);
+    }
+
+    /**
+     * El pool se inicializa de forma perezosa en la primera conexión, igual que el autoconfigurado por Spring Boot
+     */
+    private HikariDataSource crearPool(ClaseCarga clase, BulkheadProperties.Particion particion) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("flota-" + clase.name().toLowerCase());
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.setMaximumPoolSize(particion.getConexiones());
+        pool.setConnectionTimeout(particion.getEsperaConexion().toMillis());
+        return pool;
+    }
+}
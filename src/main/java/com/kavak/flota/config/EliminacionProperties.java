@@ -0,0 +1,22 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de la baja masiva de vehículos (POST /api/vehiculos/eliminacion-masiva)
+ */
+@Data
+@ConfigurationProperties(prefix = "eliminacion")
+public class EliminacionProperties {
+
+    /**
+     * Vehículos eliminados por transacción. Acota la duración de cada transacción y de sus bloqueos
+     */
+    private int tamanioLote = 500;
+
+    /**
+     * Máximo de ids aceptados por petición
+     */
+    private int maximoIds = 10_000;
+}
@@ -0,0 +1,30 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las exportaciones masivas (GET /api/exportaciones/*)
+ */
+@Data
+@ConfigurationProperties(prefix = "exportacion")
+public class ExportacionProperties {
+
+    /**
+     * Filas que el driver trae por viaje al servidor. Acota la memoria usada por el cursor
+     */
+    private int tamanioFetch = 10_000;
+
+    /**
+     * Tamaño del buffer de escritura hacia el cliente, en bytes
+     */
+    private int tamanioBuffer = 64 * 1024;
+
+    /**
+     * Tiempo máximo de una exportación. Reemplaza al timeout general de las respuestas asíncronas,
+     * pensado para consultas y no para volcados completos
+     */
+    private Duration tiempoMaximo = Duration.ofHours(1);
+}
@@ -0,0 +1,35 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del soporte de Idempotency-Key en los endpoints de alta
+ */
+@Data
+@ConfigurationProperties(prefix = "idempotencia")
+public class IdempotenciaProperties {
+
+    /**
+     * Cantidad máxima de claves retenidas en memoria
+     */
+    private long maximoEntradas = 100_000;
+
+    /**
+     * Tiempo durante el cual un reintento con la misma clave reproduce la respuesta original
+     */
+    private Duration vigencia = Duration.ofHours(24);
+
+    /**
+     * Tiempo máximo que un reintento espera a que termine la ejecución en curso con la misma clave
+     */
+    private Duration esperaMaxima = Duration.ofSeconds(30);
+
+    /**
+     * Si es true, las respuestas también se guardan en la tabla registro_idempotencia
+     * para sobrevivir reinicios y compartirse entre instancias
+     */
+    private boolean persistente = false;
+}
@@ -0,0 +1,22 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Índice espacial en memoria de los vehículos disponibles (búsqueda del más cercano)
+ */
+@Data
+@ConfigurationProperties(prefix = "indice-espacial")
+public class IndiceEspacialProperties {
+
+    /**
+     * Lado de cada celda de la grilla en grados (0.01 ≈ 1,1 km de latitud)
+     */
+    private double tamanoCelda = 0.01;
+
+    /**
+     * Radio por defecto y máximo de la búsqueda
+     */
+    private double radioMaximoKm = 50;
+}
@@ -0,0 +1,34 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Invalidación de la caché de segundo nivel entre instancias (LISTEN/NOTIFY de PostgreSQL)
+ */
+@Data
+@ConfigurationProperties(prefix = "cache.invalidacion")
+public class InvalidacionCacheProperties {
+
+    /**
+     * Si es false cada instancia solo conoce sus propias escrituras (las demás se ven al vencer el TTL)
+     */
+    private boolean habilitado = true;
+
+    /**
+     * Canal de NOTIFY compartido por todas las instancias
+     */
+    private String canal = "flota_cache";
+
+    /**
+     * Espera antes de reabrir la conexión de escucha después de perderla
+     */
+    private Duration esperaReconexion = Duration.ofSeconds(2);
+
+    /**
+     * Cada cuánto se verifica la conexión de escucha si no llegan notificaciones
+     */
+    private Duration intervaloLatido = Duration.ofSeconds(10);
+}
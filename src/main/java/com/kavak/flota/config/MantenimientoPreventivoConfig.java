@@ -0,0 +1,20 @@
+package com.kavak.flota.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class MantenimientoPreventivoConfig {
+
+    /**
+     * Pool dedicado para evaluar lotes de vehículos en paralelo sin competir con los hilos HTTP
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ejecutorMantenimientoPreventivo(MantenimientoPreventivoProperties properties) {
+        return Executors.newFixedThreadPool(properties.getParalelismo(),
+                Thread.ofPlatform().name("preventivo-", 0).factory());
+    }
+}
@@ -0,0 +1,41 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.TipoMantenimiento;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reglas de mantenimiento preventivo por kilometraje.
+ * Ejemplo: mantenimiento.preventivo.reglas.CAMBIO_ACEITE.intervalo-km=10000
+ */
+@Data
+@ConfigurationProperties(prefix = "mantenimiento.preventivo")
+public class MantenimientoPreventivoProperties {
+
+    private boolean habilitado = false;
+
+    /**
+     * Cantidad de vehículos evaluados por transacción
+     */
+    private int tamanioLote = 200;
+
+    /**
+     * Cantidad de lotes evaluados en paralelo
+     */
+    private int paralelismo = 4;
+
+    private Map<TipoMantenimiento, Regla> reglas = new HashMap<>();
+
+    @Data
+    public static class Regla {
+        /**
+         * Kilómetros recorridos desde el último mantenimiento del tipo que disparan uno nuevo
+         */
+        private long intervaloKm;
+
+        private double costoEstimado;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Política de reintento ante conflictos de concurrencia optimista
+ */
+@Data
+@ConfigurationProperties(prefix = "concurrencia.reintento")
+public class ReintentoOptimistaProperties {
+
+    /**
+     * Cantidad máxima de intentos (incluido el primero)
+     */
+    private int maximoIntentos = 4;
+
+    /**
+     * Espera base del backoff exponencial; cada espera es aleatoria entre 0 y el techo del intento
+     */
+    private Duration esperaBase = Duration.ofMillis(20);
+
+    /**
+     * Techo de la espera entre intentos
+     */
+    private Duration esperaMaxima = Duration.ofMillis(500);
+}
@@ -0,0 +1,92 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Regiones (shards) de la flota. Sin regiones configuradas hay una sola base (spring.datasource.*)
+ * y todo se comporta como antes.
+ * Los ids de vehículos y mantenimientos de cada shard arrancan en indice << BITS_ID_LOCAL
+ * (ver scripts/shards/preparar_shard.sql), así que la región dueña de cualquier id se obtiene del propio id.
+ */
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    /**
+     * Bits bajos del id reservados para la secuencia local de cada shard
+     */
+    public static final int BITS_ID_LOCAL = 40;
+
+    /**
+     * Región de las peticiones sin id ni cabecera X-Region, y única región si no hay shards configurados
+     */
+    private String regionPorDefecto = "AR";
+
+    private Map<String, Region> regiones = new LinkedHashMap<>();
+
+    public boolean isHabilitado() {
+        return !regiones.isEmpty();
+    }
+
+    /**
+     * Nombres de todas las regiones, en el orden de configuración
+     */
+    public List<String> nombresRegiones() {
+        return isHabilitado() ? List.copyOf(regiones.keySet()) : List.of(regionPorDefecto);
+    }
+
+    /**
+     * Región del hilo actual, o la región por defecto si no se fijó ninguna
+     */
+    public String regionActual() {
+        String region = ContextoRegion.actual();
+        return region != null ? region : regionPorDefecto;
+    }
+
+    /**
+     * Normaliza el nombre de una región y valida que esté configurada
+     * @throws IllegalArgumentException si la región no existe
+     */
+    public String validar(String region) {
+        String normalizada = region.trim().toUpperCase(Locale.ROOT);
+        if (!nombresRegiones().contains(normalizada)) {
+            throw new IllegalArgumentException("Región desconocida: '" + region +
+                    "'. Valores permitidos: " + String.join(", ", nombresRegiones()));
+        }
+        return normalizada;
+    }
+
+    /**
+     * Región dueña de un id de vehículo o mantenimiento
+     * @throws IllegalArgumentException si el id no corresponde a ninguna región configurada
+     */
+    public String regionDeId(long id) {
+        if (!isHabilitado()) {
+            return regionPorDefecto;
+        }
+        long indice = id >>> BITS_ID_LOCAL;
+        return regiones.entrySet().stream()
+                .filter(e -> e.getValue().getIndice() == indice)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "El id " + id + " no pertenece a ninguna región configurada"));
+    }
+
+    @Data
+    public static class Region {
+        /**
+         * Posición del shard en el espacio de ids (0, 1, 2...)
+         */
+        private int indice;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,39 @@
+package com.kavak.flota.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Horario de los talleres y parámetros de la asignación de turnos
+ */
+@Data
+@ConfigurationProperties(prefix = "taller")
+public class TallerProperties {
+
+    private LocalTime apertura = LocalTime.of(8, 0);
+
+    private LocalTime cierre = LocalTime.of(18, 0);
+
+    /**
+     * Los turnos empiezan en múltiplos de este intervalo contados desde la apertura
+     */
+    private Duration granularidad = Duration.ofMinutes(15);
+
+    private Set<DayOfWeek> diasCerrados = EnumSet.of(DayOfWeek.SUNDAY);
+
+    /**
+     * Días hacia adelante en los que se busca un hueco antes de informar que no hay capacidad
+     */
+    private int horizonteDias = 120;
+
+    /**
+     * Intentos de asignación cuando otra instancia tomó el mismo hueco
+     */
+    private int maximoIntentos = 3;
+}
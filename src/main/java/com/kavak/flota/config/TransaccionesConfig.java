@@ -0,0 +1,36 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.service.InvalidacionCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Configuration
+public class TransaccionesConfig {
+
+    /**
+     * El mismo JpaTransactionManager que configura Spring Boot, pero que antes de confirmar cada transacción
+     * de escritura publica las invalidaciones de caché para las demás instancias en la misma conexión
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    InvalidacionCache invalidacionCache) {
+        return new JpaTransactionManager(entityManagerFactory) {
+            @Override
+            protected void prepareForCommit(DefaultTransactionStatus status) {
+                if (!status.isNewTransaction() || status.isReadOnly()) {
+                    return;
+                }
+                EntityManagerHolder holder =
+                        (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+                if (holder != null) {
+                    invalidacionCache.publicarPendientes(holder.getEntityManager());
+                }
+            }
+        };
+    }
+}
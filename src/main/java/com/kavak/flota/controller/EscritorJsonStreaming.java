@@ -0,0 +1,87 @@
+package com.kavak.flota.controller;
+
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.service.EjecutorBulkhead;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Arma respuestas JSON de tipo array escribiendo cada elemento directamente en el
+ * generador de Jackson a medida que se produce, sin listas intermedias.
+ * La compresión gzip la aplica el servidor sobre la marcha (server.compression).
+ */
+@Component
+@RequiredArgsConstructor
+public class EscritorJsonStreaming {
+
+    private final ObjectMapper objectMapper;
+    private final EjecutorBulkhead ejecutorBulkhead;
+
+    /**
+     * @param productor recibe el consumidor al que debe entregar cada elemento del array
+     */
+    public <T> ResponseEntity<StreamingResponseBody> arrayJson(Consumer<Consumer<T>> productor) {
+        return respuesta(enRegionActual(salida -> escribir(salida, productor)));
+    }
+
+    /**
+     * Igual que {@link #arrayJson(Consumer)} pero produciendo y escribiendo el array en el hilo del bulkhead
+     * de la clase indicada: ningún hilo de la petición queda bloqueado esperándolo. El controller devuelve el
+     * futuro, que se completa al terminar de escribir.
+     * Si el bulkhead está saturado se rechaza antes de escribir, con lo que todavía puede responderse 503.
+     */
+    public <T> CompletableFuture<Void> arrayJson(ClaseCarga clase, HttpServletResponse response,
+                                                 Consumer<Consumer<T>> productor) {
+        return ejecutorBulkhead.enviar(clase, () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try {
+                escribir(response.getOutputStream(), productor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * El cuerpo se escribe después en un hilo de MVC: se le traslada la región de la petición
+     */
+    private StreamingResponseBody enRegionActual(StreamingResponseBody cuerpo) {
+        String region = ContextoRegion.actual();
+        return salida -> {
+            String anterior = ContextoRegion.establecer(region);
+            try {
+                cuerpo.writeTo(salida);
+            } finally {
+                ContextoRegion.establecer(anterior);
+            }
+        };
+    }
+
+    private <T> void escribir(OutputStream salida, Consumer<Consumer<T>> productor) throws IOException {
+        try (JsonGenerator generador = objectMapper.createGenerator(salida)) {
+            generador.writeStartArray();
+            productor.accept(generador::writePOJO);
+            generador.writeEndArray();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> respuesta(StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cuerpo);
+    }
+}
@@ -0,0 +1,105 @@
+package com.kavak.flota.controller;
+
+import com.kavak.flota.config.ExportacionProperties;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.enums.FormatoExportacion;
+import com.kavak.flota.service.EjecutorBulkhead;
+import com.kavak.flota.service.ExportacionService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportaciones masivas para procesos batch (finanzas, BI).
+ * La lectura y la escritura sobre la respuesta corren en el bulkhead analítico; la petición queda asíncrona
+ * hasta que termina, con su propio tiempo máximo (exportacion.tiempo-maximo).
+ */
+@RestController
+@RequestMapping("/api/exportaciones")
+@RequiredArgsConstructor
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+    private final EjecutorBulkhead ejecutorBulkhead;
+    private final ExportacionProperties properties;
+
+    /**
+     * Exportar todos los vehículos
+     * GET /api/exportaciones/vehiculos?formato={csv|ndjson}&gzip={true|false}
+     */
+    @GetMapping("/vehiculos")
+    public DeferredResult<Void> exportarVehiculos(
+            @RequestParam(defaultValue = "CSV") String formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) {
+        return exportar("vehiculos", formato, gzip, response, exportacionService::exportarVehiculos);
+    }
+
+    /**
+     * Exportar todos los mantenimientos
+     * GET /api/exportaciones/mantenimientos?formato={csv|ndjson}&gzip={true|false}
+     */
+    @GetMapping("/mantenimientos")
+    public DeferredResult<Void> exportarMantenimientos(
+            @RequestParam(defaultValue = "CSV") String formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) {
+        return exportar("mantenimientos", formato, gzip, response, exportacionService::exportarMantenimientos);
+    }
+
+    private DeferredResult<Void> exportar(String nombre, String formatoStr, boolean gzip, HttpServletResponse response,
+                          BiFunction<FormatoExportacion, Writer, Long> exportacion) {
+        FormatoExportacion formato;
+        try {
+            formato = FormatoExportacion.valueOf(formatoStr.toUpperCase().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación inválido: '" + formatoStr +
+                    "'. Valores permitidos: " + String.join(", ", FormatoExportacion.getValoresPermitidos()));
+        }
+
+        String archivo = nombre + "." + formato.getExtension() + (gzip ? ".gz" : "");
+        DeferredResult<Void> resultado = new DeferredResult<>(properties.getTiempoMaximo().toMillis());
+        ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> {
+            // Las cabeceras se fijan recién al empezar, para que un rechazo del bulkhead todavía pueda responder 503
+            response.setContentType(gzip ? "application/gzip" : formato.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(archivo).build().toString());
+
+            try (Writer destino = abrirDestino(response, gzip)) {
+                exportacion.apply(formato, destino);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }).whenComplete((nada, error) -> {
+            if (error != null) {
+                resultado.setErrorResult(error);
+            } else {
+                resultado.setResult(null);
+            }
+        });
+        return resultado;
+    }
+
+    private Writer abrirDestino(HttpServletResponse response, boolean gzip) throws IOException {
+        OutputStream salida = response.getOutputStream();
+        if (gzip) {
+            salida = new GZIPOutputStream(salida, properties.getTamanioBuffer());
+        }
+        return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), properties.getTamanioBuffer());
+    }
+}
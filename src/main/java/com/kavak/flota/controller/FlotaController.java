@@ -0,0 +1,27 @@
+package com.kavak.flota.controller;
+
+import com.kavak.flota.dto.ResumenFlotaDTO;
+import com.kavak.flota.service.ContadoresFlota;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/flota")
+@RequiredArgsConstructor
+public class FlotaController {
+
+    private final ContadoresFlota contadoresFlota;
+
+    /**
+     * Resumen de la flota: vehículos disponibles / no disponibles y mantenimientos por estado y tipo.
+     * Se responde desde contadores en memoria, sin consultar la base
+     * GET /api/flota/resumen
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<ResumenFlotaDTO> obtenerResumen() {
+        return ResponseEntity.ok(contadoresFlota.resumen());
+    }
+}
@@ -0,0 +1,39 @@
+package com.kavak.flota.controller;
+
+import com.kavak.flota.dto.ResultadoImportacionDTO;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.service.EjecutorBulkhead;
+import com.kavak.flota.service.ImportacionMantenimientosService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/importaciones")
+@RequiredArgsConstructor
+public class ImportacionController {
+
+    private final ImportacionMantenimientosService importacionService;
+    private final EjecutorBulkhead ejecutorBulkhead;
+
+    /**
+     * Importar historial de mantenimientos desde un CSV enviado como cuerpo de la petición
+     * POST /api/importaciones/mantenimientos (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/mantenimientos", consumes = "text/csv")
+    public CompletableFuture<ResponseEntity<ResultadoImportacionDTO>> importarMantenimientos(HttpServletRequest request) {
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> {
+            try (InputStream cuerpo = request.getInputStream()) {
+                return ResponseEntity.ok(importacionService.importar(cuerpo));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
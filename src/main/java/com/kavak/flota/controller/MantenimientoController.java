@@ -3,15 +3,28 @@ package com.kavak.flota.controller;
 import com.kavak.flota.dto.MantenimientoDTO;
 import com.kavak.flota.dto.TransicionEstadoResponseDTO;
 import com.kavak.flota.dto.CostoTotalMantenimientosDTO;
+import com.kavak.flota.dto.InactividadDTO;
+import com.kavak.flota.dto.TurnoTallerDTO;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.service.EjecutorBulkhead;
+import com.kavak.flota.service.InactividadService;
 import com.kavak.flota.service.MantenimientoService;
+import com.kavak.flota.service.TallerService;
+import com.kavak.flota.util.CamposSolicitados;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/mantenimientos")
@@ -20,6 +33,10 @@ import java.util.List;
 public class MantenimientoController {
 
     private final MantenimientoService mantenimientoService;
+    private final EscritorJsonStreaming escritorJsonStreaming;
+    private final EjecutorBulkhead ejecutorBulkhead;
+    private final InactividadService inactividadService;
+    private final TallerService tallerService;
 
     /**
      * Crear un nuevo mantenimiento para un vehículo
@@ -34,23 +51,44 @@ public class MantenimientoController {
     }
 
     /**
-     * Obtener todos los mantenimientos de un vehículo por ID
-     * GET /api/mantenimientos/vehiculo/{vehiculoId}
+     * Obtener todos los mantenimientos de un vehículo por ID; con fields= solo esas columnas
+     * GET /api/mantenimientos/vehiculo/{vehiculoId}[?fields=]
      */
     @GetMapping("/vehiculo/{vehiculoId}")
-    public ResponseEntity<List<MantenimientoDTO>> obtenerPorVehiculoId(@PathVariable Long vehiculoId) {
-        return ResponseEntity.ok(mantenimientoService.obtenerPorVehiculoId(vehiculoId));
+    public ResponseEntity<StreamingResponseBody> obtenerPorVehiculoId(
+            @PathVariable Long vehiculoId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return camposPorVehiculo(vehiculoId, false, fields);
+        }
+        return escritorJsonStreaming.<MantenimientoDTO>arrayJson(
+                consumidor -> mantenimientoService.recorrerPorVehiculoId(vehiculoId, consumidor));
     }
 
     /**
      * Obtener todos los mantenimientos ACTIVOS de un vehículo por ID
      * Estados activos: PENDIENTE, EN_PROCESO
-     * GET /api/mantenimientos/vehiculo/{vehiculoId}/activos
+     * GET /api/mantenimientos/vehiculo/{vehiculoId}/activos[?fields=]
      */
     @GetMapping("/vehiculo/{vehiculoId}/activos")
-    public ResponseEntity<List<MantenimientoDTO>> obtenerMantenimientosActivosPorVehiculo(
-            @PathVariable Long vehiculoId) {
-        return ResponseEntity.ok(mantenimientoService.obtenerMantenimientosActivosPorVehiculo(vehiculoId));
+    public ResponseEntity<StreamingResponseBody> obtenerMantenimientosActivosPorVehiculo(
+            @PathVariable Long vehiculoId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return camposPorVehiculo(vehiculoId, true, fields);
+        }
+        return escritorJsonStreaming.<MantenimientoDTO>arrayJson(
+                consumidor -> mantenimientoService.recorrerMantenimientosActivosPorVehiculo(vehiculoId, consumidor));
+    }
+
+    /**
+     * Los campos se validan antes de empezar la respuesta, para poder devolver 400
+     */
+    private ResponseEntity<StreamingResponseBody> camposPorVehiculo(Long vehiculoId, boolean soloActivos,
+                                                                    String fields) {
+        List<String> campos = CamposSolicitados.parsear(fields, MantenimientoService.CAMPOS_SELECCIONABLES);
+        return escritorJsonStreaming.<Map<String, Object>>arrayJson(
+                consumidor -> mantenimientoService.recorrerCamposPorVehiculoId(vehiculoId, soloActivos, campos, consumidor));
     }
 
     /**
@@ -74,14 +112,38 @@ public class MantenimientoController {
     }
 
     /**
-     * Calcular costo total de mantenimientos completados de un vehículo por ID
+     * Asignar a un mantenimiento PENDIENTE el primer turno libre del taller donde entre su duración
+     * POST /api/mantenimientos/{id}/turno?desde={yyyy-MM-ddTHH:mm}
+     */
+    @PostMapping("/{id}/turno")
+    public ResponseEntity<TurnoTallerDTO> agendarTurno(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tallerService.agendar(id, desde));
+    }
+
+    /**
+     * Calcular costo total de mantenimientos completados de un vehículo por ID (bulkhead analítico)
      * GET /api/mantenimientos/vehiculo/{vehiculoId}/costo-total
      */
     @GetMapping("/vehiculo/{vehiculoId}/costo-total")
-    public ResponseEntity<CostoTotalMantenimientosDTO> calcularCostoTotalMantenimientosCompletados(
+    public CompletableFuture<ResponseEntity<CostoTotalMantenimientosDTO>> calcularCostoTotalMantenimientosCompletados(
             @PathVariable Long vehiculoId) {
-        return ResponseEntity.ok(
-                mantenimientoService.calcularCostoTotalMantenimientosCompletados(vehiculoId));
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> ResponseEntity.ok(
+                mantenimientoService.calcularCostoTotalMantenimientosCompletados(vehiculoId)));
     }
-}
 
+    /**
+     * Horas fuera de servicio (PENDIENTE / EN_PROCESO) por vehículo, tipo de mantenimiento o día (bulkhead analítico)
+     * GET /api/mantenimientos/inactividad?desde={yyyy-MM-dd}&hasta={yyyy-MM-dd}&agrupacion={vehiculo|tipo|dia}&vehiculoId={id}
+     */
+    @GetMapping("/inactividad")
+    public CompletableFuture<ResponseEntity<List<InactividadDTO>>> obtenerInactividad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "VEHICULO") String agrupacion,
+            @RequestParam(required = false) Long vehiculoId) {
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> ResponseEntity.ok(
+                inactividadService.obtenerInactividad(desde, hasta, agrupacion, vehiculoId)));
+    }
+}
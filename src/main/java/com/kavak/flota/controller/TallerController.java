@@ -0,0 +1,56 @@
+package com.kavak.flota.controller;
+
+import com.kavak.flota.dto.BahiaTallerDTO;
+import com.kavak.flota.dto.TurnoTallerDTO;
+import com.kavak.flota.service.TallerService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bahías del taller y sus turnos. Las bahías pertenecen a la región de la cabecera X-Region;
+ * los turnos se asignan desde POST /api/mantenimientos/{id}/turno
+ */
+@RestController
+@RequestMapping("/api/taller")
+@RequiredArgsConstructor
+public class TallerController {
+
+    private final TallerService tallerService;
+
+    /**
+     * Crear una bahía
+     * POST /api/taller/bahias
+     */
+    @PostMapping("/bahias")
+    public ResponseEntity<BahiaTallerDTO> crearBahia(@Valid @RequestBody BahiaTallerDTO bahiaDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tallerService.crearBahia(bahiaDTO));
+    }
+
+    /**
+     * Listar las bahías
+     * GET /api/taller/bahias
+     */
+    @GetMapping("/bahias")
+    public ResponseEntity<List<BahiaTallerDTO>> listarBahias() {
+        return ResponseEntity.ok(tallerService.listarBahias());
+    }
+
+    /**
+     * Turnos de una bahía en un período
+     * GET /api/taller/turnos?bahiaId={id}&desde={yyyy-MM-ddTHH:mm}&hasta={yyyy-MM-ddTHH:mm}
+     */
+    @GetMapping("/turnos")
+    public ResponseEntity<List<TurnoTallerDTO>> obtenerTurnos(
+            @RequestParam Long bahiaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(tallerService.obtenerTurnos(bahiaId, desde, hasta));
+    }
+}
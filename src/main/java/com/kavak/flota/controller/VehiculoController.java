@@ -1,16 +1,42 @@
 package com.kavak.flota.controller;
 
+import com.kavak.flota.dto.EliminacionVehiculosDTO;
+import com.kavak.flota.dto.FiltroVehiculoDTO;
+import com.kavak.flota.dto.LecturaKilometrajeDTO;
+import com.kavak.flota.dto.PaginaDTO;
+import com.kavak.flota.dto.PosicionVehiculoDTO;
+import com.kavak.flota.dto.ResultadoEliminacionDTO;
+import com.kavak.flota.dto.UsoKilometrajeDTO;
+import com.kavak.flota.dto.VehiculoCercanoDTO;
 import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.dto.VehiculoResumenDTO;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.service.ConsultaRegional;
+import com.kavak.flota.service.EjecutorBulkhead;
+import com.kavak.flota.service.HistorialKilometrajeService;
+import com.kavak.flota.service.IndiceEspacialVehiculos;
 import com.kavak.flota.service.VehiculoService;
+import com.kavak.flota.util.CamposSolicitados;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/vehiculos")
@@ -19,6 +45,11 @@ import java.util.List;
 public class VehiculoController {
 
     private final VehiculoService vehiculoService;
+    private final EscritorJsonStreaming escritorJsonStreaming;
+    private final EjecutorBulkhead ejecutorBulkhead;
+    private final HistorialKilometrajeService historialKilometrajeService;
+    private final ConsultaRegional consultaRegional;
+    private final IndiceEspacialVehiculos indiceEspacialVehiculos;
 
     /**
      * Crear un nuevo vehículo
@@ -31,43 +62,121 @@ public class VehiculoController {
     }
 
     /**
-     * Obtener vehículo por ID o patente
+     * Obtener vehículo por ID o patente; con fields= solo esas columnas (p. ej. fields=id,patente,disponible)
      * GET /api/vehiculos?id={id} o GET /api/vehiculos?patente={patente}
      */
     @GetMapping
-    public ResponseEntity<VehiculoDTO> obtenerVehiculo(
+    public ResponseEntity<?> obtenerVehiculo(
             @RequestParam(required = false) Long id,
-            @RequestParam(required = false) String patente) {
+            @RequestParam(required = false) String patente,
+            @RequestParam(required = false) String fields) {
 
+        List<String> campos = fields != null
+                ? CamposSolicitados.parsear(fields, VehiculoService.CAMPOS_SELECCIONABLES) : null;
         if (id != null) {
-            VehiculoDTO vehiculo = vehiculoService.obtenerPorId(id);
-            return ResponseEntity.ok(vehiculo);
+            return ResponseEntity.ok(campos != null
+                    ? vehiculoService.obtenerCamposPorId(id, campos)
+                    : vehiculoService.obtenerPorId(id));
         } else if (patente != null && !patente.isEmpty()) {
-            VehiculoDTO vehiculo = vehiculoService.obtenerPorPatente(patente.toUpperCase().trim());
-            return ResponseEntity.ok(vehiculo);
+            String normalizada = patente.toUpperCase().trim();
+            return ResponseEntity.ok(campos != null
+                    ? vehiculoService.obtenerCamposPorPatente(normalizada, campos)
+                    : vehiculoService.obtenerPorPatente(normalizada));
         } else {
             throw new IllegalArgumentException("Debe proporcionar 'id' o 'patente' como parámetro");
         }
     }
 
     /**
-     * Obtener todos los vehículos disponibles (sin mantenimientos activos)
-     * GET /api/vehiculos/disponibles
+     * Buscar vehículos por prefijo o aproximación de patente (autocompletado)
+     * GET /api/vehiculos/buscar?q={texto}&marca={marca}&modelo={modelo}&limite={n}
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<List<VehiculoResumenDTO>> buscarVehiculos(
+            @RequestParam String q,
+            @RequestParam(required = false) String marca,
+            @RequestParam(required = false) String modelo,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "El límite debe ser mayor a 0")
+            @Max(value = 50, message = "El límite no puede superar 50") Integer limite) {
+        return ResponseEntity.ok(vehiculoService.buscarPorPatente(q, marca, modelo, limite));
+    }
+
+    /**
+     * Consulta multi-criterio paginada de vehículos (bulkhead analítico); con fields= solo esas columnas
+     * GET /api/vehiculos/consulta?marca=&modelo=&anioDesde=&anioHasta=&kilometrajeDesde=&kilometrajeHasta=
+     *     &disponible=&page=&size=&sort=campo,asc|desc&fields=
+     */
+    @GetMapping("/consulta")
+    public CompletableFuture<ResponseEntity<PaginaDTO<?>>> consultarVehiculos(
+            @Valid FiltroVehiculoDTO filtro,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String fields) {
+        List<String> campos = fields != null
+                ? CamposSolicitados.parsear(fields, VehiculoService.CAMPOS_SELECCIONABLES) : null;
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> ResponseEntity.<PaginaDTO<?>>ok(campos != null
+                ? vehiculoService.consultarCamposVehiculos(filtro, pageable, campos)
+                : vehiculoService.consultarVehiculos(filtro, pageable)));
+    }
+
+    /**
+     * Obtener todos los vehículos disponibles (sin mantenimientos activos) de todas las regiones (bulkhead analítico)
+     * GET /api/vehiculos/disponibles[?fields=]
      */
     @GetMapping("/disponibles")
-    public ResponseEntity<List<VehiculoDTO>> obtenerVehiculosDisponibles() {
-        List<VehiculoDTO> vehiculos = vehiculoService.obtenerVehiculosDisponibles();
-        return ResponseEntity.ok(vehiculos);
+    public CompletableFuture<Void> obtenerVehiculosDisponibles(
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
+        if (fields != null) {
+            return camposPorDisponibilidad(true, fields, response);
+        }
+        return escritorJsonStreaming.<VehiculoDTO>arrayJson(ClaseCarga.ANALITICA, response,
+                consumidor -> consultaRegional.recorrerEnTodas(vehiculoService::recorrerVehiculosDisponibles, consumidor));
     }
 
     /**
-     * Obtener todos los vehículos no disponibles (con mantenimientos activos)
-     * GET /api/vehiculos/no-disponibles
+     * Obtener todos los vehículos no disponibles (con mantenimientos activos) de todas las regiones (bulkhead analítico)
+     * GET /api/vehiculos/no-disponibles[?fields=]
      */
     @GetMapping("/no-disponibles")
-    public ResponseEntity<List<VehiculoDTO>> obtenerVehiculosNoDisponibles() {
-        List<VehiculoDTO> vehiculos = vehiculoService.obtenerVehiculosNoDisponibles();
-        return ResponseEntity.ok(vehiculos);
+    public CompletableFuture<Void> obtenerVehiculosNoDisponibles(
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
+        if (fields != null) {
+            return camposPorDisponibilidad(false, fields, response);
+        }
+        return escritorJsonStreaming.<VehiculoDTO>arrayJson(ClaseCarga.ANALITICA, response,
+                consumidor -> consultaRegional.recorrerEnTodas(vehiculoService::recorrerVehiculosNoDisponibles, consumidor));
+    }
+
+    /**
+     * Los campos se validan antes de empezar la respuesta, para poder devolver 400
+     */
+    private CompletableFuture<Void> camposPorDisponibilidad(boolean disponible, String fields,
+                                                           HttpServletResponse response) {
+        List<String> campos = CamposSolicitados.parsear(fields, VehiculoService.CAMPOS_SELECCIONABLES);
+        return escritorJsonStreaming.<Map<String, Object>>arrayJson(ClaseCarga.ANALITICA, response,
+                consumidor -> consultaRegional.recorrerEnTodas(
+                        regional -> vehiculoService.recorrerCamposPorDisponibilidad(disponible, campos, regional),
+                        consumidor));
+    }
+
+    /**
+     * Los vehículos disponibles más cercanos a un punto, desde el índice en memoria (sin consultar la base)
+     * GET /api/vehiculos/cercanos?latitud={lat}&longitud={lon}&cantidad={k}&radioKm={km}
+     */
+    @GetMapping("/cercanos")
+    public ResponseEntity<List<VehiculoCercanoDTO>> obtenerCercanos(
+            @RequestParam @DecimalMin(value = "-90", message = "La latitud debe estar entre -90 y 90")
+            @DecimalMax(value = "90", message = "La latitud debe estar entre -90 y 90") Double latitud,
+            @RequestParam @DecimalMin(value = "-180", message = "La longitud debe estar entre -180 y 180")
+            @DecimalMax(value = "180", message = "La longitud debe estar entre -180 y 180") Double longitud,
+            @RequestParam(defaultValue = "5")
+            @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+            @Max(value = 50, message = "La cantidad no puede superar 50") Integer cantidad,
+            @RequestParam(required = false)
+            @DecimalMin(value = "0", inclusive = false, message = "El radio debe ser mayor a 0") Double radioKm) {
+        return ResponseEntity.ok(indiceEspacialVehiculos.cercanos(latitud, longitud, cantidad, radioKm));
     }
 
     /**
@@ -94,6 +203,66 @@ public class VehiculoController {
         return ResponseEntity.ok(vehiculoActualizado);
     }
 
+    /**
+     * Registrar la posición actual de un vehículo (alta frecuencia, sin cuerpo en la respuesta)
+     * PUT /api/vehiculos/{id}/posicion
+     */
+    @PutMapping("/{id}/posicion")
+    public ResponseEntity<Void> actualizarPosicion(
+            @PathVariable Long id,
+            @Valid @RequestBody PosicionVehiculoDTO posicion) {
+        vehiculoService.actualizarPosicion(id, posicion);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Kilómetros recorridos por un vehículo por día o semana
+     * GET /api/vehiculos/{id}/uso?desde={yyyy-MM-dd}&hasta={yyyy-MM-dd}&agrupacion={dia|semana}
+     */
+    @GetMapping("/{id}/uso")
+    public ResponseEntity<List<UsoKilometrajeDTO>> obtenerUsoPorVehiculo(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "DIA") String agrupacion) {
+        return ResponseEntity.ok(historialKilometrajeService.obtenerUsoPorVehiculo(id, desde, hasta, agrupacion));
+    }
+
+    /**
+     * Kilómetros recorridos por toda la flota por día o semana (bulkhead analítico)
+     * GET /api/vehiculos/uso?desde={yyyy-MM-dd}&hasta={yyyy-MM-dd}&agrupacion={dia|semana}
+     */
+    @GetMapping("/uso")
+    public CompletableFuture<ResponseEntity<List<UsoKilometrajeDTO>>> obtenerUsoFlota(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "DIA") String agrupacion) {
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA,
+                () -> ResponseEntity.ok(historialKilometrajeService.obtenerUsoFlota(desde, hasta, agrupacion)));
+    }
+
+    /**
+     * Lecturas de odómetro de un vehículo en un día
+     * GET /api/vehiculos/{id}/lecturas?fecha={yyyy-MM-dd}
+     */
+    @GetMapping("/{id}/lecturas")
+    public ResponseEntity<List<LecturaKilometrajeDTO>> obtenerLecturasDelDia(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(historialKilometrajeService.obtenerLecturasDelDia(id, fecha));
+    }
+
+    /**
+     * Eliminar varios vehículos con sus mantenimientos, en transacciones por lotes (bulkhead analítico)
+     * POST /api/vehiculos/eliminacion-masiva
+     */
+    @PostMapping("/eliminacion-masiva")
+    public CompletableFuture<ResponseEntity<ResultadoEliminacionDTO>> eliminarVehiculos(
+            @Valid @RequestBody EliminacionVehiculosDTO eliminacion) {
+        return ejecutorBulkhead.enviar(ClaseCarga.ANALITICA,
+                () -> ResponseEntity.ok(vehiculoService.eliminarVehiculos(eliminacion.getIds())));
+    }
+
     /**
      * Eliminar vehículo
      * DELETE /api/vehiculos/{id}
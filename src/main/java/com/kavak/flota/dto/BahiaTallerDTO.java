@@ -0,0 +1,24 @@
+package com.kavak.flota.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BahiaTallerDTO {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    @NotBlank(message = "El nombre de la bahía es obligatorio")
+    @Size(max = 100, message = "El nombre de la bahía no puede superar los 100 caracteres")
+    private String nombre;
+
+    private Boolean activa;
+}
@@ -0,0 +1,20 @@
+package com.kavak.flota.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EliminacionVehiculosDTO {
+
+    @NotEmpty(message = "Debe indicar al menos un id de vehículo")
+    private List<@NotNull(message = "Los ids no pueden ser nulos") Long> ids;
+}
@@ -0,0 +1,34 @@
+package com.kavak.flota.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Criterios opcionales de la consulta multi-criterio de vehículos.
+ * Los rangos son inclusivos y cualquier campo nulo no filtra.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiltroVehiculoDTO {
+    private String marca;
+    private String modelo;
+
+    @Min(value = 1900, message = "El año desde debe ser mayor o igual a 1900")
+    private Integer anioDesde;
+
+    @Min(value = 1900, message = "El año hasta debe ser mayor o igual a 1900")
+    private Integer anioHasta;
+
+    @Min(value = 0, message = "El kilometraje desde no puede ser negativo")
+    private Long kilometrajeDesde;
+
+    @Min(value = 0, message = "El kilometraje hasta no puede ser negativo")
+    private Long kilometrajeHasta;
+
+    private Boolean disponible;
+}
@@ -0,0 +1,20 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InactividadDTO {
+    /**
+     * Id de vehículo, tipo de mantenimiento o fecha (yyyy-MM-dd) según la agrupación
+     */
+    private String clave;
+    private Double horasPendiente;
+    private Double horasEnProceso;
+    private Double horasTotales;
+}
@@ -0,0 +1,17 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LecturaKilometrajeDTO {
+    private LocalDateTime fechaHora;
+    private Long kilometraje;
+}
@@ -0,0 +1,34 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Página de resultados con un formato JSON estable (no depende de la serialización de PageImpl)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private Integer pagina;
+    private Integer tamanio;
+    private Long totalElementos;
+    private Integer totalPaginas;
+
+    public static <T> PaginaDTO<T> desde(Page<T> page) {
+        return PaginaDTO.<T>builder()
+                .contenido(page.getContent())
+                .pagina(page.getNumber())
+                .tamanio(page.getSize())
+                .totalElementos(page.getTotalElements())
+                .totalPaginas(page.getTotalPages())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.kavak.flota.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PosicionVehiculoDTO {
+
+    @NotNull(message = "La latitud es obligatoria")
+    @DecimalMin(value = "-90", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90", message = "La latitud debe estar entre -90 y 90")
+    private Double latitud;
+
+    @NotNull(message = "La longitud es obligatoria")
+    @DecimalMin(value = "-180", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180", message = "La longitud debe estar entre -180 y 180")
+    private Double longitud;
+
+    /**
+     * Momento de la lectura en el dispositivo; si falta se usa el de recepción.
+     * Las lecturas más viejas que la última registrada se descartan
+     */
+    private LocalDateTime fechaHora;
+}
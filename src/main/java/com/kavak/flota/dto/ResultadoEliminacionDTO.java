@@ -0,0 +1,24 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoEliminacionDTO {
+    private Integer solicitados;
+    private Integer vehiculosEliminados;
+    private Integer mantenimientosEliminados;
+    private Integer lotes;
+    private Long duracionMs;
+    /**
+     * Ids que no existían (ya eliminados o inválidos)
+     */
+    private List<Long> noEncontrados;
+}
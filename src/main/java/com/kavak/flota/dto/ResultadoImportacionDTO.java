@@ -0,0 +1,24 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacionDTO {
+    private Long filasLeidas;
+    private Long filasImportadas;
+    private Long filasRechazadas;
+    private Integer vehiculosActualizados;
+    private Long duracionMs;
+    /**
+     * Motivos de rechazo de las primeras filas inválidas
+     */
+    private List<String> errores;
+}
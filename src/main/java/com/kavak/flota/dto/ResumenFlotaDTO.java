@@ -0,0 +1,29 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenFlotaDTO {
+    private Long totalVehiculos;
+    private Long vehiculosDisponibles;
+    private Long vehiculosNoDisponibles;
+    private Map<String, Long> mantenimientosPorEstado;
+    private Map<String, Long> mantenimientosPorTipo;
+    /**
+     * Solo mantenimientos en estado PENDIENTE o EN_PROCESO
+     */
+    private Map<String, Long> mantenimientosActivosPorTipo;
+    /**
+     * Última vez que los contadores se compararon con la base de datos
+     */
+    private LocalDateTime ultimaReconciliacion;
+}
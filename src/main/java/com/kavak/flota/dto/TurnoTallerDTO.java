@@ -0,0 +1,21 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TurnoTallerDTO {
+    private Long id;
+    private Long mantenimientoId;
+    private Long bahiaId;
+    private String bahiaNombre;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+}
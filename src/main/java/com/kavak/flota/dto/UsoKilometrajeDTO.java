@@ -0,0 +1,28 @@
+package com.kavak.flota.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UsoKilometrajeDTO {
+    /**
+     * Día, o lunes de la semana en la agrupación semanal
+     */
+    private LocalDate periodo;
+    private Long kilometros;
+    private Long lecturas;
+    /**
+     * Solo en consultas de flota: vehículos con lecturas en el día
+     * (en la agrupación semanal, el máximo diario de la semana)
+     */
+    private Long vehiculosActivos;
+}
@@ -0,0 +1,18 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VehiculoCercanoDTO {
+    private Long vehiculoId;
+    private String patente;
+    private Double latitud;
+    private Double longitud;
+    private Double distanciaKm;
+}
@@ -41,6 +41,24 @@ public class VehiculoDTO {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Boolean disponible;
 
+    /**
+     * Región dueña del vehículo, tomada de la cabecera X-Region en el alta
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String region;
+
+    /**
+     * Última posición informada (PUT /api/vehiculos/{id}/posicion)
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double latitud;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double longitud;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime fechaPosicion;
+
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime fechaCreacion;
 
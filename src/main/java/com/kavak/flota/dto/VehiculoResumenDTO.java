@@ -0,0 +1,23 @@
+package com.kavak.flota.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vista liviana de un vehículo, sin mantenimientos, para búsquedas y autocompletado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VehiculoResumenDTO {
+    private Long id;
+    private String patente;
+    private String marca;
+    private String modelo;
+    private Integer anio;
+    private Long kilometraje;
+    private Boolean disponible;
+}
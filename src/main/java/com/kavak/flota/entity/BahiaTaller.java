@@ -0,0 +1,42 @@
+package com.kavak.flota.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Bahía de taller donde se realiza un mantenimiento a la vez
+ */
+@Entity
+@Table(name = "bahia_taller")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BahiaTaller {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "nombre", nullable = false, unique = true, length = 100)
+    private String nombre;
+
+    /**
+     * Una bahía inactiva conserva sus turnos pero no recibe nuevos
+     */
+    @Column(name = "activa", nullable = false)
+    @Builder.Default
+    private Boolean activa = true;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
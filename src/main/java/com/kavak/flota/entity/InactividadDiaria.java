@@ -0,0 +1,49 @@
+package com.kavak.flota.entity;
+
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Acumulado de tiempo fuera de servicio: segundos que los mantenimientos de un vehículo pasaron en un estado
+ * activo (PENDIENTE o EN_PROCESO), por tipo de mantenimiento y día.
+ * Se escribe solo con el upsert de InactividadDiariaRepository al confirmar cada transición; desde JPA es de solo lectura.
+ */
+@Entity
+@Immutable
+@IdClass(InactividadDiariaId.class)
+@Table(name = "inactividad_diaria")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InactividadDiaria {
+
+    @Id
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId;
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_mantenimiento")
+    private TipoMantenimiento tipoMantenimiento;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado")
+    private Estado estado;
+
+    @Column(name = "segundos", nullable = false)
+    private Long segundos;
+}
@@ -0,0 +1,20 @@
+package com.kavak.flota.entity;
+
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InactividadDiariaId implements Serializable {
+    private Long vehiculoId;
+    private LocalDate fecha;
+    private TipoMantenimiento tipoMantenimiento;
+    private Estado estado;
+}
@@ -0,0 +1,54 @@
+package com.kavak.flota.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Lecturas de odómetro de un vehículo en un día: una fila por vehículo y día con los totales del día
+ * y las lecturas individuales codificadas en un bloque (ver CodificadorLecturas).
+ * Se escribe solo con el upsert de LecturaKilometrajeDiariaRepository; desde JPA es de solo lectura.
+ */
+@Entity
+@Immutable
+@IdClass(LecturaKilometrajeDiariaId.class)
+@Table(name = "lectura_kilometraje_diaria")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LecturaKilometrajeDiaria {
+
+    @Id
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId;
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    /**
+     * Kilometraje del vehículo antes de la primera lectura del día
+     */
+    @Column(name = "km_anterior", nullable = false)
+    private Long kmAnterior;
+
+    /**
+     * Kilometraje de la última lectura del día
+     */
+    @Column(name = "km_final", nullable = false)
+    private Long kmFinal;
+
+    @Column(name = "cantidad_lecturas", nullable = false)
+    private Integer cantidadLecturas;
+
+    @ToString.Exclude
+    @Column(name = "lecturas", nullable = false)
+    private byte[] lecturas;
+}
@@ -0,0 +1,16 @@
+package com.kavak.flota.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LecturaKilometrajeDiariaId implements Serializable {
+    private Long vehiculoId;
+    private LocalDate fecha;
+}
@@ -2,14 +2,21 @@ package com.kavak.flota.entity;
 
 import com.kavak.flota.enums.Estado;
 import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.service.InvalidacionCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(InvalidacionCacheListener.class)
 @Table(name = "mantenimiento")
 @Data
 @NoArgsConstructor
@@ -25,6 +32,11 @@ public class Mantenimiento {
     @Column(name = "tipo_mantenimiento", nullable = false)
     private TipoMantenimiento tipoMantenimiento;
 
+    /**
+     * Texto libre sin límite de tamaño. Se carga con la entidad porque todo DTO de mantenimiento la incluye
+     * (diferida, cada mapeo haría su propio SELECT); las consultas que no la necesitan usan proyecciones
+     */
+    @ToString.Exclude
     @Column(name = "descripcion", nullable = false, columnDefinition = "TEXT")
     private String descripcion;
 
@@ -38,6 +50,18 @@ public class Mantenimiento {
     @Column(name = "estado", nullable = false)
     private Estado estado;
 
+    /**
+     * Entrada a EN_PROCESO (la entrada a PENDIENTE es fechaCreacion)
+     */
+    @Column(name = "fecha_en_proceso")
+    private LocalDateTime fechaEnProceso;
+
+    /**
+     * Entrada al estado terminal (COMPLETADO o CANCELADO)
+     */
+    @Column(name = "fecha_finalizacion")
+    private LocalDateTime fechaFinalizacion;
+
     @Column(name = "kilometraje_en_mantenimiento", nullable = false)
     private Long kilometrajeEnMantenimiento;
 
@@ -47,10 +71,40 @@ public class Mantenimiento {
     @Column(name = "costo_final")
     private Double costoFinal;
 
+    /**
+     * Versión para control de concurrencia optimista
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehiculo_id", nullable = false)
     private Vehiculo vehiculo;
 
+    /**
+     * Momento en que el mantenimiento entró a su estado actual
+     */
+    public LocalDateTime getFechaEntradaEstado() {
+        return switch (estado) {
+            case PENDIENTE -> fechaCreacion;
+            case EN_PROCESO -> fechaEnProceso != null ? fechaEnProceso : fechaCreacion;
+            case COMPLETADO, CANCELADO -> fechaFinalizacion;
+        };
+    }
+
+    /**
+     * Cambiar de estado registrando el momento de entrada al nuevo estado
+     */
+    public void cambiarEstado(Estado nuevoEstado, LocalDateTime momento) {
+        estado = nuevoEstado;
+        if (nuevoEstado == Estado.EN_PROCESO) {
+            fechaEnProceso = momento;
+        } else if (nuevoEstado.esTerminal()) {
+            fechaFinalizacion = momento;
+        }
+    }
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
@@ -0,0 +1,47 @@
+package com.kavak.flota.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta original de una petición con Idempotency-Key, para reproducirla ante reintentos
+ */
+@Entity
+@Table(name = "registro_idempotencia")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistroIdempotencia {
+
+    @Id
+    @Column(name = "clave", length = 300)
+    private String clave;
+
+    /**
+     * SHA-256 del cuerpo de la petición original
+     */
+    @Column(name = "huella_cuerpo", length = 64)
+    private String huellaCuerpo;
+
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "cuerpo")
+    private byte[] cuerpo;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.kavak.flota.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Turno de un mantenimiento en una bahía: [inicio, fin). La base impide turnos superpuestos
+ * en la misma bahía (restricción de exclusión, ver scripts/11_taller.sql)
+ */
+@Entity
+@Table(name = "turno_taller")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TurnoTaller {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bahia_id", nullable = false)
+    @ToString.Exclude
+    private BahiaTaller bahia;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mantenimiento_id", nullable = false, unique = true)
+    @ToString.Exclude
+    private Mantenimiento mantenimiento;
+
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(name = "fin", nullable = false)
+    private LocalDateTime fin;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
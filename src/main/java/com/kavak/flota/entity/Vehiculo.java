@@ -1,14 +1,23 @@
 package com.kavak.flota.entity;
 
+import com.kavak.flota.service.InvalidacionCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@EntityListeners(InvalidacionCacheListener.class)
 @Table(name = "vehiculo")
 @Data
 @NoArgsConstructor
@@ -38,12 +47,50 @@ public class Vehiculo {
     @Column(name = "disponible", nullable = false)
     private Boolean disponible = true;
 
+    /**
+     * Región (shard) dueña del vehículo y de sus mantenimientos; se fija en el alta
+     */
+    @Column(name = "region", nullable = false, updatable = false, length = 10)
+    private String region;
+
+    /**
+     * Marca los vehículos cuyo kilometraje cambió y aún no fueron evaluados
+     * por el planificador de mantenimientos preventivos
+     */
+    @Builder.Default
+    @Column(name = "kilometraje_pendiente_evaluacion", nullable = false)
+    private Boolean kilometrajePendienteEvaluacion = false;
+
+    /**
+     * Última posición informada (WGS84). Se actualiza con alta frecuencia y sin competir con las transiciones
+     * de mantenimiento, por eso no incrementa la versión
+     */
+    @OptimisticLock(excluded = true)
+    @Column(name = "latitud")
+    private Double latitud;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "longitud")
+    private Double longitud;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "fecha_posicion")
+    private LocalDateTime fechaPosicion;
+
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
     @Column(name = "fecha_actualizacion", nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    /**
+     * Versión para control de concurrencia optimista
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "vehiculo", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Mantenimiento> mantenimientos;
 
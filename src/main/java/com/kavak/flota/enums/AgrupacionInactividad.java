@@ -0,0 +1,20 @@
+package com.kavak.flota.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum AgrupacionInactividad {
+    VEHICULO,
+    TIPO,
+    DIA;
+
+    /**
+     * Obtener lista de todos los valores permitidos como strings
+     */
+    public static List<String> getValoresPermitidos() {
+        return Arrays.stream(AgrupacionInactividad.values())
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,19 @@
+package com.kavak.flota.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum AgrupacionUso {
+    DIA,
+    SEMANA;
+
+    /**
+     * Obtener lista de todos los valores permitidos como strings
+     */
+    public static List<String> getValoresPermitidos() {
+        return Arrays.stream(AgrupacionUso.values())
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+}
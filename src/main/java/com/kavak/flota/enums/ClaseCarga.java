@@ -0,0 +1,16 @@
+package com.kavak.flota.enums;
+
+/**
+ * Clases de carga de trabajo aisladas en bulkheads (ejecutor y pool de conexiones propios)
+ */
+public enum ClaseCarga {
+    /**
+     * Operaciones sensibles a la latencia: transiciones, disponibilidad, altas, lecturas puntuales
+     */
+    TRANSACCIONAL,
+
+    /**
+     * Consultas costosas: listados completos de flota, costos, reportes, exportaciones
+     */
+    ANALITICA
+}
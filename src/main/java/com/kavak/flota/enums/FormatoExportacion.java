@@ -0,0 +1,35 @@
+package com.kavak.flota.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum FormatoExportacion {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    FormatoExportacion(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Obtener lista de todos los valores permitidos como strings
+     */
+    public static List<String> getValoresPermitidos() {
+        return Arrays.stream(FormatoExportacion.values())
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+}
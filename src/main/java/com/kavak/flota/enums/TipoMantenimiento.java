@@ -1,16 +1,30 @@
 package com.kavak.flota.enums;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public enum TipoMantenimiento {
-    CAMBIO_ACEITE,
-    FRENOS,
-    MOTOR,
-    LLANTAS,
-    TRANSMISION,
-    GENERAL;
+    CAMBIO_ACEITE(60),
+    FRENOS(180),
+    MOTOR(480),
+    LLANTAS(90),
+    TRANSMISION(360),
+    GENERAL(120);
+
+    private final int minutosEnTaller;
+
+    TipoMantenimiento(int minutosEnTaller) {
+        this.minutosEnTaller = minutosEnTaller;
+    }
+
+    /**
+     * Tiempo que el mantenimiento ocupa una bahía del taller
+     */
+    public Duration getDuracion() {
+        return Duration.ofMinutes(minutosEnTaller);
+    }
 
     /**
      * Obtener lista de todos los valores permitidos como strings
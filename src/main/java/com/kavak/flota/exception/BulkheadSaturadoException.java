@@ -0,0 +1,9 @@
+package com.kavak.flota.exception;
+
+import com.kavak.flota.enums.ClaseCarga;
+
+public class BulkheadSaturadoException extends RuntimeException {
+    public BulkheadSaturadoException(ClaseCarga clase) {
+        super("Capacidad de " + clase.name().toLowerCase() + " agotada. Reintente más tarde.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.kavak.flota.exception;
+
+public class ConflictoConcurrenciaException extends RuntimeException {
+    public ConflictoConcurrenciaException(String operacion, Throwable causa) {
+        super("La operación '" + operacion + "' entró en conflicto con modificaciones concurrentes. Reintente.", causa);
+    }
+}
@@ -2,6 +2,7 @@ package com.kavak.flota.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -263,6 +264,66 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    /**
+     * Maneja la falta de capacidad del taller y los mantenimientos ya agendados
+     */
+    @ExceptionHandler({SinCapacidadTallerException.class, MantenimientoYaAgendadoException.class})
+    public ResponseEntity<ErrorResponse> handleConflictoTaller(
+            RuntimeException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Maneja conflictos de concurrencia optimista que no se resolvieron con reintentos
+     */
+    @ExceptionHandler({ConflictoConcurrenciaException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConflictoConcurrencia(
+            RuntimeException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex instanceof ConflictoConcurrenciaException ? ex.getMessage()
+                        : "El recurso fue modificado concurrentemente. Reintente.")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Maneja BulkheadSaturadoException
+     */
+    @ExceptionHandler(BulkheadSaturadoException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadSaturadoException(
+            BulkheadSaturadoException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(errorResponse);
+    }
+
     /**
      * Maneja cualquier otra excepción no contemplada
      */
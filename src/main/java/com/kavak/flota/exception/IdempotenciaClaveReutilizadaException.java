@@ -0,0 +1,7 @@
+package com.kavak.flota.exception;
+
+public class IdempotenciaClaveReutilizadaException extends RuntimeException {
+    public IdempotenciaClaveReutilizadaException() {
+        super("La Idempotency-Key ya se usó con un cuerpo de petición distinto. Use una clave nueva.");
+    }
+}
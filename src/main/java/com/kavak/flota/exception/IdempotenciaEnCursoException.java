@@ -0,0 +1,7 @@
+package com.kavak.flota.exception;
+
+public class IdempotenciaEnCursoException extends RuntimeException {
+    public IdempotenciaEnCursoException() {
+        super("Hay una petición con la misma Idempotency-Key en ejecución. Reintente más tarde.");
+    }
+}
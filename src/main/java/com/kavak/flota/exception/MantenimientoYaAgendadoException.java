@@ -0,0 +1,7 @@
+package com.kavak.flota.exception;
+
+public class MantenimientoYaAgendadoException extends RuntimeException {
+    public MantenimientoYaAgendadoException(Long mantenimientoId) {
+        super("El mantenimiento " + mantenimientoId + " ya tiene un turno asignado en el taller");
+    }
+}
@@ -0,0 +1,7 @@
+package com.kavak.flota.exception;
+
+public class SinCapacidadTallerException extends RuntimeException {
+    public SinCapacidadTallerException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,136 @@
+package com.kavak.flota.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kavak.flota.config.ControlAdmisionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión delante de los controllers para los endpoints de escritura.
+ * Rechaza temprano, antes de tomar una conexión del pool:
+ * - 429 cuando el cliente agotó su cubeta de tokens
+ * - 503 cuando la clase de endpoint alcanzó su concurrencia máxima
+ * ambos con cabecera Retry-After. El cliente se identifica con IdentificacionCliente.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ControlAdmisionFilter extends OncePerRequestFilter {
+
+    private static final String CLASE_KILOMETRAJE = "kilometraje";
+    private static final String CLASE_TRANSICION = "transicion";
+    private static final String CLASE_ESCRITURA = "escritura";
+
+    private final ControlAdmisionProperties properties;
+    private final EscritorErrorFiltro escritorErrorFiltro;
+    private final IdentificacionCliente identificacionCliente;
+    private final Cache<String, CubetaTokens> cubetas;
+    private final Map<String, Semaphore> concurrencia = new HashMap<>();
+    private final Map<String, Counter> rechazosPorTasa = new HashMap<>();
+    private final Map<String, Counter> rechazosPorConcurrencia = new HashMap<>();
+
+    public ControlAdmisionFilter(ControlAdmisionProperties properties, EscritorErrorFiltro escritorErrorFiltro,
+                                 IdentificacionCliente identificacionCliente, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.escritorErrorFiltro = escritorErrorFiltro;
+        this.identificacionCliente = identificacionCliente;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoClientes())
+                .expireAfterAccess(properties.getInactividadCliente())
+                .build();
+
+        for (String clase : new String[]{CLASE_KILOMETRAJE, CLASE_TRANSICION, CLASE_ESCRITURA}) {
+            int permisos = properties.getConcurrenciaMaxima().getOrDefault(clase, 64);
+            Semaphore semaforo = new Semaphore(permisos);
+            concurrencia.put(clase, semaforo);
+            rechazosPorTasa.put(clase, Counter.builder("flota.admision.rechazos")
+                    .tag("clase", clase).tag("motivo", "tasa").register(meterRegistry));
+            rechazosPorConcurrencia.put(clase, Counter.builder("flota.admision.rechazos")
+                    .tag("clase", clase).tag("motivo", "concurrencia").register(meterRegistry));
+            Gauge.builder("flota.admision.concurrencia.disponible", semaforo, Semaphore::availablePermits)
+                    .tag("clase", clase).register(meterRegistry);
+        }
+        Gauge.builder("flota.admision.clientes", cubetas, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isHabilitado() || clase(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clase = clase(request);
+
+        long ahora = System.nanoTime();
+        CubetaTokens cubeta = cubetas.get(identificacionCliente.identificar(request), c -> new CubetaTokens(
+                properties.getCapacidadPorCliente(), properties.getTasaPorCliente(), ahora));
+        long esperaNanos = cubeta.intentarConsumir(ahora);
+        if (esperaNanos > 0) {
+            rechazosPorTasa.get(clase).increment();
+            rechazar(request, response, HttpStatus.TOO_MANY_REQUESTS, esperaNanos,
+                    "Se superó el límite de peticiones del cliente. Reintente más tarde.");
+            return;
+        }
+
+        Semaphore semaforo = concurrencia.get(clase);
+        if (!semaforo.tryAcquire()) {
+            rechazosPorConcurrencia.get(clase).increment();
+            rechazar(request, response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+                    "El servicio está sobrecargado. Reintente más tarde.");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            semaforo.release();
+        }
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                          long esperaNanos, String mensaje) throws IOException {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        escritorErrorFiltro.escribir(request, response, status, mensaje);
+    }
+
+    /**
+     * Clase de endpoint de escritura, o null si la petición no está sujeta a control de admisión
+     */
+    private String clase(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        String uri = request.getRequestURI();
+        if ("GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo) || !uri.startsWith("/api/")) {
+            return null;
+        }
+        // El esquema GraphQL solo tiene consultas: el POST no es una escritura
+        if (uri.equals("/api/graphql")) {
+            return null;
+        }
+        if ("PUT".equals(metodo) && uri.equals("/api/vehiculos/kilometraje")) {
+            return CLASE_KILOMETRAJE;
+        }
+        if ("PUT".equals(metodo) && uri.startsWith("/api/mantenimientos/") && uri.endsWith("/transicionar")) {
+            return CLASE_TRANSICION;
+        }
+        return CLASE_ESCRITURA;
+    }
+}
@@ -0,0 +1,46 @@
+package com.kavak.flota.filter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cubeta de tokens sin bloqueos: el estado (tokens disponibles y último recargo) es inmutable
+ * y se reemplaza con compare-and-set, por lo que clientes distintos nunca contienden entre sí
+ * y un mismo cliente solo reintenta el CAS ante accesos simultáneos.
+ */
+public class CubetaTokens {
+
+    private static final double NANOS_POR_SEGUNDO = 1_000_000_000d;
+
+    private record Estado(double tokens, long ultimoRecargoNanos) {
+    }
+
+    private final double capacidad;
+    private final double tokensPorNano;
+    private final AtomicReference<Estado> estado;
+
+    public CubetaTokens(double capacidad, double tokensPorSegundo, long ahoraNanos) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = tokensPorSegundo / NANOS_POR_SEGUNDO;
+        this.estado = new AtomicReference<>(new Estado(capacidad, ahoraNanos));
+    }
+
+    /**
+     * Intenta consumir un token
+     * @return 0 si se consumió, o los nanosegundos a esperar hasta que haya un token disponible
+     */
+    public long intentarConsumir(long ahoraNanos) {
+        while (true) {
+            Estado actual = estado.get();
+            long transcurrido = Math.max(0, ahoraNanos - actual.ultimoRecargoNanos());
+            double disponibles = Math.min(capacidad, actual.tokens() + transcurrido * tokensPorNano);
+
+            if (disponibles < 1) {
+                return (long) Math.ceil((1 - disponibles) / tokensPorNano);
+            }
+            Estado nuevo = new Estado(disponibles - 1, Math.max(ahoraNanos, actual.ultimoRecargoNanos()));
+            if (estado.compareAndSet(actual, nuevo)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kavak.flota.filter;
+
+import com.kavak.flota.exception.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Escribe respuestas de error con el mismo formato que GlobalExceptionHandler desde los filtros,
+ * que se ejecutan antes del DispatcherServlet y no pasan por el @RestControllerAdvice
+ */
+@Component
+@RequiredArgsConstructor
+public class EscritorErrorFiltro {
+
+    private final ObjectMapper objectMapper;
+
+    public void escribir(HttpServletRequest request, HttpServletResponse response,
+                         HttpStatus status, String mensaje) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(mensaje)
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
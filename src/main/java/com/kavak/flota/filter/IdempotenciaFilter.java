@@ -0,0 +1,136 @@
+package com.kavak.flota.filter;
+
+import com.kavak.flota.exception.IdempotenciaClaveReutilizadaException;
+import com.kavak.flota.exception.IdempotenciaEnCursoException;
+import com.kavak.flota.service.IdempotenciaService;
+import com.kavak.flota.service.IdempotenciaService.RespuestaIdempotente;
+import com.kavak.flota.service.IdempotenciaService.Resultado;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Soporte de la cabecera Idempotency-Key en los endpoints de alta (POST /api/vehiculos y POST /api/mantenimientos).
+ * La primera petición con una clave se ejecuta y su respuesta se guarda; los reintentos con la misma clave
+ * reciben esa misma respuesta (con la cabecera Idempotent-Replayed) sin volver a ejecutarse.
+ * Junto con la respuesta se guarda la huella (SHA-256) del cuerpo: reusar la clave con otro cuerpo se rechaza
+ * con 422 en lugar de devolver la respuesta de una petición distinta.
+ * Se ejecuta después del control de admisión.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_CLAVE = "Idempotency-Key";
+    public static final String CABECERA_REPRODUCIDA = "Idempotent-Replayed";
+    private static final int LONGITUD_MAXIMA_CLAVE = 200;
+    private static final Set<String> RUTAS_IDEMPOTENTES = Set.of("/api/vehiculos", "/api/mantenimientos");
+
+    private final IdempotenciaService idempotenciaService;
+    private final EscritorErrorFiltro escritorErrorFiltro;
+    private final IdentificacionCliente identificacionCliente;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(CABECERA_CLAVE) == null
+                || !RUTAS_IDEMPOTENTES.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String claveCliente = request.getHeader(CABECERA_CLAVE).trim();
+        if (claveCliente.isEmpty() || claveCliente.length() > LONGITUD_MAXIMA_CLAVE) {
+            escritorErrorFiltro.escribir(request, response, HttpStatus.BAD_REQUEST,
+                    "La cabecera " + CABECERA_CLAVE + " debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+            return;
+        }
+
+        PeticionConCuerpoLeido peticion = new PeticionConCuerpoLeido(request);
+        Resultado resultado;
+        try {
+            resultado = idempotenciaService.ejecutar(clave(request, claveCliente), huella(peticion.getCuerpo()),
+                    () -> ejecutar(peticion, response, chain));
+        } catch (IdempotenciaClaveReutilizadaException e) {
+            escritorErrorFiltro.escribir(request, response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            return;
+        } catch (IdempotenciaEnCursoException e) {
+            escritorErrorFiltro.escribir(request, response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (EjecucionFallidaException e) {
+            throw e.getCause();
+        }
+
+        if (resultado.reproducida()) {
+            RespuestaIdempotente respuesta = resultado.respuesta();
+            response.setStatus(respuesta.status());
+            response.setHeader(CABECERA_REPRODUCIDA, "true");
+            if (respuesta.contentType() != null) {
+                response.setContentType(respuesta.contentType());
+            }
+            response.getOutputStream().write(respuesta.cuerpo());
+        }
+    }
+
+    /**
+     * La clave incluye método, ruta, parámetros y cliente para que la misma Idempotency-Key
+     * enviada a otro endpoint o por otro cliente no reproduzca una respuesta ajena
+     */
+    private String clave(HttpServletRequest request, String claveCliente) {
+        return identificacionCliente.identificar(request) + "|" + request.getMethod() + " " + request.getRequestURI()
+                + "?" + (request.getQueryString() != null ? request.getQueryString() : "") + "|" + claveCliente;
+    }
+
+    static String huella(byte[] cuerpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RespuestaIdempotente ejecutar(HttpServletRequest request, HttpServletResponse response, FilterChain chain) {
+        ContentCachingResponseWrapper respuestaCapturada = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, respuestaCapturada);
+            RespuestaIdempotente respuesta = new RespuestaIdempotente(respuestaCapturada.getStatus(),
+                    respuestaCapturada.getContentType(), respuestaCapturada.getContentAsByteArray());
+            respuestaCapturada.copyBodyToResponse();
+            return respuesta;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ServletException e) {
+            throw new EjecucionFallidaException(e);
+        }
+    }
+
+    private static class EjecucionFallidaException extends RuntimeException {
+        EjecucionFallidaException(ServletException causa) {
+            super(causa);
+        }
+
+        @Override
+        public synchronized ServletException getCause() {
+            return (ServletException) super.getCause();
+        }
+    }
+}
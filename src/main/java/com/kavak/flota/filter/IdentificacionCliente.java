@@ -0,0 +1,38 @@
+package com.kavak.flota.filter;
+
+import com.kavak.flota.config.ControlAdmisionProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Identidad del cliente para el control de admisión y las claves de idempotencia.
+ * Se usa el usuario autenticado si lo hay y, si no, la dirección remota. La cabecera X-Client-Id la elige
+ * quien llama, así que solo se respeta cuando la petición llega desde un proxy confiable
+ * (control-admision.proxies-confiables) que la completa por sus clientes.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdentificacionCliente {
+
+    static final String CABECERA_CLIENTE = "X-Client-Id";
+
+    private final ControlAdmisionProperties properties;
+
+    public String identificar(HttpServletRequest request) {
+        Principal usuario = request.getUserPrincipal();
+        if (usuario != null) {
+            return "usuario:" + usuario.getName();
+        }
+        String remota = request.getRemoteAddr();
+        if (properties.getProxiesConfiables().contains(remota)) {
+            String cliente = request.getHeader(CABECERA_CLIENTE);
+            if (cliente != null && !cliente.isBlank()) {
+                return "cliente:" + cliente.trim();
+            }
+        }
+        return "ip:" + remota;
+    }
+}
@@ -0,0 +1,78 @@
+package com.kavak.flota.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Petición cuyo cuerpo ya se leyó completo (para calcular su huella) y se vuelve a entregar al resto de la cadena
+ */
+class PeticionConCuerpoLeido extends HttpServletRequestWrapper {
+
+    private final byte[] cuerpo;
+
+    PeticionConCuerpoLeido(HttpServletRequest request) throws IOException {
+        super(request);
+        this.cuerpo = request.getInputStream().readAllBytes();
+    }
+
+    byte[] getCuerpo() {
+        return cuerpo;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return entrada.read();
+            }
+
+            @Override
+            public int read(byte[] destino, int desde, int cantidad) {
+                return entrada.read(destino, desde, cantidad);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return entrada.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        Charset charset = getCharacterEncoding() != null
+                ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+        return cuerpo.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return cuerpo.length;
+    }
+}
@@ -0,0 +1,107 @@
+package com.kavak.flota.filter;
+
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fija la región (shard) de la petición antes de que se abra cualquier transacción:
+ * - si la ruta o los parámetros id / vehiculoId / idVehiculo traen un id, la región dueña de ese id
+ *   (los ids de vehículos y mantenimientos codifican su región)
+ * - si no, la cabecera X-Region (altas, búsquedas por patente, importación y consultas por región)
+ * - si no, la región por defecto
+ * La región resuelta se devuelve en la cabecera X-Region de la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@RequiredArgsConstructor
+public class RegionFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_REGION = "X-Region";
+
+    private static final List<String> PARAMETROS_ID = List.of("id", "vehiculoId", "idVehiculo");
+    private static final Pattern SEGMENTO_NUMERICO = Pattern.compile("/(\\d{1,19})(?=/|$)");
+
+    private final ShardingProperties properties;
+    private final EscritorErrorFiltro escritorErrorFiltro;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String region;
+        try {
+            region = resolver(request);
+        } catch (IllegalArgumentException e) {
+            escritorErrorFiltro.escribir(request, response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setHeader(CABECERA_REGION, region);
+        String anterior = ContextoRegion.establecer(region);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoRegion.establecer(anterior);
+        }
+    }
+
+    private String resolver(HttpServletRequest request) {
+        Long id = idDeLaPeticion(request);
+        if (id != null) {
+            return properties.regionDeId(id);
+        }
+        String cabecera = request.getHeader(CABECERA_REGION);
+        if (cabecera != null && !cabecera.isBlank()) {
+            return properties.validar(cabecera);
+        }
+        return properties.getRegionPorDefecto();
+    }
+
+    /**
+     * Primer id numérico de la ruta o, si no hay, de los parámetros conocidos. Los valores no numéricos
+     * se ignoran y los rechaza luego la validación del controller
+     */
+    private Long idDeLaPeticion(HttpServletRequest request) {
+        Matcher matcher = SEGMENTO_NUMERICO.matcher(request.getRequestURI());
+        if (matcher.find()) {
+            return aId(matcher.group(1));
+        }
+        for (String parametro : PARAMETROS_ID) {
+            Long id = aId(request.getParameter(parametro));
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private static Long aId(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
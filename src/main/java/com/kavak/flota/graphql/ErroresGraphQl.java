@@ -0,0 +1,41 @@
+package com.kavak.flota.graphql;
+
+import com.kavak.flota.exception.MantenimientoNotFoundException;
+import com.kavak.flota.exception.VehiculoNotFoundException;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Errores de negocio como errores GraphQL con el mismo criterio que GlobalExceptionHandler
+ * (404 → NOT_FOUND, 400 → BAD_REQUEST). El resto queda como INTERNAL_ERROR sin exponer el detalle
+ */
+@Component
+public class ErroresGraphQl extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable error, DataFetchingEnvironment entorno) {
+        ErrorType tipo = tipo(error);
+        if (tipo == null) {
+            return null;
+        }
+        return GraphqlErrorBuilder.newError(entorno)
+                .errorType(tipo)
+                .message(error.getMessage())
+                .build();
+    }
+
+    private static ErrorType tipo(Throwable error) {
+        if (error instanceof VehiculoNotFoundException || error instanceof MantenimientoNotFoundException) {
+            return ErrorType.NOT_FOUND;
+        }
+        if (error instanceof ConstraintViolationException || error instanceof IllegalArgumentException) {
+            return ErrorType.BAD_REQUEST;
+        }
+        return null;
+    }
+}
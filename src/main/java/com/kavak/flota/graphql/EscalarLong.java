@@ -0,0 +1,91 @@
+package com.kavak.flota.graphql;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.idl.RuntimeWiring;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * Escalar Long del esquema para los kilometrajes: Int de GraphQL es de 32 bits y no cubre los Long de las entidades.
+ * Se serializa como número JSON; acepta números enteros o su texto como argumento
+ */
+@Component
+public class EscalarLong implements RuntimeWiringConfigurer {
+
+    static final GraphQLScalarType LONG = GraphQLScalarType.newScalar()
+            .name("Long")
+            .description("Entero con signo de 64 bits")
+            .coercing(new Coercing<Long, Long>() {
+
+                @Override
+                public Long serialize(Object resultado, GraphQLContext contexto, Locale locale) {
+                    Long valor = aLong(resultado);
+                    if (valor == null) {
+                        throw new CoercingSerializeException("No es un Long: " + resultado);
+                    }
+                    return valor;
+                }
+
+                @Override
+                public Long parseValue(Object entrada, GraphQLContext contexto, Locale locale) {
+                    Long valor = aLong(entrada);
+                    if (valor == null) {
+                        throw new CoercingParseValueException("No es un Long: " + entrada);
+                    }
+                    return valor;
+                }
+
+                @Override
+                public Long parseLiteral(Value<?> entrada, CoercedVariables variables, GraphQLContext contexto,
+                                         Locale locale) {
+                    Long valor = null;
+                    if (entrada instanceof IntValue entero) {
+                        valor = aLong(entero.getValue());
+                    } else if (entrada instanceof StringValue texto) {
+                        valor = aLong(texto.getValue());
+                    }
+                    if (valor == null) {
+                        throw new CoercingParseLiteralException("No es un Long: " + entrada);
+                    }
+                    return valor;
+                }
+            })
+            .build();
+
+    @Override
+    public void configure(RuntimeWiring.Builder builder) {
+        builder.scalar(LONG);
+    }
+
+    /**
+     * El valor como Long, o null si no es un entero que entre en 64 bits
+     */
+    static Long aLong(Object valor) {
+        if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+            return ((Number) valor).longValue();
+        }
+        try {
+            if (valor instanceof BigInteger entero) {
+                return entero.longValueExact();
+            }
+            if (valor instanceof String texto) {
+                return Long.parseLong(texto.trim());
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.kavak.flota.graphql;
+
+import com.kavak.flota.dto.FiltroVehiculoDTO;
+import com.kavak.flota.dto.MantenimientoDTO;
+import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.service.MantenimientoService;
+import com.kavak.flota.service.VehiculoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas GraphQL (src/main/resources/graphql/flota.graphqls).
+ * Los vehículos se leen sin su colección de mantenimientos; los campos mantenimientos y mantenimientosActivos
+ * se resuelven con DataLoaders (@BatchMapping) que reciben todos los vehículos de la respuesta a la vez,
+ * así un listado de 500 vehículos con sus mantenimientos son dos consultas y no 501
+ */
+@Controller
+@RequiredArgsConstructor
+public class FlotaGraphQlController {
+
+    static final int LIMITE_MAXIMO = 500;
+
+    private final VehiculoService vehiculoService;
+    private final MantenimientoService mantenimientoService;
+
+    @QueryMapping
+    public VehiculoDTO vehiculo(@Argument Long id, @Argument String patente) {
+        if (id != null) {
+            return vehiculoService.buscarSinMantenimientos(id).orElse(null);
+        }
+        if (patente != null && !patente.isBlank()) {
+            return vehiculoService.buscarSinMantenimientosPorPatente(patente.toUpperCase().trim()).orElse(null);
+        }
+        throw new IllegalArgumentException("Debe proporcionar 'id' o 'patente'");
+    }
+
+    @QueryMapping
+    public List<VehiculoDTO> vehiculos(@Argument @Valid FiltroVehiculoDTO filtro, @Argument Long despuesDe,
+                                       @Argument int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return vehiculoService.listarSinMantenimientos(
+                filtro != null ? filtro : new FiltroVehiculoDTO(), despuesDe, limite);
+    }
+
+    @BatchMapping(typeName = "Vehiculo")
+    public List<List<MantenimientoDTO>> mantenimientos(List<VehiculoDTO> vehiculos) {
+        return repartir(vehiculos, mantenimientoService.obtenerPorVehiculos(ids(vehiculos), false));
+    }
+
+    @BatchMapping(typeName = "Vehiculo")
+    public List<List<MantenimientoDTO>> mantenimientosActivos(List<VehiculoDTO> vehiculos) {
+        return repartir(vehiculos, mantenimientoService.obtenerPorVehiculos(ids(vehiculos), true));
+    }
+
+    private static List<Long> ids(List<VehiculoDTO> vehiculos) {
+        return vehiculos.stream().map(VehiculoDTO::getId).distinct().toList();
+    }
+
+    /**
+     * Una lista por vehículo, en el mismo orden en que llegaron
+     */
+    private static List<List<MantenimientoDTO>> repartir(List<VehiculoDTO> vehiculos,
+                                                         Map<Long, List<MantenimientoDTO>> porVehiculo) {
+        return vehiculos.stream().map(vehiculo -> porVehiculo.get(vehiculo.getId())).toList();
+    }
+}
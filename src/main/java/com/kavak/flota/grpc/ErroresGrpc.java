@@ -0,0 +1,84 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.exception.BulkheadSaturadoException;
+import com.kavak.flota.exception.ConflictoConcurrenciaException;
+import com.kavak.flota.exception.EstadoInvalidoException;
+import com.kavak.flota.exception.KilometrajeInvalidoException;
+import com.kavak.flota.exception.MantenimientoActivoDelTipoException;
+import com.kavak.flota.exception.MantenimientoNotFoundException;
+import com.kavak.flota.exception.MantenimientoYaAgendadoException;
+import com.kavak.flota.exception.PatenteYaExisteException;
+import com.kavak.flota.exception.SinCapacidadTallerException;
+import com.kavak.flota.exception.TipoMantenimientoInvalidoException;
+import com.kavak.flota.exception.TransicionEstadoInvalidaException;
+import com.kavak.flota.exception.VehiculoNotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.function.Supplier;
+
+/**
+ * Traducción de las excepciones de negocio a estados gRPC, con el mismo criterio que GlobalExceptionHandler:
+ * 404 → NOT_FOUND, 400 → INVALID_ARGUMENT, 409 → ALREADY_EXISTS / FAILED_PRECONDITION / ABORTED
+ * (ABORTED indica un conflicto de concurrencia que el cliente puede reintentar), 503 → RESOURCE_EXHAUSTED
+ */
+@Slf4j
+public final class ErroresGrpc {
+
+    private ErroresGrpc() {
+    }
+
+    public static StatusRuntimeException aEstado(Throwable error) {
+        Status estado = estado(error);
+        if (estado == null) {
+            log.error("Error inesperado en llamada gRPC", error);
+            return Status.INTERNAL.withDescription("Ocurrió un error inesperado: " + error.getMessage())
+                    .withCause(error).asRuntimeException();
+        }
+        return estado.withDescription(error.getMessage()).asRuntimeException();
+    }
+
+    private static Status estado(Throwable error) {
+        if (error instanceof VehiculoNotFoundException || error instanceof MantenimientoNotFoundException) {
+            return Status.NOT_FOUND;
+        }
+        if (error instanceof TransicionEstadoInvalidaException || error instanceof KilometrajeInvalidoException
+                || error instanceof TipoMantenimientoInvalidoException || error instanceof EstadoInvalidoException
+                || error instanceof ConstraintViolationException || error instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT;
+        }
+        if (error instanceof PatenteYaExisteException) {
+            return Status.ALREADY_EXISTS;
+        }
+        if (error instanceof MantenimientoActivoDelTipoException || error instanceof SinCapacidadTallerException
+                || error instanceof MantenimientoYaAgendadoException) {
+            return Status.FAILED_PRECONDITION;
+        }
+        if (error instanceof ConflictoConcurrenciaException || error instanceof OptimisticLockingFailureException) {
+            return Status.ABORTED;
+        }
+        if (error instanceof BulkheadSaturadoException) {
+            return Status.RESOURCE_EXHAUSTED;
+        }
+        return null;
+    }
+
+    /**
+     * Responder una llamada unaria con el resultado de la operación o con el estado de su excepción
+     */
+    public static <T> void responder(StreamObserver<T> observador, Supplier<T> operacion) {
+        T respuesta;
+        try {
+            respuesta = operacion.get();
+        } catch (RuntimeException e) {
+            observador.onError(aEstado(e));
+            return;
+        }
+        observador.onNext(respuesta);
+        observador.onCompleted();
+    }
+}
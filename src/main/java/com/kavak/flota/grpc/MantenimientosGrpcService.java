@@ -0,0 +1,61 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.dto.MantenimientoDTO;
+import com.kavak.flota.grpc.v1.CostoTotal;
+import com.kavak.flota.grpc.v1.CostoTotalRequest;
+import com.kavak.flota.grpc.v1.CrearMantenimientoRequest;
+import com.kavak.flota.grpc.v1.Mantenimiento;
+import com.kavak.flota.grpc.v1.MantenimientosGrpc;
+import com.kavak.flota.grpc.v1.TransicionEstado;
+import com.kavak.flota.grpc.v1.TransicionarEstadoRequest;
+import com.kavak.flota.service.MantenimientoService;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Servicio gRPC Mantenimientos (ver src/main/proto/flota.proto): delega en MantenimientoService igual que
+ * MantenimientoController, validando el alta con las mismas restricciones del DTO
+ */
+@Service
+@RequiredArgsConstructor
+public class MantenimientosGrpcService extends MantenimientosGrpc.MantenimientosImplBase {
+
+    private final MantenimientoService mantenimientoService;
+    private final RegionGrpcInterceptor region;
+    private final MapperGrpc mapper;
+    private final Validator validator;
+
+    @Override
+    public void crearMantenimiento(CrearMantenimientoRequest request, StreamObserver<Mantenimiento> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> {
+            MantenimientoDTO mantenimientoDTO = mapper.mantenimientoDto(request);
+            Set<ConstraintViolation<MantenimientoDTO>> violaciones = validator.validate(mantenimientoDTO);
+            if (!violaciones.isEmpty()) {
+                throw new ConstraintViolationException(violaciones);
+            }
+            return region.ejecutarEn(request.getVehiculoId(), () -> mapper.mantenimiento(
+                    mantenimientoService.crearMantenimiento(request.getVehiculoId(), mantenimientoDTO)));
+        });
+    }
+
+    @Override
+    public void transicionarEstado(TransicionarEstadoRequest request, StreamObserver<TransicionEstado> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> region.ejecutarEn(request.getMantenimientoId(),
+                () -> mapper.transicion(mantenimientoService.transicionarEstado(request.getMantenimientoId(),
+                        request.getNuevoEstado().toUpperCase().trim(),
+                        request.hasCostoFinal() ? request.getCostoFinal() : null))));
+    }
+
+    @Override
+    public void calcularCostoTotal(CostoTotalRequest request, StreamObserver<CostoTotal> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> region.ejecutarEn(request.getVehiculoId(),
+                () -> mapper.costoTotal(
+                        mantenimientoService.calcularCostoTotalMantenimientosCompletados(request.getVehiculoId()))));
+    }
+}
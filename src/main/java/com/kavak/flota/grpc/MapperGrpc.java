@@ -0,0 +1,91 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.dto.CostoTotalMantenimientosDTO;
+import com.kavak.flota.dto.MantenimientoDTO;
+import com.kavak.flota.dto.TransicionEstadoResponseDTO;
+import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.grpc.v1.CostoTotal;
+import com.kavak.flota.grpc.v1.CrearMantenimientoRequest;
+import com.kavak.flota.grpc.v1.Mantenimiento;
+import com.kavak.flota.grpc.v1.TransicionEstado;
+import com.kavak.flota.grpc.v1.Vehiculo;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conversión entre los DTO de los servicios y los mensajes protobuf. Protobuf no admite null:
+ * los textos ausentes viajan vacíos y los numéricos opcionales se omiten
+ */
+@Component
+public class MapperGrpc {
+
+    public Vehiculo vehiculo(VehiculoDTO dto) {
+        Vehiculo.Builder builder = Vehiculo.newBuilder()
+                .setId(dto.getId())
+                .setPatente(texto(dto.getPatente()))
+                .setMarca(texto(dto.getMarca()))
+                .setModelo(texto(dto.getModelo()))
+                .setAnio(dto.getAnio())
+                .setKilometraje(dto.getKilometraje())
+                .setDisponible(Boolean.TRUE.equals(dto.getDisponible()))
+                .setRegion(texto(dto.getRegion()))
+                .setFechaCreacion(fecha(dto.getFechaCreacion()))
+                .setFechaActualizacion(fecha(dto.getFechaActualizacion()));
+        if (dto.getLatitud() != null && dto.getLongitud() != null) {
+            builder.setLatitud(dto.getLatitud()).setLongitud(dto.getLongitud());
+        }
+        return builder.build();
+    }
+
+    public Mantenimiento mantenimiento(MantenimientoDTO dto) {
+        Mantenimiento.Builder builder = Mantenimiento.newBuilder()
+                .setId(dto.getId())
+                .setTipoMantenimiento(texto(dto.getTipoMantenimiento()))
+                .setDescripcion(texto(dto.getDescripcion()))
+                .setKilometrajeEnMantenimiento(dto.getKilometrajeEnMantenimiento())
+                .setEstado(texto(dto.getEstado()))
+                .setCostoEstimado(dto.getCostoEstimado())
+                .setFechaCreacion(fecha(dto.getFechaCreacion()))
+                .setFechaActualizacion(fecha(dto.getFechaActualizacion()));
+        if (dto.getCostoFinal() != null) {
+            builder.setCostoFinal(dto.getCostoFinal());
+        }
+        return builder.build();
+    }
+
+    public MantenimientoDTO mantenimientoDto(CrearMantenimientoRequest request) {
+        return MantenimientoDTO.builder()
+                .tipoMantenimiento(request.getTipoMantenimiento())
+                .descripcion(request.getDescripcion())
+                .costoEstimado(request.getCostoEstimado())
+                .costoFinal(request.hasCostoFinal() ? request.getCostoFinal() : null)
+                .build();
+    }
+
+    public TransicionEstado transicion(TransicionEstadoResponseDTO dto) {
+        return TransicionEstado.newBuilder()
+                .setMantenimientoId(dto.getMantenimientoId())
+                .setEstadoAnterior(texto(dto.getEstadoAnterior()))
+                .setEstadoNuevo(texto(dto.getEstadoNuevo()))
+                .setMensaje(texto(dto.getMensaje()))
+                .build();
+    }
+
+    public CostoTotal costoTotal(CostoTotalMantenimientosDTO dto) {
+        return CostoTotal.newBuilder()
+                .setVehiculoId(dto.getVehiculoId())
+                .setPatente(texto(dto.getPatente()))
+                .setCantidadMantenimientos(dto.getCantidadMantenimientos())
+                .setCostoTotal(dto.getCostoTotal())
+                .build();
+    }
+
+    private static String texto(String valor) {
+        return valor == null ? "" : valor;
+    }
+
+    private static String fecha(LocalDateTime valor) {
+        return valor == null ? "" : valor.toString();
+    }
+}
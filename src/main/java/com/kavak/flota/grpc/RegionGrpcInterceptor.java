@@ -0,0 +1,64 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Equivalente gRPC de RegionFilter. Lee la región pedida de la metadata x-region (o la región por defecto)
+ * y la deja en el Context de la llamada, que gRPC propaga a cada callback aunque corra en otro hilo.
+ * Las implementaciones resuelven la región de cada operación con ejecutarEn: la del id si lo hay.
+ */
+@Component
+@GlobalServerInterceptor
+@RequiredArgsConstructor
+public class RegionGrpcInterceptor implements ServerInterceptor {
+
+    public static final Metadata.Key<String> METADATA_REGION =
+            Metadata.Key.of("x-region", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final Context.Key<String> REGION_SOLICITADA = Context.key("region-solicitada");
+
+    private final ShardingProperties properties;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String cabecera = headers.get(METADATA_REGION);
+        String region;
+        try {
+            region = cabecera == null || cabecera.isBlank() ? properties.getRegionPorDefecto()
+                    : properties.validar(cabecera);
+        } catch (IllegalArgumentException e) {
+            call.close(Status.INVALID_ARGUMENT.withDescription(e.getMessage()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return Contexts.interceptCall(Context.current().withValue(REGION_SOLICITADA, region), call, headers, next);
+    }
+
+    /**
+     * Ejecutar en la región dueña del id o, si es null, en la región pedida por la llamada
+     */
+    public <T> T ejecutarEn(Long id, Supplier<T> tarea) {
+        String region;
+        if (id != null) {
+            region = properties.regionDeId(id);
+        } else {
+            String solicitada = REGION_SOLICITADA.get();
+            region = solicitada != null ? solicitada : properties.getRegionPorDefecto();
+        }
+        return ContextoRegion.ejecutarEn(region, tarea);
+    }
+}
@@ -0,0 +1,165 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.grpc.v1.Disponibilidad;
+import com.kavak.flota.grpc.v1.DisponibilidadRequest;
+import com.kavak.flota.grpc.v1.LecturaKilometraje;
+import com.kavak.flota.grpc.v1.ObtenerVehiculoRequest;
+import com.kavak.flota.grpc.v1.ResultadoLecturas;
+import com.kavak.flota.grpc.v1.Vehiculo;
+import com.kavak.flota.grpc.v1.VehiculosGrpc;
+import com.kavak.flota.service.VehiculoService;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio gRPC Vehiculos (ver src/main/proto/flota.proto): delega en VehiculoService igual que VehiculoController
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VehiculosGrpcService extends VehiculosGrpc.VehiculosImplBase {
+
+    /**
+     * Errores informados en ResultadoLecturas; el resto solo se cuenta
+     */
+    static final int MAXIMO_ERRORES = 20;
+
+    private final VehiculoService vehiculoService;
+    private final RegionGrpcInterceptor region;
+    private final MapperGrpc mapper;
+
+    @Override
+    public void obtenerVehiculo(ObtenerVehiculoRequest request, StreamObserver<Vehiculo> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> switch (request.getCriterioCase()) {
+            case ID -> region.ejecutarEn(request.getId(),
+                    () -> mapper.vehiculo(vehiculoService.obtenerPorId(request.getId())));
+            case PATENTE -> region.ejecutarEn(null,
+                    () -> mapper.vehiculo(vehiculoService.obtenerPorPatente(request.getPatente().toUpperCase().trim())));
+            case CRITERIO_NOT_SET -> throw new IllegalArgumentException("Debe proporcionar 'id' o 'patente'");
+        });
+    }
+
+    @Override
+    public void verificarDisponibilidad(DisponibilidadRequest request, StreamObserver<Disponibilidad> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> disponibilidad(request.getVehiculoId()));
+    }
+
+    /**
+     * Stream bidireccional con control de flujo manual: se pide la siguiente consulta solo mientras el cliente
+     * consume las respuestas, así un cliente lento no acumula respuestas en memoria del servidor
+     */
+    @Override
+    public StreamObserver<DisponibilidadRequest> verificarDisponibilidades(StreamObserver<Disponibilidad> respuesta) {
+        ServerCallStreamObserver<Disponibilidad> servidor = (ServerCallStreamObserver<Disponibilidad>) respuesta;
+        servidor.disableAutoRequest();
+        boolean[] pedido = {false};
+        servidor.setOnReadyHandler(() -> {
+            if (servidor.isReady() && !pedido[0]) {
+                pedido[0] = true;
+                servidor.request(1);
+            }
+        });
+
+        return new StreamObserver<>() {
+            private boolean cerrado;
+
+            @Override
+            public void onNext(DisponibilidadRequest consulta) {
+                if (cerrado) {
+                    return;
+                }
+                try {
+                    servidor.onNext(disponibilidad(consulta.getVehiculoId()));
+                } catch (RuntimeException e) {
+                    cerrado = true;
+                    servidor.onError(ErroresGrpc.aEstado(e));
+                    return;
+                }
+                if (servidor.isReady()) {
+                    servidor.request(1);
+                } else {
+                    pedido[0] = false;
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                log.debug("Verificación masiva de disponibilidad cancelada por el cliente: {}", error.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!cerrado) {
+                    servidor.onCompleted();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void actualizarKilometraje(LecturaKilometraje request, StreamObserver<Vehiculo> respuesta) {
+        ErroresGrpc.responder(respuesta, () -> mapper.vehiculo(aplicarLectura(request)));
+    }
+
+    /**
+     * Ingesta de lecturas: cada una se aplica en su propia transacción y una rechazada no corta el stream.
+     * gRPC pide la siguiente lectura recién cuando termina de procesarse la anterior
+     */
+    @Override
+    public StreamObserver<LecturaKilometraje> registrarKilometrajes(StreamObserver<ResultadoLecturas> respuesta) {
+        return new StreamObserver<>() {
+            private long aceptadas;
+            private long rechazadas;
+            private final List<String> errores = new ArrayList<>();
+
+            @Override
+            public void onNext(LecturaKilometraje lectura) {
+                try {
+                    aplicarLectura(lectura);
+                    aceptadas++;
+                } catch (RuntimeException e) {
+                    rechazadas++;
+                    if (errores.size() < MAXIMO_ERRORES) {
+                        errores.add("Vehículo " + lectura.getVehiculoId() + ": " + e.getMessage());
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                log.warn("Ingesta de kilometraje interrumpida tras {} lecturas aceptadas: {}",
+                        aceptadas, error.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                respuesta.onNext(ResultadoLecturas.newBuilder()
+                        .setAceptadas(aceptadas)
+                        .setRechazadas(rechazadas)
+                        .addAllErrores(errores)
+                        .build());
+                respuesta.onCompleted();
+            }
+        };
+    }
+
+    private Disponibilidad disponibilidad(long vehiculoId) {
+        boolean disponible = region.ejecutarEn(vehiculoId, () -> vehiculoService.verificarDisponibilidad(vehiculoId));
+        return Disponibilidad.newBuilder().setVehiculoId(vehiculoId).setDisponible(disponible).build();
+    }
+
+    private VehiculoDTO aplicarLectura(LecturaKilometraje lectura) {
+        if (lectura.getKilometraje() < 0) {
+            throw new IllegalArgumentException("El kilometraje no puede ser negativo");
+        }
+        return region.ejecutarEn(lectura.getVehiculoId(),
+                () -> vehiculoService.actualizarKilometraje(lectura.getVehiculoId(), lectura.getKilometraje()));
+    }
+}
@@ -1,9 +1,15 @@
 package com.kavak.flota.mapper;
 
+import com.kavak.flota.dto.BahiaTallerDTO;
 import com.kavak.flota.dto.MantenimientoDTO;
+import com.kavak.flota.dto.TurnoTallerDTO;
 import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.dto.VehiculoResumenDTO;
+import com.kavak.flota.entity.BahiaTaller;
 import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.TurnoTaller;
 import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.repository.MantenimientoDeVehiculo;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -23,6 +29,19 @@ public class Mapper {
                 .collect(Collectors.toList())
                 : null;
 
+        VehiculoDTO dto = vehiculoToDtoSinMantenimientos(vehiculo);
+        dto.setMantenimientos(mantenimientosDTO);
+        return dto;
+    }
+
+    /**
+     * Como vehiculoToDto pero sin tocar la colección de mantenimientos (no la inicializa)
+     */
+    public VehiculoDTO vehiculoToDtoSinMantenimientos(Vehiculo vehiculo) {
+        if (vehiculo == null) {
+            return null;
+        }
+
         return VehiculoDTO.builder()
                 .id(vehiculo.getId())
                 .patente(vehiculo.getPatente())
@@ -31,9 +50,28 @@ public class Mapper {
                 .anio(vehiculo.getAnio())
                 .kilometraje(vehiculo.getKilometraje())
                 .disponible(vehiculo.getDisponible())
+                .region(vehiculo.getRegion())
+                .latitud(vehiculo.getLatitud())
+                .longitud(vehiculo.getLongitud())
+                .fechaPosicion(vehiculo.getFechaPosicion())
                 .fechaCreacion(vehiculo.getFechaCreacion())
                 .fechaActualizacion(vehiculo.getFechaActualizacion())
-                .mantenimientos(mantenimientosDTO)
+                .build();
+    }
+
+    public VehiculoResumenDTO vehiculoToResumenDto(Vehiculo vehiculo) {
+        if (vehiculo == null) {
+            return null;
+        }
+
+        return VehiculoResumenDTO.builder()
+                .id(vehiculo.getId())
+                .patente(vehiculo.getPatente())
+                .marca(vehiculo.getMarca())
+                .modelo(vehiculo.getModelo())
+                .anio(vehiculo.getAnio())
+                .kilometraje(vehiculo.getKilometraje())
+                .disponible(vehiculo.getDisponible())
                 .build();
     }
 
@@ -52,6 +90,58 @@ public class Mapper {
                 .costoFinal(mantenimiento.getCostoFinal())
                 .fechaCreacion(mantenimiento.getFechaCreacion())
                 .fechaActualizacion(mantenimiento.getFechaActualizacion())
+                .fechaEnProceso(mantenimiento.getFechaEnProceso())
+                .fechaFinalizacion(mantenimiento.getFechaFinalizacion())
+                .build();
+    }
+
+    public MantenimientoDTO mantenimientoDeVehiculoToDTO(MantenimientoDeVehiculo mantenimiento) {
+        if (mantenimiento == null) {
+            return null;
+        }
+
+        return MantenimientoDTO.builder()
+                .id(mantenimiento.getId())
+                .tipoMantenimiento(mantenimiento.getTipoMantenimiento().toString())
+                .descripcion(mantenimiento.getDescripcion())
+                .kilometrajeEnMantenimiento(mantenimiento.getKilometrajeEnMantenimiento())
+                .estado(mantenimiento.getEstado().toString())
+                .costoEstimado(mantenimiento.getCostoEstimado())
+                .costoFinal(mantenimiento.getCostoFinal())
+                .fechaCreacion(mantenimiento.getFechaCreacion())
+                .fechaActualizacion(mantenimiento.getFechaActualizacion())
+                .fechaEnProceso(mantenimiento.getFechaEnProceso())
+                .fechaFinalizacion(mantenimiento.getFechaFinalizacion())
+                .build();
+    }
+
+    public BahiaTallerDTO bahiaToDto(BahiaTaller bahia) {
+        if (bahia == null) {
+            return null;
+        }
+
+        return BahiaTallerDTO.builder()
+                .id(bahia.getId())
+                .nombre(bahia.getNombre())
+                .activa(bahia.getActiva())
+                .build();
+    }
+
+    /**
+     * Inicializa la bahía del turno para informar su nombre
+     */
+    public TurnoTallerDTO turnoToDto(TurnoTaller turno) {
+        if (turno == null) {
+            return null;
+        }
+
+        return TurnoTallerDTO.builder()
+                .id(turno.getId())
+                .mantenimientoId(turno.getMantenimiento().getId())
+                .bahiaId(turno.getBahia().getId())
+                .bahiaNombre(turno.getBahia().getNombre())
+                .inicio(turno.getInicio())
+                .fin(turno.getFin())
                 .build();
     }
 
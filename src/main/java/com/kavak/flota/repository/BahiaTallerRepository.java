@@ -0,0 +1,14 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.BahiaTaller;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BahiaTallerRepository extends JpaRepository<BahiaTaller, Long> {
+    List<BahiaTaller> findAllByOrderByIdAsc();
+    List<BahiaTaller> findByActivaTrueOrderByIdAsc();
+    boolean existsByNombreIgnoreCase(String nombre);
+}
@@ -0,0 +1,110 @@
+package com.kavak.flota.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Proyecciones por columna para el parámetro fields=: consultas Criteria de tipo Tuple que seleccionan solo
+ * los atributos pedidos, sin instanciar la entidad ni inicializar sus colecciones. Cada fila es un mapa
+ * atributo → valor en el orden pedido, que se serializa tal cual.
+ * Los atributos deben ser columnas de la entidad; los valida quien llama (ver CamposSolicitados)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsultaCampos {
+
+    private static final int TAMANIO_FETCH = 500;
+
+    private final EntityManager entityManager;
+
+    public <E> Optional<Map<String, Object>> buscar(Class<E> entidad, List<String> campos, Specification<E> filtro) {
+        return consulta(entidad, campos, filtro, Sort.unsorted())
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .map(tupla -> fila(tupla, campos));
+    }
+
+    /**
+     * La consulta de conteo se omite cuando la página ya indica el total (primera página incompleta o la última)
+     */
+    public <E> Page<Map<String, Object>> listar(Class<E> entidad, List<String> campos, Specification<E> filtro,
+                                               Pageable pageable) {
+        TypedQuery<Tuple> consulta = consulta(entidad, campos, filtro, pageable.getSort());
+        if (pageable.isPaged()) {
+            consulta.setFirstResult((int) pageable.getOffset());
+            consulta.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> contenido = consulta.getResultList().stream()
+                .map(tupla -> fila(tupla, campos))
+                .toList();
+        return PageableExecutionUtils.getPage(contenido, pageable, () -> contar(entidad, filtro));
+    }
+
+    /**
+     * Recorre el resultado con un cursor. Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    public <E> Stream<Map<String, Object>> recorrer(Class<E> entidad, List<String> campos, Specification<E> filtro) {
+        return consulta(entidad, campos, filtro, Sort.unsorted())
+                .setHint(HINT_FETCH_SIZE, TAMANIO_FETCH)
+                .getResultStream()
+                .map(tupla -> fila(tupla, campos));
+    }
+
+    private <E> TypedQuery<Tuple> consulta(Class<E> entidad, List<String> campos, Specification<E> filtro, Sort orden) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entidad);
+        query.select(cb.tuple(campos.stream()
+                .<Selection<?>>map(campo -> root.get(campo).alias(campo))
+                .toList()));
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(QueryUtils.toOrders(orden, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private <E> long contar(Class<E> entidad, Specification<E> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entidad);
+        query.select(cb.count(root));
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Map<String, Object> fila(Tuple tupla, List<String> campos) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (int i = 0; i < campos.size(); i++) {
+            fila.put(campos.get(i), tupla.get(i));
+        }
+        return fila;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kavak.flota.repository;
+
+/**
+ * Proyección de un conteo de la flota: vehículos por disponibilidad o mantenimientos por estado y tipo
+ */
+public interface ConteoFlota {
+
+    /**
+     * VEHICULO o MANTENIMIENTO
+     */
+    String getGrupo();
+
+    /**
+     * DISPONIBLE / NO_DISPONIBLE para vehículos, el estado para mantenimientos
+     */
+    String getClave();
+
+    /**
+     * Tipo de mantenimiento (null para vehículos)
+     */
+    String getTipo();
+
+    Long getCantidad();
+}
@@ -0,0 +1,15 @@
+package com.kavak.flota.repository;
+
+/**
+ * Espacios de consulta (query spaces) declarados en las escrituras nativas.
+ * Sin declaración, Hibernate supone que una escritura nativa pudo tocar cualquier tabla y desaloja toda la
+ * caché de segundo nivel; un espacio que no corresponde a ninguna entidad no desaloja ninguna región, y quien
+ * ejecuta la escritura desaloja las entradas afectadas con InvalidacionCache.desalojar(...)
+ */
+public final class EspaciosConsulta {
+
+    public static final String ESCRITURA_PUNTUAL = "flota_escritura_puntual";
+
+    private EspaciosConsulta() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.enums.Estado;
+
+/**
+ * Proyección de segundos fuera de servicio agrupados por una dimensión (vehículo, tipo de mantenimiento o día)
+ */
+public interface InactividadAgregada {
+
+    /**
+     * Valor de la dimensión: id de vehículo, TipoMantenimiento o fecha
+     */
+    Object getClave();
+
+    Estado getEstado();
+
+    Long getSegundos();
+}
@@ -0,0 +1,80 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.InactividadDiaria;
+import com.kavak.flota.entity.InactividadDiariaId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface InactividadDiariaRepository extends JpaRepository<InactividadDiaria, InactividadDiariaId> {
+
+    /**
+     * Sumar segundos al acumulado del día, creando la fila si no existe.
+     * Declara su tabla como query space para que Hibernate no invalide toda la caché de segundo nivel.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "inactividad_diaria"))
+    @Query(value = "INSERT INTO inactividad_diaria AS i (vehiculo_id, fecha, tipo_mantenimiento, estado, segundos) " +
+                   "VALUES (:vehiculoId, :fecha, :tipoMantenimiento, :estado, :segundos) " +
+                   "ON CONFLICT (vehiculo_id, fecha, tipo_mantenimiento, estado) DO UPDATE SET " +
+                   "segundos = i.segundos + EXCLUDED.segundos",
+           nativeQuery = true)
+    void acumular(@Param("vehiculoId") Long vehiculoId,
+                  @Param("fecha") LocalDate fecha,
+                  @Param("tipoMantenimiento") String tipoMantenimiento,
+                  @Param("estado") String estado,
+                  @Param("segundos") long segundos);
+
+    /**
+     * Segundos por vehículo y estado en el rango (opcionalmente de un solo vehículo)
+     */
+    @Query("SELECT i.vehiculoId AS clave, i.estado AS estado, SUM(i.segundos) AS segundos " +
+           "FROM InactividadDiaria i " +
+           "WHERE i.fecha BETWEEN :desde AND :hasta AND (:vehiculoId IS NULL OR i.vehiculoId = :vehiculoId) " +
+           "GROUP BY i.vehiculoId, i.estado")
+    List<InactividadAgregada> sumarPorVehiculo(@Param("desde") LocalDate desde,
+                                               @Param("hasta") LocalDate hasta,
+                                               @Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Segundos por tipo de mantenimiento y estado en el rango (opcionalmente de un solo vehículo)
+     */
+    @Query("SELECT i.tipoMantenimiento AS clave, i.estado AS estado, SUM(i.segundos) AS segundos " +
+           "FROM InactividadDiaria i " +
+           "WHERE i.fecha BETWEEN :desde AND :hasta AND (:vehiculoId IS NULL OR i.vehiculoId = :vehiculoId) " +
+           "GROUP BY i.tipoMantenimiento, i.estado")
+    List<InactividadAgregada> sumarPorTipo(@Param("desde") LocalDate desde,
+                                           @Param("hasta") LocalDate hasta,
+                                           @Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Segundos por día y estado en el rango (opcionalmente de un solo vehículo)
+     */
+    @Query("SELECT i.fecha AS clave, i.estado AS estado, SUM(i.segundos) AS segundos " +
+           "FROM InactividadDiaria i " +
+           "WHERE i.fecha BETWEEN :desde AND :hasta AND (:vehiculoId IS NULL OR i.vehiculoId = :vehiculoId) " +
+           "GROUP BY i.fecha, i.estado")
+    List<InactividadAgregada> sumarPorDia(@Param("desde") LocalDate desde,
+                                          @Param("hasta") LocalDate hasta,
+                                          @Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Baja por conjunto de la inactividad de varios vehículos, antes de eliminarlos
+     * (la clave foránea solo borra en cascada si la tabla la creó scripts/09)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "inactividad_diaria"))
+    @Query(value = "DELETE FROM inactividad_diaria WHERE vehiculo_id IN (:vehiculoIds)", nativeQuery = true)
+    int eliminarPorVehiculoIds(@Param("vehiculoIds") Collection<Long> vehiculoIds);
+}
@@ -0,0 +1,22 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un mantenimiento activo con las fechas necesarias para calcular el tiempo en su estado actual
+ */
+public interface InactividadEnCurso {
+
+    Long getVehiculoId();
+
+    TipoMantenimiento getTipoMantenimiento();
+
+    Estado getEstado();
+
+    LocalDateTime getFechaCreacion();
+
+    LocalDateTime getFechaEnProceso();
+}
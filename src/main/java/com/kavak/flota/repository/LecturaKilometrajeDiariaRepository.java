@@ -0,0 +1,73 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.LecturaKilometrajeDiaria;
+import com.kavak.flota.entity.LecturaKilometrajeDiariaId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface LecturaKilometrajeDiariaRepository
+        extends JpaRepository<LecturaKilometrajeDiaria, LecturaKilometrajeDiariaId> {
+
+    /**
+     * Registrar una lectura: crea la fila del día o agrega la lectura al final del bloque existente.
+     * Declara su tabla como query space para que Hibernate no invalide toda la caché de segundo nivel.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "lectura_kilometraje_diaria"))
+    @Query(value = "INSERT INTO lectura_kilometraje_diaria AS l " +
+                   "(vehiculo_id, fecha, km_anterior, km_final, cantidad_lecturas, lecturas) " +
+                   "VALUES (:vehiculoId, :fecha, :kmAnterior, :kmFinal, 1, :bloque) " +
+                   "ON CONFLICT (vehiculo_id, fecha) DO UPDATE SET " +
+                   "km_final = EXCLUDED.km_final, " +
+                   "cantidad_lecturas = l.cantidad_lecturas + 1, " +
+                   "lecturas = l.lecturas || EXCLUDED.lecturas",
+           nativeQuery = true)
+    void registrarLectura(@Param("vehiculoId") Long vehiculoId,
+                          @Param("fecha") LocalDate fecha,
+                          @Param("kmAnterior") Long kmAnterior,
+                          @Param("kmFinal") Long kmFinal,
+                          @Param("bloque") byte[] bloque);
+
+    /**
+     * Kilómetros recorridos por día de un vehículo, a partir de los totales diarios
+     */
+    @Query("SELECT l.fecha AS fecha, SUM(l.kmFinal - l.kmAnterior) AS kilometros, " +
+           "SUM(l.cantidadLecturas) AS lecturas, COUNT(l) AS vehiculos " +
+           "FROM LecturaKilometrajeDiaria l " +
+           "WHERE l.vehiculoId = :vehiculoId AND l.fecha BETWEEN :desde AND :hasta " +
+           "GROUP BY l.fecha ORDER BY l.fecha")
+    List<UsoDiarioKilometraje> usoDiarioPorVehiculo(@Param("vehiculoId") Long vehiculoId,
+                                                    @Param("desde") LocalDate desde,
+                                                    @Param("hasta") LocalDate hasta);
+
+    /**
+     * Kilómetros recorridos por día sumando toda la flota, con la cantidad de vehículos que circularon
+     */
+    @Query("SELECT l.fecha AS fecha, SUM(l.kmFinal - l.kmAnterior) AS kilometros, " +
+           "SUM(l.cantidadLecturas) AS lecturas, COUNT(l) AS vehiculos " +
+           "FROM LecturaKilometrajeDiaria l " +
+           "WHERE l.fecha BETWEEN :desde AND :hasta " +
+           "GROUP BY l.fecha ORDER BY l.fecha")
+    List<UsoDiarioKilometraje> usoDiarioFlota(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Baja por conjunto del historial de varios vehículos, antes de eliminarlos
+     * (la clave foránea solo borra en cascada si la tabla la creó scripts/08)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "lectura_kilometraje_diaria"))
+    @Query(value = "DELETE FROM lectura_kilometraje_diaria WHERE vehiculo_id IN (:vehiculoIds)", nativeQuery = true)
+    int eliminarPorVehiculoIds(@Param("vehiculoIds") Collection<Long> vehiculoIds);
+}
@@ -0,0 +1,37 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un mantenimiento junto con el id de su vehículo, para cargar los de muchos vehículos en una
+ * sola consulta y repartirlos después
+ */
+public interface MantenimientoDeVehiculo {
+
+    Long getVehiculoId();
+
+    Long getId();
+
+    TipoMantenimiento getTipoMantenimiento();
+
+    String getDescripcion();
+
+    Estado getEstado();
+
+    Long getKilometrajeEnMantenimiento();
+
+    Double getCostoEstimado();
+
+    Double getCostoFinal();
+
+    LocalDateTime getFechaCreacion();
+
+    LocalDateTime getFechaActualizacion();
+
+    LocalDateTime getFechaEnProceso();
+
+    LocalDateTime getFechaFinalizacion();
+}
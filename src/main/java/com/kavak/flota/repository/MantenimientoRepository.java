@@ -2,12 +2,21 @@ package com.kavak.flota.repository;
 
 import com.kavak.flota.entity.Mantenimiento;
 import com.kavak.flota.enums.Estado;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 @Repository
 public interface MantenimientoRepository extends JpaRepository<Mantenimiento, Long> {
@@ -35,12 +44,81 @@ public interface MantenimientoRepository extends JpaRepository<Mantenimiento, Lo
             @Param("estadosActivos") List<Estado> estadosActivos);
 
     /**
-     * Obtener mantenimientos completados de un vehículo
-     * Filtra solo los mantenimientos con estado COMPLETADO
+     * Cantidad y costo total de los mantenimientos de un vehículo en el estado indicado.
+     * Se agrega en la base sin cargar entidades (ni la descripción); prioriza costoFinal sobre costoEstimado
+     */
+    @Query("SELECT COUNT(m) AS cantidad, " +
+           "COALESCE(SUM(COALESCE(m.costoFinal, m.costoEstimado)), 0) AS costoTotal " +
+           "FROM Mantenimiento m WHERE m.vehiculo.id = :vehiculoId AND m.estado = :estado")
+    ResumenCostoMantenimientos resumirCostosPorVehiculo(
+            @Param("vehiculoId") Long vehiculoId, @Param("estado") Estado estado);
+
+    /**
+     * Último kilometraje registrado por tipo de mantenimiento de un vehículo.
+     * Los cancelados no cuentan: no se hicieron, así que no corren el próximo umbral.
+     * Cada fila es [TipoMantenimiento, Long]
+     */
+    @Query("SELECT m.tipoMantenimiento, MAX(m.kilometrajeEnMantenimiento) FROM Mantenimiento m " +
+           "WHERE m.vehiculo.id = :vehiculoId AND m.estado <> com.kavak.flota.enums.Estado.CANCELADO " +
+           "GROUP BY m.tipoMantenimiento")
+    List<Object[]> findUltimoKilometrajePorTipo(@Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Recorre los mantenimientos de un vehículo sin materializar la lista completa.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Mantenimiento m WHERE m.vehiculo.id = :vehiculoId")
+    Stream<Mantenimiento> streamByVehiculoId(@Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Recorre los mantenimientos activos de un vehículo sin materializar la lista completa
      */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
     @Query("SELECT m FROM Mantenimiento m WHERE m.vehiculo.id = :vehiculoId " +
-           "AND m.estado = :estadoCompletado")
-    List<Mantenimiento> findMantenimientosCompletadosPorVehiculo(
-            @Param("vehiculoId") Long vehiculoId, @Param("estadoCompletado") Estado estadoCompletado);
-}
+           "AND m.estado IN :estadosActivos")
+    Stream<Mantenimiento> streamMantenimientosActivosPorVehiculo(
+            @Param("vehiculoId") Long vehiculoId,
+            @Param("estadosActivos") List<Estado> estadosActivos);
+
+    /**
+     * Mantenimientos activos que entraron a su estado antes del límite, para sumar el tiempo
+     * fuera de servicio que todavía no se volcó a inactividad_diaria (opcionalmente de un solo vehículo)
+     */
+    @Query("SELECT m.vehiculo.id AS vehiculoId, m.tipoMantenimiento AS tipoMantenimiento, m.estado AS estado, " +
+           "m.fechaCreacion AS fechaCreacion, m.fechaEnProceso AS fechaEnProceso " +
+           "FROM Mantenimiento m " +
+           "WHERE m.estado IN :estadosActivos AND m.fechaCreacion < :limite " +
+           "AND (:vehiculoId IS NULL OR m.vehiculo.id = :vehiculoId)")
+    List<InactividadEnCurso> findInactividadEnCurso(@Param("estadosActivos") List<Estado> estadosActivos,
+                                                    @Param("limite") LocalDateTime limite,
+                                                    @Param("vehiculoId") Long vehiculoId);
+
+    /**
+     * Mantenimientos en los estados indicados de varios vehículos en una sola consulta (IN),
+     * ordenados por vehículo y antigüedad
+     */
+    @Query("SELECT m.vehiculo.id AS vehiculoId, m.id AS id, m.tipoMantenimiento AS tipoMantenimiento, " +
+           "m.descripcion AS descripcion, m.estado AS estado, " +
+           "m.kilometrajeEnMantenimiento AS kilometrajeEnMantenimiento, m.costoEstimado AS costoEstimado, " +
+           "m.costoFinal AS costoFinal, m.fechaCreacion AS fechaCreacion, " +
+           "m.fechaActualizacion AS fechaActualizacion, m.fechaEnProceso AS fechaEnProceso, " +
+           "m.fechaFinalizacion AS fechaFinalizacion " +
+           "FROM Mantenimiento m WHERE m.vehiculo.id IN :vehiculoIds AND m.estado IN :estados " +
+           "ORDER BY m.vehiculo.id, m.id")
+    List<MantenimientoDeVehiculo> findDeVehiculos(@Param("vehiculoIds") Collection<Long> vehiculoIds,
+                                                  @Param("estados") Collection<Estado> estados);
+
+    @Query("SELECT m.id FROM Mantenimiento m WHERE m.vehiculo.id IN :vehiculoIds")
+    List<Long> findIdsByVehiculoIds(@Param("vehiculoIds") Collection<Long> vehiculoIds);
 
+    /**
+     * Baja por conjunto de los mantenimientos de varios vehículos; sus turnos deben eliminarse antes.
+     * Nativa y con su propio query space para que Hibernate no vacíe regiones enteras de la caché:
+     * quien la llama desaloja las entradas afectadas (InvalidacionCache.desalojar)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EspaciosConsulta.ESCRITURA_PUNTUAL))
+    @Query(value = "DELETE FROM mantenimiento WHERE vehiculo_id IN (:vehiculoIds)", nativeQuery = true)
+    int eliminarPorVehiculoIds(@Param("vehiculoIds") Collection<Long> vehiculoIds);
+}
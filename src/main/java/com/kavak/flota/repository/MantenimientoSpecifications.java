@@ -0,0 +1,27 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.enums.Estado;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Predicados sobre Mantenimiento para las proyecciones por columna (ver ConsultaCampos)
+ */
+public final class MantenimientoSpecifications {
+
+    private MantenimientoSpecifications() {
+    }
+
+    /**
+     * Compara la clave foránea sin unir la tabla de vehículos
+     */
+    public static Specification<Mantenimiento> deVehiculo(Long vehiculoId) {
+        return (root, query, cb) -> cb.equal(root.get("vehiculo").get("id"), vehiculoId);
+    }
+
+    public static Specification<Mantenimiento> enEstados(Collection<Estado> estados) {
+        return (root, query, cb) -> root.get("estado").in(estados);
+    }
+}
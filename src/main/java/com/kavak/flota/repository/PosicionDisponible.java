@@ -0,0 +1,15 @@
+package com.kavak.flota.repository;
+
+/**
+ * Proyección de un vehículo disponible con posición conocida, para cargar el índice espacial
+ */
+public interface PosicionDisponible {
+
+    Long getId();
+
+    String getPatente();
+
+    Double getLatitud();
+
+    Double getLongitud();
+}
@@ -0,0 +1,11 @@
+package com.kavak.flota.repository;
+
+/**
+ * Datos de un vehículo que devuelve el registro de su posición, para ajustar el índice espacial sin cargar la entidad
+ */
+public interface PosicionRegistrada {
+
+    String getPatente();
+
+    Boolean getDisponible();
+}
@@ -0,0 +1,23 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.RegistroIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+
+    /**
+     * Elimina los registros vencidos
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.fechaCreacion < :limite")
+    int eliminarAnterioresA(@Param("limite") LocalDateTime limite);
+}
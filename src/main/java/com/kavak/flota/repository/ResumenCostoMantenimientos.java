@@ -0,0 +1,11 @@
+package com.kavak.flota.repository;
+
+/**
+ * Proyección del agregado de costos de mantenimientos de un vehículo
+ */
+public interface ResumenCostoMantenimientos {
+
+    Long getCantidad();
+
+    Double getCostoTotal();
+}
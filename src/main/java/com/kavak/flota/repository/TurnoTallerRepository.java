@@ -0,0 +1,59 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.entity.TurnoTaller;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface TurnoTallerRepository extends JpaRepository<TurnoTaller, Long> {
+
+    Optional<TurnoTaller> findByMantenimientoId(Long mantenimientoId);
+
+    boolean existsByMantenimientoId(Long mantenimientoId);
+
+    /**
+     * Turnos que todavía no terminaron, para armar el índice en memoria de cada bahía
+     * (usa el índice turno_taller(fin))
+     */
+    @Query("SELECT t FROM TurnoTaller t WHERE t.fin > :momento")
+    List<TurnoTaller> findVigentes(@Param("momento") LocalDateTime momento);
+
+    /**
+     * Turnos de una bahía que se superponen con [desde, hasta), ordenados por inicio
+     */
+    @Query("SELECT t FROM TurnoTaller t JOIN FETCH t.bahia WHERE t.bahia.id = :bahiaId " +
+           "AND t.inicio < :hasta AND t.fin > :desde ORDER BY t.inicio")
+    List<TurnoTaller> findSuperpuestos(@Param("bahiaId") Long bahiaId,
+                                       @Param("desde") LocalDateTime desde,
+                                       @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Turnos vigentes de los mantenimientos de varios vehículos, con su bahía
+     */
+    @Query("SELECT t FROM TurnoTaller t JOIN FETCH t.bahia WHERE t.mantenimiento.vehiculo.id IN :vehiculoIds " +
+           "AND t.fin > :momento")
+    List<TurnoTaller> findVigentesDeVehiculos(@Param("vehiculoIds") Collection<Long> vehiculoIds,
+                                              @Param("momento") LocalDateTime momento);
+
+    /**
+     * Baja por conjunto de los turnos de los mantenimientos de varios vehículos, antes de eliminar los mantenimientos
+     * (la clave foránea solo borra en cascada si la tabla la creó scripts/11)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "turno_taller"))
+    @Query(value = "DELETE FROM turno_taller WHERE mantenimiento_id IN " +
+                   "(SELECT id FROM mantenimiento WHERE vehiculo_id IN (:vehiculoIds))", nativeQuery = true)
+    int eliminarDeVehiculos(@Param("vehiculoIds") Collection<Long> vehiculoIds);
+}
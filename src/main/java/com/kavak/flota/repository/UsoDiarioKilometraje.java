@@ -0,0 +1,17 @@
+package com.kavak.flota.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de los kilómetros recorridos en un día (por vehículo o sumados en la flota)
+ */
+public interface UsoDiarioKilometraje {
+
+    LocalDate getFecha();
+
+    Long getKilometros();
+
+    Long getLecturas();
+
+    Long getVehiculos();
+}
@@ -1,15 +1,28 @@
 package com.kavak.flota.repository;
 
 import com.kavak.flota.entity.Vehiculo;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 @Repository
-public interface VehiculoRepository extends JpaRepository<Vehiculo, Long> {
+public interface VehiculoRepository extends JpaRepository<Vehiculo, Long>, JpaSpecificationExecutor<Vehiculo> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Vehiculo> findByPatente(String patente);
     
     /**
@@ -22,5 +35,118 @@ public interface VehiculoRepository extends JpaRepository<Vehiculo, Long> {
      * Obtiene todos los vehículos no disponibles (con mantenimientos activos)
      */
     List<Vehiculo> findByDisponibleFalse();
-}
 
+    /**
+     * Recorre los vehículos disponibles sin materializar la lista completa.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT v FROM Vehiculo v WHERE v.disponible = true")
+    Stream<Vehiculo> streamByDisponibleTrue();
+
+    /**
+     * Recorre los vehículos no disponibles sin materializar la lista completa
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT v FROM Vehiculo v WHERE v.disponible = false")
+    Stream<Vehiculo> streamByDisponibleFalse();
+
+    /**
+     * Búsqueda por prefijo o aproximada (trigramas, extensión pg_trgm) sobre la patente,
+     * con filtros opcionales por marca y modelo. Primero los que coinciden por prefijo,
+     * luego por similitud descendente.
+     */
+    @Query(value = "SELECT * FROM vehiculo v " +
+            "WHERE (v.patente LIKE :prefijo OR v.patente % :texto) " +
+            "AND (CAST(:marca AS text) IS NULL OR upper(v.marca) = upper(CAST(:marca AS text))) " +
+            "AND (CAST(:modelo AS text) IS NULL OR upper(v.modelo) = upper(CAST(:modelo AS text))) " +
+            "ORDER BY (v.patente LIKE :prefijo) DESC, similarity(v.patente, :texto) DESC, v.patente " +
+            "LIMIT :limite", nativeQuery = true)
+    List<Vehiculo> buscarPorPatente(
+            @Param("texto") String texto,
+            @Param("prefijo") String prefijo,
+            @Param("marca") String marca,
+            @Param("modelo") String modelo,
+            @Param("limite") int limite);
+
+    /**
+     * IDs de vehículos cuyo kilometraje cambió desde la última evaluación preventiva
+     */
+    @Query("SELECT v.id FROM Vehiculo v WHERE v.kilometrajePendienteEvaluacion = true ORDER BY v.id")
+    List<Long> findIdsConKilometrajePendienteEvaluacion();
+
+    /**
+     * Marca el vehículo como evaluado solo si su kilometraje sigue siendo el evaluado: una lectura que llegó
+     * durante la evaluación deja la marca para la próxima corrida. Nativa y con espacio propio para no
+     * desalojar la región completa de vehículos; quien la llama desaloja la entrada del vehículo
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EspaciosConsulta.ESCRITURA_PUNTUAL))
+    @Query(value = "UPDATE vehiculo SET kilometraje_pendiente_evaluacion = false " +
+                   "WHERE id = :id AND kilometraje = :kilometraje", nativeQuery = true)
+    int marcarKilometrajeEvaluado(@Param("id") Long id, @Param("kilometraje") Long kilometraje);
+
+    /**
+     * Registra la posición en una sola sentencia, sin cargar la entidad, salvo que sea más vieja que la registrada.
+     * Devuelve lo que necesita el índice espacial; vacío si el vehículo no existe o la posición llegó fuera de orden.
+     * Las columnas de posición no incrementan la versión (ver Vehiculo), así que no se toca
+     */
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EspaciosConsulta.ESCRITURA_PUNTUAL))
+    @Query(value = "UPDATE vehiculo SET latitud = :latitud, longitud = :longitud, fecha_posicion = :fecha " +
+                   "WHERE id = :id AND (fecha_posicion IS NULL OR fecha_posicion <= :fecha) " +
+                   "RETURNING patente AS patente, disponible AS disponible", nativeQuery = true)
+    Optional<PosicionRegistrada> registrarPosicion(@Param("id") Long id, @Param("latitud") Double latitud,
+                                                   @Param("longitud") Double longitud,
+                                                   @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Todos los conteos del resumen de flota en una sola consulta: vehículos por disponibilidad
+     * y mantenimientos por estado y tipo
+     */
+    @Query(value = "SELECT 'VEHICULO' AS grupo, " +
+                   "CASE WHEN v.disponible THEN 'DISPONIBLE' ELSE 'NO_DISPONIBLE' END AS clave, " +
+                   "CAST(NULL AS VARCHAR) AS tipo, COUNT(*) AS cantidad " +
+                   "FROM vehiculo v GROUP BY v.disponible " +
+                   "UNION ALL " +
+                   "SELECT 'MANTENIMIENTO', m.estado, m.tipo_mantenimiento, COUNT(*) " +
+                   "FROM mantenimiento m GROUP BY m.estado, m.tipo_mantenimiento",
+           nativeQuery = true)
+    List<ConteoFlota> contarFlota();
+
+    /**
+     * Vehículos disponibles con posición conocida, para cargar el índice espacial
+     */
+    @Query("SELECT v.id AS id, v.patente AS patente, v.latitud AS latitud, v.longitud AS longitud " +
+           "FROM Vehiculo v WHERE v.disponible = true AND v.latitud IS NOT NULL AND v.longitud IS NOT NULL")
+    List<PosicionDisponible> findPosicionesDisponibles();
+
+    /**
+     * Bloquea los vehículos a eliminar (en orden, para no cruzarse con otra baja) y devuelve los que existen.
+     * Las transiciones de mantenimiento concurrentes esperan y luego fallan por versión
+     */
+    @Query(value = "SELECT v.id FROM vehiculo v WHERE v.id IN (:ids) ORDER BY v.id FOR UPDATE", nativeQuery = true)
+    List<Long> bloquearParaEliminar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Los conteos de contarFlota restringidos a los vehículos indicados y sus mantenimientos
+     */
+    @Query(value = "SELECT 'VEHICULO' AS grupo, " +
+                   "CASE WHEN v.disponible THEN 'DISPONIBLE' ELSE 'NO_DISPONIBLE' END AS clave, " +
+                   "CAST(NULL AS VARCHAR) AS tipo, COUNT(*) AS cantidad " +
+                   "FROM vehiculo v WHERE v.id IN (:ids) GROUP BY v.disponible " +
+                   "UNION ALL " +
+                   "SELECT 'MANTENIMIENTO', m.estado, m.tipo_mantenimiento, COUNT(*) " +
+                   "FROM mantenimiento m WHERE m.vehiculo_id IN (:ids) GROUP BY m.estado, m.tipo_mantenimiento",
+           nativeQuery = true)
+    List<ConteoFlota> contarFlotaDe(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Baja por conjunto: sin cargar las entidades. Los mantenimientos, el historial de kilometraje y la inactividad
+     * deben eliminarse antes. Nativa y con su propio query space para que Hibernate no vacíe regiones enteras
+     * de la caché: quien la llama desaloja las entradas afectadas (InvalidacionCache.desalojar)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EspaciosConsulta.ESCRITURA_PUNTUAL))
+    @Query(value = "DELETE FROM vehiculo WHERE id IN (:ids)", nativeQuery = true)
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+}
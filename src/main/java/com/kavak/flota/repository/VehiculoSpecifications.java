@@ -0,0 +1,83 @@
+package com.kavak.flota.repository;
+
+import com.kavak.flota.dto.FiltroVehiculoDTO;
+import com.kavak.flota.entity.Vehiculo;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicados dinámicos sobre Vehiculo para la consulta multi-criterio.
+ * Marca y modelo se comparan con upper() para aprovechar los índices funcionales
+ * de scripts/04_consulta_vehiculos_indices.sql
+ */
+public final class VehiculoSpecifications {
+
+    private VehiculoSpecifications() {
+    }
+
+    /**
+     * Combina con AND todos los criterios presentes en el filtro; los ausentes no restringen
+     */
+    public static Specification<Vehiculo> desdeFiltro(FiltroVehiculoDTO filtro) {
+        return Specification.allOf(
+                marcaIgual(filtro.getMarca()),
+                modeloIgual(filtro.getModelo()),
+                anioEntre(filtro.getAnioDesde(), filtro.getAnioHasta()),
+                kilometrajeEntre(filtro.getKilometrajeDesde(), filtro.getKilometrajeHasta()),
+                disponible(filtro.getDisponible()));
+    }
+
+    public static Specification<Vehiculo> marcaIgual(String marca) {
+        return (root, query, cb) -> marca == null || marca.isBlank() ? cb.conjunction()
+                : cb.equal(cb.upper(root.get("marca")), marca.trim().toUpperCase());
+    }
+
+    public static Specification<Vehiculo> modeloIgual(String modelo) {
+        return (root, query, cb) -> modelo == null || modelo.isBlank() ? cb.conjunction()
+                : cb.equal(cb.upper(root.get("modelo")), modelo.trim().toUpperCase());
+    }
+
+    public static Specification<Vehiculo> anioEntre(Integer desde, Integer hasta) {
+        return (root, query, cb) -> {
+            if (desde != null && hasta != null) {
+                return cb.between(root.get("anio"), desde, hasta);
+            } else if (desde != null) {
+                return cb.greaterThanOrEqualTo(root.get("anio"), desde);
+            } else if (hasta != null) {
+                return cb.lessThanOrEqualTo(root.get("anio"), hasta);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    public static Specification<Vehiculo> kilometrajeEntre(Long desde, Long hasta) {
+        return (root, query, cb) -> {
+            if (desde != null && hasta != null) {
+                return cb.between(root.get("kilometraje"), desde, hasta);
+            } else if (desde != null) {
+                return cb.greaterThanOrEqualTo(root.get("kilometraje"), desde);
+            } else if (hasta != null) {
+                return cb.lessThanOrEqualTo(root.get("kilometraje"), hasta);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    public static Specification<Vehiculo> disponible(Boolean disponible) {
+        return (root, query, cb) -> disponible == null ? cb.conjunction() : cb.equal(root.get("disponible"), disponible);
+    }
+
+    public static Specification<Vehiculo> idIgual(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Vehiculo> patenteIgual(String patente) {
+        return (root, query, cb) -> cb.equal(root.get("patente"), patente);
+    }
+
+    /**
+     * Paginación por cursor: vehículos con id mayor al último de la página anterior
+     */
+    public static Specification<Vehiculo> idMayorQue(Long id) {
+        return (root, query, cb) -> id == null ? cb.conjunction() : cb.greaterThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,42 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+
+/**
+ * Cambio en los conteos de la flota producido por una escritura. Se publica dentro de la transacción y
+ * ContadoresFlota lo aplica recién cuando confirma; los valores null indican que no hay estado anterior
+ * (alta) o posterior (baja). cantidad es la cantidad de unidades con ese mismo cambio (bajas por conjunto).
+ */
+public record CambioFlota(Boolean disponibleAntes, Boolean disponibleDespues,
+                          TipoMantenimiento tipoMantenimiento, Estado estadoAntes, Estado estadoDespues,
+                          long cantidad) {
+
+    public static CambioFlota vehiculoCreado(boolean disponible) {
+        return new CambioFlota(null, disponible, null, null, null, 1);
+    }
+
+    public static CambioFlota vehiculoEliminado(boolean disponible) {
+        return vehiculosEliminados(disponible, 1);
+    }
+
+    public static CambioFlota vehiculosEliminados(boolean disponible, long cantidad) {
+        return new CambioFlota(disponible, null, null, null, null, cantidad);
+    }
+
+    public static CambioFlota mantenimientoEliminado(TipoMantenimiento tipo, Estado estado) {
+        return mantenimientosEliminados(tipo, estado, 1);
+    }
+
+    public static CambioFlota mantenimientosEliminados(TipoMantenimiento tipo, Estado estado, long cantidad) {
+        return new CambioFlota(null, null, tipo, estado, null, cantidad);
+    }
+
+    /**
+     * Alta (estadoAntes null) o transición de un mantenimiento, con la disponibilidad del vehículo antes y después
+     */
+    public static CambioFlota mantenimiento(TipoMantenimiento tipo, Estado estadoAntes, Estado estadoDespues,
+                                            boolean disponibleAntes, boolean disponibleDespues) {
+        return new CambioFlota(disponibleAntes, disponibleDespues, tipo, estadoAntes, estadoDespues, 1);
+    }
+}
@@ -0,0 +1,129 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.enums.ClaseCarga;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una consulta de toda la flota en cada región (shard) en paralelo y combina los resultados.
+ * Cada región corre en su propio hilo virtual con la región y la clase de carga del llamador, por lo que
+ * toma conexiones del pool de esa región; la concurrencia real la limitan esos pools.
+ * Si alguna región falla, falla la consulta completa (no se devuelven resultados parciales) y se interrumpen
+ * las regiones que siguen corriendo.
+ * Con una sola región la consulta se ejecuta directamente en el hilo actual.
+ */
+@Component
+public class ConsultaRegional {
+
+    private final ShardingProperties properties;
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ConsultaRegional(ShardingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return el resultado de cada región, en el orden de configuración de las regiones
+     */
+    public <T> List<T> enTodas(Supplier<T> consulta) {
+        List<String> regiones = properties.nombresRegiones();
+        if (regiones.size() == 1) {
+            return Collections.singletonList(ContextoRegion.ejecutarEn(regiones.get(0), consulta));
+        }
+
+        ClaseCarga clase = ContextoCargaTrabajo.actual();
+        CompletionService<T> completadas = new ExecutorCompletionService<>(ejecutor);
+        List<Future<T>> futuros = regiones.stream()
+                .map(region -> completadas.submit(() -> ContextoRegion.ejecutarEn(region,
+                        () -> ContextoCargaTrabajo.ejecutarCon(clase, consulta))))
+                .toList();
+        try {
+            // En orden de finalización: el primer fallo cancela las demás sin esperar a las más lentas
+            for (int i = 0; i < futuros.size(); i++) {
+                completadas.take().get();
+            }
+            List<T> resultados = new ArrayList<>(futuros.size());
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            cancelar(futuros);
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            cancelar(futuros);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Consulta regional interrumpida");
+        }
+    }
+
+    /**
+     * Interrumpe los hilos de las regiones que siguen corriendo. Los recorridos se detienen en el próximo
+     * elemento que entregan (ver recorrerEnTodas)
+     */
+    private static void cancelar(List<? extends Future<?>> futuros) {
+        futuros.forEach(futuro -> futuro.cancel(true));
+    }
+
+    /**
+     * Concatena las listas devueltas por cada región
+     */
+    public <T> List<T> concatenarEnTodas(Supplier<List<T>> consulta) {
+        return enTodas(consulta).stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Recorre todas las regiones en paralelo entregando cada elemento al mismo consumidor, de a uno por vez
+     * @param productor recibe el consumidor al que debe entregar cada elemento de su región
+     */
+    public <T> void recorrerEnTodas(Consumer<Consumer<T>> productor, Consumer<T> consumidor) {
+        // ReentrantLock y no synchronized: el consumidor escribe en la respuesta (IO bloqueante) y en un hilo
+        // virtual synchronized lo fija a su hilo de plataforma mientras espera
+        ReentrantLock cerrojo = new ReentrantLock();
+        Consumer<T> sincronizado = elemento -> {
+            try {
+                cerrojo.lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Recorrido regional cancelado");
+            }
+            try {
+                consumidor.accept(elemento);
+            } finally {
+                cerrojo.unlock();
+            }
+        };
+        enTodas(() -> {
+            productor.accept(sincronizado);
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+}
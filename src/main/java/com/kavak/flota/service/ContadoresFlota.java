@@ -0,0 +1,188 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.dto.ResumenFlotaDTO;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.repository.ConteoFlota;
+import com.kavak.flota.repository.VehiculoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria del resumen de flota: vehículos por disponibilidad y mantenimientos por estado y tipo.
+ * Se inicializan con una única consulta agregada al arrancar, se ajustan con cada CambioFlota después del commit
+ * y se reconcilian periódicamente contra la base. Leer el resumen no toca la base de datos.
+ * La reconciliación corrige sumando la diferencia (no reemplazando el valor), así que los cambios aplicados
+ * mientras corre no se pierden; un commit concurrente con la consulta puede dejar un desvío transitorio
+ * que se corrige en la siguiente pasada.
+ */
+@Slf4j
+@Service
+public class ContadoresFlota {
+
+    private static final Estado[] ESTADOS = Estado.values();
+    private static final TipoMantenimiento[] TIPOS = TipoMantenimiento.values();
+
+    private final VehiculoRepository vehiculoRepository;
+    private final ConsultaRegional consultaRegional;
+    private final Counter desvios;
+
+    private final LongAdder disponibles = new LongAdder();
+    private final LongAdder noDisponibles = new LongAdder();
+    // [estado][tipo], indexados por ordinal
+    private final LongAdder[][] mantenimientos = new LongAdder[ESTADOS.length][TIPOS.length];
+
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    public ContadoresFlota(VehiculoRepository vehiculoRepository, ConsultaRegional consultaRegional,
+                           MeterRegistry meterRegistry) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.consultaRegional = consultaRegional;
+        this.desvios = meterRegistry.counter("flota.contadores.desvios");
+        for (LongAdder[] porTipo : mantenimientos) {
+            for (int t = 0; t < porTipo.length; t++) {
+                porTipo[t] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Aplicar un cambio confirmado. Si la transacción se revierte el cambio nunca llega
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aplicar(CambioFlota cambio) {
+        long cantidad = cambio.cantidad();
+        if (cambio.disponibleAntes() != null) {
+            contadorDisponibilidad(cambio.disponibleAntes()).add(-cantidad);
+        }
+        if (cambio.disponibleDespues() != null) {
+            contadorDisponibilidad(cambio.disponibleDespues()).add(cantidad);
+        }
+        if (cambio.tipoMantenimiento() != null) {
+            if (cambio.estadoAntes() != null) {
+                contadorMantenimientos(cambio.estadoAntes(), cambio.tipoMantenimiento()).add(-cantidad);
+            }
+            if (cambio.estadoDespues() != null) {
+                contadorMantenimientos(cambio.estadoDespues(), cambio.tipoMantenimiento()).add(cantidad);
+            }
+        }
+    }
+
+    /**
+     * Resumen actual de la flota a partir de los contadores
+     */
+    public ResumenFlotaDTO resumen() {
+        Map<String, Long> porEstado = new LinkedHashMap<>();
+        Map<String, Long> porTipo = new LinkedHashMap<>();
+        Map<String, Long> activosPorTipo = new LinkedHashMap<>();
+        for (TipoMantenimiento tipo : TIPOS) {
+            porTipo.put(tipo.name(), 0L);
+            activosPorTipo.put(tipo.name(), 0L);
+        }
+        for (Estado estado : ESTADOS) {
+            long totalEstado = 0;
+            for (TipoMantenimiento tipo : TIPOS) {
+                long cantidad = contadorMantenimientos(estado, tipo).sum();
+                totalEstado += cantidad;
+                porTipo.merge(tipo.name(), cantidad, Long::sum);
+                if (estado.esActivo()) {
+                    activosPorTipo.merge(tipo.name(), cantidad, Long::sum);
+                }
+            }
+            porEstado.put(estado.name(), totalEstado);
+        }
+
+        long vehiculosDisponibles = disponibles.sum();
+        long vehiculosNoDisponibles = noDisponibles.sum();
+        return ResumenFlotaDTO.builder()
+                .totalVehiculos(vehiculosDisponibles + vehiculosNoDisponibles)
+                .vehiculosDisponibles(vehiculosDisponibles)
+                .vehiculosNoDisponibles(vehiculosNoDisponibles)
+                .mantenimientosPorEstado(porEstado)
+                .mantenimientosPorTipo(porTipo)
+                .mantenimientosActivosPorTipo(activosPorTipo)
+                .ultimaReconciliacion(ultimaReconciliacion)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        long corregidos = reconciliar();
+        log.info("Contadores de flota inicializados ({} unidades cargadas)", corregidos);
+    }
+
+    @Scheduled(initialDelayString = "${contadores.reconciliacion-ms:300000}",
+               fixedDelayString = "${contadores.reconciliacion-ms:300000}")
+    public void reconciliarPeriodicamente() {
+        long corregidos = reconciliar();
+        if (corregidos > 0) {
+            desvios.increment(corregidos);
+            log.warn("Contadores de flota corregidos en {} unidades al reconciliar con la base", corregidos);
+        }
+    }
+
+    /**
+     * Comparar los contadores con la suma de todas las regiones (pool analítico) y corregir la diferencia
+     * @return suma de los desvíos corregidos, en valor absoluto
+     */
+    public long reconciliar() {
+        List<ConteoFlota> conteos = ContextoCargaTrabajo.ejecutarCon(ClaseCarga.ANALITICA,
+                () -> consultaRegional.concatenarEnTodas(vehiculoRepository::contarFlota));
+
+        long esperadosDisponibles = 0;
+        long esperadosNoDisponibles = 0;
+        long[][] esperadosMantenimientos = new long[ESTADOS.length][TIPOS.length];
+        for (ConteoFlota conteo : conteos) {
+            if ("VEHICULO".equals(conteo.getGrupo())) {
+                if ("DISPONIBLE".equals(conteo.getClave())) {
+                    esperadosDisponibles += conteo.getCantidad();
+                } else {
+                    esperadosNoDisponibles += conteo.getCantidad();
+                }
+            } else {
+                esperadosMantenimientos[Estado.valueOf(conteo.getClave()).ordinal()]
+                        [TipoMantenimiento.valueOf(conteo.getTipo()).ordinal()] += conteo.getCantidad();
+            }
+        }
+
+        long corregidos = corregir(disponibles, esperadosDisponibles) + corregir(noDisponibles, esperadosNoDisponibles);
+        for (int e = 0; e < ESTADOS.length; e++) {
+            for (int t = 0; t < TIPOS.length; t++) {
+                corregidos += corregir(mantenimientos[e][t], esperadosMantenimientos[e][t]);
+            }
+        }
+        ultimaReconciliacion = LocalDateTime.now();
+        return corregidos;
+    }
+
+    private static long corregir(LongAdder contador, long esperado) {
+        long desvio = esperado - contador.sum();
+        if (desvio != 0) {
+            contador.add(desvio);
+        }
+        return Math.abs(desvio);
+    }
+
+    private LongAdder contadorDisponibilidad(boolean disponible) {
+        return disponible ? disponibles : noDisponibles;
+    }
+
+    private LongAdder contadorMantenimientos(Estado estado, TipoMantenimiento tipo) {
+        return mantenimientos[estado.ordinal()][tipo.ordinal()];
+    }
+}
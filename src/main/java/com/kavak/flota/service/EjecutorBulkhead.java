@@ -0,0 +1,84 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.BulkheadProperties;
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.exception.BulkheadSaturadoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Un ejecutor acotado (hilos y cola) por clase de carga que se saca del hilo de la petición.
+ * Las tareas corren con la clase de carga fijada en el hilo y con la región del hilo que las envió,
+ * por lo que toman conexiones del pool de su clase en esa región. Cuando hilos y cola están ocupados la tarea se rechaza en lugar de esperar.
+ * La carga TRANSACCIONAL no tiene ejecutor: corre en el hilo de la petición, aislada por su pool de conexiones
+ * y por el control de admisión.
+ */
+@Component
+public class EjecutorBulkhead {
+
+    private final Map<ClaseCarga, ExecutorService> ejecutores = new EnumMap<>(ClaseCarga.class);
+
+    public EjecutorBulkhead(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (ClaseCarga clase : ClaseCarga.values()) {
+            if (clase == ClaseCarga.TRANSACCIONAL) {
+                continue;
+            }
+            BulkheadProperties.Particion particion = properties.particion(clase);
+            ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(
+                    particion.getHilos(), particion.getHilos(), 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(particion.getCola()),
+                    Thread.ofPlatform().name("bulkhead-" + clase.name().toLowerCase() + "-", 0).factory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            ejecutores.put(clase, ExecutorServiceMetrics.monitor(
+                    meterRegistry, ejecutor, "flota.bulkhead", Tags.of("clase", clase.name().toLowerCase())));
+        }
+    }
+
+    /**
+     * Ejecuta la tarea en el ejecutor de la clase indicada.
+     * El futuro se completa con la excepción original de la tarea (sin envolver).
+     * @throws BulkheadSaturadoException si el ejecutor de la clase no admite más tareas
+     * @throws IllegalArgumentException si la clase no tiene ejecutor propio
+     */
+    public <T> CompletableFuture<T> enviar(ClaseCarga clase, Supplier<T> tarea) {
+        ExecutorService ejecutor = ejecutores.get(clase);
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("La carga " + clase + " no tiene ejecutor propio");
+        }
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        String region = ContextoRegion.actual();
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    resultado.complete(ContextoRegion.ejecutarEn(region,
+                            () -> ContextoCargaTrabajo.ejecutarCon(clase, tarea)));
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadSaturadoException(clase);
+        }
+        return resultado;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutores.values().forEach(ExecutorService::shutdown);
+    }
+}
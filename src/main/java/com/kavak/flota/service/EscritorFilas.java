@@ -0,0 +1,105 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.enums.FormatoExportacion;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Codifica filas de una exportación directamente sobre el destino, una a la vez
+ */
+interface EscritorFilas {
+
+    void encabezado(String[] columnas) throws IOException;
+
+    void fila(Object[] valores) throws IOException;
+
+    static EscritorFilas para(FormatoExportacion formato, Writer destino, ObjectMapper objectMapper) {
+        return switch (formato) {
+            case CSV -> new Csv(destino);
+            case NDJSON -> new Ndjson(destino, objectMapper);
+        };
+    }
+
+    /**
+     * CSV según RFC 4180: primera línea con los nombres de columna, valores nulos como campo vacío
+     */
+    final class Csv implements EscritorFilas {
+
+        private final Writer destino;
+
+        Csv(Writer destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void encabezado(String[] columnas) throws IOException {
+            escribirLinea(columnas);
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            escribirLinea(valores);
+        }
+
+        private void escribirLinea(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    destino.write(',');
+                }
+                if (valores[i] != null) {
+                    escribirCampo(valores[i].toString());
+                }
+            }
+            destino.write("\r\n");
+        }
+
+        private void escribirCampo(String valor) throws IOException {
+            boolean requiereComillas = false;
+            for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+                char c = valor.charAt(i);
+                requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!requiereComillas) {
+                destino.write(valor);
+                return;
+            }
+            destino.write('"');
+            destino.write(valor.replace("\"", "\"\""));
+            destino.write('"');
+        }
+    }
+
+    /**
+     * Un objeto JSON por línea con los nombres de columna como claves
+     */
+    final class Ndjson implements EscritorFilas {
+
+        private final Writer destino;
+        private final ObjectMapper objectMapper;
+        private String[] columnas;
+
+        Ndjson(Writer destino, ObjectMapper objectMapper) {
+            this.destino = destino;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void encabezado(String[] columnas) {
+            this.columnas = columnas;
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            Map<String, Object> objeto = new LinkedHashMap<>(columnas.length * 2);
+            for (int i = 0; i < columnas.length; i++) {
+                objeto.put(columnas[i], valores[i]);
+            }
+            destino.write(objectMapper.writeValueAsString(objeto));
+            destino.write('\n');
+        }
+    }
+}
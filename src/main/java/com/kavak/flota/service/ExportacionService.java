@@ -0,0 +1,104 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ExportacionProperties;
+import com.kavak.flota.enums.FormatoExportacion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+
+/**
+ * Exportación masiva de vehículos y mantenimientos.
+ * Lee con un cursor JDBC de solo avance (fetch size acotado, dentro de una transacción de solo lectura para que
+ * PostgreSQL no materialice el resultado) y escribe cada fila al destino sin hidratar entidades, por lo que la
+ * memoria usada no depende de la cantidad de filas.
+ * Lectura y escritura corren en un hilo del bulkhead analítico (ver ExportacionController), no en el de la
+ * petición: el destino es la respuesta HTTP y el cursor avanza a medida que el cliente consume.
+ */
+@Service
+public class ExportacionService {
+
+    static final String CONSULTA_VEHICULOS =
+            "SELECT v.id, v.patente, v.marca, v.modelo, v.anio, v.kilometraje, v.disponible, " +
+            "v.fecha_creacion, v.fecha_actualizacion " +
+            "FROM vehiculo v ORDER BY v.id";
+
+    static final String CONSULTA_MANTENIMIENTOS =
+            "SELECT m.id, m.vehiculo_id, v.patente, m.tipo_mantenimiento, m.estado, m.descripcion, " +
+            "m.kilometraje_en_mantenimiento, m.costo_estimado, m.costo_final, " +
+            "m.fecha_creacion, m.fecha_actualizacion " +
+            "FROM mantenimiento m JOIN vehiculo v ON v.id = m.vehiculo_id ORDER BY m.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportacionService(DataSource dataSource, ObjectMapper objectMapper, ExportacionProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getTamanioFetch());
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribir todos los vehículos en el destino
+     * @return cantidad de filas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportarVehiculos(FormatoExportacion formato, Writer destino) {
+        return exportar(CONSULTA_VEHICULOS, EscritorFilas.para(formato, destino, objectMapper));
+    }
+
+    /**
+     * Escribir todos los mantenimientos (con la patente del vehículo) en el destino
+     * @return cantidad de filas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportarMantenimientos(FormatoExportacion formato, Writer destino) {
+        return exportar(CONSULTA_MANTENIMIENTOS, EscritorFilas.para(formato, destino, objectMapper));
+    }
+
+    private long exportar(String consulta, EscritorFilas escritor) {
+        ResultSetExtractor<Long> extractor = rs -> {
+            ResultSetMetaData metadata = rs.getMetaData();
+            String[] columnas = new String[metadata.getColumnCount()];
+            for (int i = 0; i < columnas.length; i++) {
+                columnas[i] = metadata.getColumnLabel(i + 1);
+            }
+
+            // Se reutiliza el mismo arreglo en todas las filas: el escritor no lo retiene
+            Object[] valores = new Object[columnas.length];
+            long filas = 0;
+            try {
+                escritor.encabezado(columnas);
+                while (rs.next()) {
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = normalizar(rs.getObject(i + 1));
+                    }
+                    escritor.fila(valores);
+                    filas++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return filas;
+        };
+        return jdbcTemplate.query(consulta, extractor);
+    }
+
+    /**
+     * Fechas en ISO-8601 en ambos formatos; el resto de los valores se escribe tal como lo entrega el driver
+     */
+    private static Object normalizar(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,136 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.dto.LecturaKilometrajeDTO;
+import com.kavak.flota.dto.UsoKilometrajeDTO;
+import com.kavak.flota.entity.LecturaKilometrajeDiariaId;
+import com.kavak.flota.enums.AgrupacionUso;
+import com.kavak.flota.exception.VehiculoNotFoundException;
+import com.kavak.flota.repository.LecturaKilometrajeDiariaRepository;
+import com.kavak.flota.repository.UsoDiarioKilometraje;
+import com.kavak.flota.repository.VehiculoRepository;
+import com.kavak.flota.util.CodificadorLecturas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historial de lecturas de odómetro y consultas de uso.
+ * Cada lectura aceptada se agrega al bloque diario del vehículo (una fila por vehículo y día), y las
+ * consultas de uso trabajan sobre los totales diarios sin decodificar las lecturas individuales.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class HistorialKilometrajeService {
+
+    static final int MAXIMO_DIAS_CONSULTA = 366;
+
+    private final LecturaKilometrajeDiariaRepository lecturaRepository;
+    private final VehiculoRepository vehiculoRepository;
+
+    /**
+     * Registrar una lectura aceptada. Debe llamarse en la misma transacción que actualiza el kilometraje
+     * @param kilometrajeAnterior kilometraje del vehículo antes de la lectura
+     */
+    @Transactional
+    public void registrarLectura(Long vehiculoId, long kilometrajeAnterior, long kilometrajeNuevo, LocalDateTime momento) {
+        byte[] bloque = CodificadorLecturas.codificar(
+                momento.toLocalTime().toSecondOfDay(), kilometrajeNuevo - kilometrajeAnterior);
+        lecturaRepository.registrarLectura(vehiculoId, momento.toLocalDate(), kilometrajeAnterior, kilometrajeNuevo, bloque);
+    }
+
+    /**
+     * Eliminar el historial de vehículos que se dan de baja por conjunto. Debe llamarse antes de eliminarlos
+     */
+    @Transactional
+    public void eliminarDeVehiculos(Collection<Long> vehiculoIds) {
+        lecturaRepository.eliminarPorVehiculoIds(vehiculoIds);
+    }
+
+    /**
+     * Kilómetros recorridos por un vehículo por día o semana
+     */
+    public List<UsoKilometrajeDTO> obtenerUsoPorVehiculo(Long vehiculoId, LocalDate desde, LocalDate hasta,
+                                                         String agrupacion) {
+        AgrupacionUso agrupacionUso = validar(desde, hasta, agrupacion);
+        if (!vehiculoRepository.existsById(vehiculoId)) {
+            throw new VehiculoNotFoundException("Vehículo con ID " + vehiculoId + " no encontrado");
+        }
+        return agrupar(lecturaRepository.usoDiarioPorVehiculo(vehiculoId, desde, hasta), agrupacionUso, false);
+    }
+
+    /**
+     * Kilómetros recorridos por toda la flota por día o semana
+     */
+    public List<UsoKilometrajeDTO> obtenerUsoFlota(LocalDate desde, LocalDate hasta, String agrupacion) {
+        AgrupacionUso agrupacionUso = validar(desde, hasta, agrupacion);
+        return agrupar(lecturaRepository.usoDiarioFlota(desde, hasta), agrupacionUso, true);
+    }
+
+    /**
+     * Lecturas individuales de un vehículo en un día, decodificadas del bloque diario
+     */
+    public List<LecturaKilometrajeDTO> obtenerLecturasDelDia(Long vehiculoId, LocalDate fecha) {
+        if (!vehiculoRepository.existsById(vehiculoId)) {
+            throw new VehiculoNotFoundException("Vehículo con ID " + vehiculoId + " no encontrado");
+        }
+        return lecturaRepository.findById(new LecturaKilometrajeDiariaId(vehiculoId, fecha))
+                .map(dia -> CodificadorLecturas.decodificar(dia.getLecturas(), dia.getKmAnterior()).stream()
+                        .map(lectura -> LecturaKilometrajeDTO.builder()
+                                .fechaHora(fecha.atStartOfDay().plusSeconds(lectura.segundoDelDia()))
+                                .kilometraje(lectura.kilometraje())
+                                .build())
+                        .toList())
+                .orElse(List.of());
+    }
+
+    private AgrupacionUso validar(LocalDate desde, LocalDate hasta, String agrupacion) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException("El rango consultado no puede superar " + MAXIMO_DIAS_CONSULTA + " días");
+        }
+        try {
+            return AgrupacionUso.valueOf(agrupacion.toUpperCase().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Agrupación inválida: '" + agrupacion +
+                    "'. Valores permitidos: " + String.join(", ", AgrupacionUso.getValoresPermitidos()));
+        }
+    }
+
+    /**
+     * Los días llegan ordenados; en la agrupación semanal se acumulan por lunes de la semana
+     */
+    static List<UsoKilometrajeDTO> agrupar(List<UsoDiarioKilometraje> dias, AgrupacionUso agrupacion, boolean flota) {
+        Map<LocalDate, UsoKilometrajeDTO> periodos = new LinkedHashMap<>();
+        for (UsoDiarioKilometraje dia : dias) {
+            LocalDate periodo = agrupacion == AgrupacionUso.SEMANA
+                    ? dia.getFecha().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : dia.getFecha();
+            UsoKilometrajeDTO uso = periodos.computeIfAbsent(periodo, p -> UsoKilometrajeDTO.builder()
+                    .periodo(p)
+                    .kilometros(0L)
+                    .lecturas(0L)
+                    .vehiculosActivos(flota ? 0L : null)
+                    .build());
+            uso.setKilometros(uso.getKilometros() + dia.getKilometros());
+            uso.setLecturas(uso.getLecturas() + dia.getLecturas());
+            if (flota) {
+                uso.setVehiculosActivos(Math.max(uso.getVehiculosActivos(), dia.getVehiculos()));
+            }
+        }
+        return new ArrayList<>(periodos.values());
+    }
+}
@@ -0,0 +1,160 @@
+package com.kavak.flota.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kavak.flota.config.IdempotenciaProperties;
+import com.kavak.flota.entity.RegistroIdempotencia;
+import com.kavak.flota.exception.IdempotenciaClaveReutilizadaException;
+import com.kavak.flota.exception.IdempotenciaEnCursoException;
+import com.kavak.flota.repository.RegistroIdempotenciaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Almacén de respuestas por Idempotency-Key.
+ * Las claves se guardan en una caché acotada y con vencimiento; una petición concurrente con la misma
+ * clave espera a la ejecución en curso en lugar de ejecutar de nuevo, y los reintentos posteriores
+ * reproducen la respuesta original con una búsqueda en memoria.
+ * Cada clave queda asociada a la huella del cuerpo de la petición original; un reintento con otra huella
+ * no es un reintento sino otra petición, y se rechaza.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    private final IdempotenciaProperties properties;
+    private final RegistroIdempotenciaRepository registroRepository;
+    private final Cache<String, Ejecucion> respuestas;
+
+    public IdempotenciaService(IdempotenciaProperties properties, RegistroIdempotenciaRepository registroRepository) {
+        this.properties = properties;
+        this.registroRepository = registroRepository;
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoEntradas())
+                .expireAfterWrite(properties.getVigencia())
+                .build();
+    }
+
+    /**
+     * Respuesta capturada de una ejecución. Solo se reproducen las que no son errores de servidor.
+     */
+    public record RespuestaIdempotente(int status, String contentType, byte[] cuerpo) {
+        public boolean esAlmacenable() {
+            return status < 500;
+        }
+    }
+
+    /**
+     * @param respuesta respuesta a devolver
+     * @param reproducida true si no se ejecutó la petición y se devuelve la respuesta de otra ejecución
+     */
+    public record Resultado(RespuestaIdempotente respuesta, boolean reproducida) {
+    }
+
+    /**
+     * Ejecución (en curso o terminada) de una clave, con la huella del cuerpo que la originó
+     */
+    private record Ejecucion(String huella, CompletableFuture<RespuestaIdempotente> respuesta) {
+    }
+
+    /**
+     * Ejecuta la petición una única vez por clave y devuelve la respuesta original para los reintentos
+     * @param huella huella del cuerpo de la petición
+     * @throws IdempotenciaEnCursoException si la ejecución original no terminó dentro de la espera máxima
+     * @throws IdempotenciaClaveReutilizadaException si la clave ya se usó con otro cuerpo
+     */
+    public Resultado ejecutar(String clave, String huella, Supplier<RespuestaIdempotente> ejecucion) {
+        Ejecucion propia = new Ejecucion(huella, new CompletableFuture<>());
+        Ejecucion existente = respuestas.asMap().putIfAbsent(clave, propia);
+
+        if (existente != null) {
+            if (!existente.huella().equals(huella)) {
+                throw new IdempotenciaClaveReutilizadaException();
+            }
+            return new Resultado(esperar(existente.respuesta()), true);
+        }
+
+        try {
+            RegistroIdempotencia persistido = buscarPersistido(clave);
+            if (persistido != null) {
+                if (persistido.getHuellaCuerpo() != null && !persistido.getHuellaCuerpo().equals(huella)) {
+                    throw new IdempotenciaClaveReutilizadaException();
+                }
+                RespuestaIdempotente respuesta = new RespuestaIdempotente(
+                        persistido.getStatus(), persistido.getContentType(), persistido.getCuerpo());
+                propia.respuesta().complete(respuesta);
+                return new Resultado(respuesta, true);
+            }
+
+            RespuestaIdempotente respuesta = ejecucion.get();
+            if (respuesta.esAlmacenable()) {
+                persistir(clave, huella, respuesta);
+            } else {
+                respuestas.asMap().remove(clave, propia);
+            }
+            propia.respuesta().complete(respuesta);
+            return new Resultado(respuesta, false);
+        } catch (RuntimeException | Error e) {
+            respuestas.asMap().remove(clave, propia);
+            propia.respuesta().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private RegistroIdempotencia buscarPersistido(String clave) {
+        if (!properties.isPersistente()) {
+            return null;
+        }
+        return registroRepository.findById(clave).orElse(null);
+    }
+
+    private RespuestaIdempotente esperar(CompletableFuture<RespuestaIdempotente> enCurso) {
+        try {
+            return enCurso.get(properties.getEsperaMaxima().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotenciaEnCursoException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotenciaEnCursoException();
+        } catch (ExecutionException e) {
+            // La ejecución original falló sin respuesta; el reintento se informa como en curso para que repita
+            throw new IdempotenciaEnCursoException();
+        }
+    }
+
+    private void persistir(String clave, String huella, RespuestaIdempotente respuesta) {
+        if (!properties.isPersistente()) {
+            return;
+        }
+        try {
+            registroRepository.save(RegistroIdempotencia.builder()
+                    .clave(clave)
+                    .huellaCuerpo(huella)
+                    .status(respuesta.status())
+                    .contentType(respuesta.contentType())
+                    .cuerpo(respuesta.cuerpo())
+                    .build());
+        } catch (RuntimeException e) {
+            // La copia en memoria sigue siendo válida aunque falle la persistencia
+            log.warn("No se pudo persistir la respuesta idempotente de la clave {}", clave, e);
+        }
+    }
+
+    /**
+     * Elimina de la tabla los registros vencidos (solo en modo persistente)
+     */
+    @Scheduled(fixedDelayString = "${idempotencia.limpieza-ms:3600000}")
+    public void limpiarVencidos() {
+        if (properties.isPersistente()) {
+            registroRepository.eliminarAnterioresA(LocalDateTime.now().minus(properties.getVigencia()));
+        }
+    }
+}
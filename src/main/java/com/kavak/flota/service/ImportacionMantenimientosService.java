@@ -0,0 +1,357 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.dto.ResultadoImportacionDTO;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.FormatoExportacion;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.exception.ConflictoConcurrenciaException;
+import com.kavak.flota.util.LectorCsv;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de historial de mantenimientos desde CSV.
+ * El archivo se lee registro a registro, cada fila se valida y se envía al COPY de PostgreSQL sin pasar por
+ * entidades; al final se recalcula la disponibilidad de los vehículos afectados con un único UPDATE.
+ * Todo ocurre en una transacción: si algo falla no queda ninguna fila importada.
+ * Se respeta la regla de un solo mantenimiento activo por tipo y vehículo: las filas activas que la violan
+ * (contra la base o contra otra fila del mismo archivo) se rechazan como cualquier fila inválida.
+ *
+ * Columnas del CSV (con encabezado, en cualquier orden): patente, tipo_mantenimiento, estado, descripcion,
+ * kilometraje, costo_estimado y opcionalmente costo_final y fecha (ISO-8601, fecha o fecha y hora).
+ */
+@Slf4j
+@Service
+public class ImportacionMantenimientosService {
+
+    static final List<String> COLUMNAS_OBLIGATORIAS =
+            List.of("patente", "tipo_mantenimiento", "estado", "descripcion", "kilometraje", "costo_estimado");
+
+    private static final String COPY_MANTENIMIENTOS =
+            "COPY mantenimiento (vehiculo_id, tipo_mantenimiento, estado, descripcion, kilometraje_en_mantenimiento, " +
+            "costo_estimado, costo_final, fecha_creacion, fecha_actualizacion, version, fecha_en_proceso, fecha_finalizacion) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String RECALCULAR_DISPONIBILIDAD =
+            "UPDATE vehiculo v SET disponible = NOT a.activo, version = v.version + 1, fecha_actualizacion = now() " +
+            "FROM (SELECT x.id, EXISTS (SELECT 1 FROM mantenimiento m WHERE m.vehiculo_id = x.id " +
+            "      AND m.estado IN ('PENDIENTE', 'EN_PROCESO')) AS activo " +
+            "      FROM unnest(?) AS x(id)) a " +
+            "WHERE v.id = a.id AND v.disponible = a.activo";
+
+    private static final String TIPOS_ACTIVOS =
+            "SELECT vehiculo_id, tipo_mantenimiento FROM mantenimiento WHERE estado IN ('PENDIENTE', 'EN_PROCESO')";
+
+    private static final String BLOQUEAR_VEHICULOS =
+            "SELECT id FROM vehiculo WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private static final String ACTIVOS_DUPLICADOS =
+            "SELECT count(*) FROM (SELECT 1 FROM mantenimiento WHERE vehiculo_id = ANY(?) " +
+            "AND estado IN ('PENDIENTE', 'EN_PROCESO') GROUP BY vehiculo_id, tipo_mantenimiento HAVING count(*) > 1) d";
+
+    private static final String VERSIONAR_VEHICULOS =
+            "UPDATE vehiculo SET version = version + 1 WHERE id = ANY(?)";
+
+    private static final Set<String> TIPOS_VALIDOS = Set.copyOf(TipoMantenimiento.getValoresPermitidos());
+    private static final Set<String> ESTADOS_VALIDOS = Set.copyOf(Estado.getValoresPermitidos());
+
+    private static final int MAXIMO_ERRORES_INFORMADOS = 100;
+    private static final int TAMANIO_BUFFER_COPY = 256 * 1024;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ContadoresFlota contadoresFlota;
+
+    public ImportacionMantenimientosService(DataSource dataSource, TransactionTemplate transactionTemplate,
+                                            EntityManagerFactory entityManagerFactory, ContadoresFlota contadoresFlota) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.contadoresFlota = contadoresFlota;
+    }
+
+    /**
+     * Importar el CSV completo. Las filas inválidas se descartan y se informan en el resultado
+     * @throws IllegalArgumentException si el archivo no tiene las columnas obligatorias o está mal formado
+     */
+    public ResultadoImportacionDTO importar(InputStream csv) {
+        long inicio = System.nanoTime();
+        ResultadoImportacionDTO resultado = transactionTemplate.execute(status -> {
+            try (LectorCsv lector = new LectorCsv(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+                return importarEnTransaccion(lector);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Falló la carga del historial de mantenimientos", e);
+            }
+        });
+
+        // Disponibilidad y colecciones se modificaron por fuera de Hibernate: descartar lo cacheado recién confirmado
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Vehiculo.class);
+        sessionFactory.getCache().evictCollectionData(Vehiculo.class.getName() + ".mantenimientos");
+        sessionFactory.getCache().evictQueryRegions();
+        // La carga no publica CambioFlota por fila: los contadores del resumen se realinean con una sola consulta
+        contadoresFlota.reconciliar();
+
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        log.info("Importación de mantenimientos: {} filas importadas, {} rechazadas en {} ms",
+                resultado.getFilasImportadas(), resultado.getFilasRechazadas(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    private ResultadoImportacionDTO importarEnTransaccion(LectorCsv lector) throws IOException, SQLException {
+        String[] encabezado = lector.siguiente();
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        Map<String, Integer> indices = indicesPorColumna(encabezado);
+        Map<String, Long> vehiculos = vehiculoIdPorPatente();
+        Map<Long, Set<String>> tiposActivos = tiposActivosPorVehiculo();
+
+        Set<Long> vehiculosAfectados = new HashSet<>();
+        Set<Long> vehiculosConActivosImportados = new HashSet<>();
+        List<String> errores = new ArrayList<>();
+        long leidas = 0;
+        long rechazadas = 0;
+        LocalDateTime ahora = LocalDateTime.now();
+
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        long importadas;
+        try (PGCopyOutputStream copia = new PGCopyOutputStream(
+                conexion.unwrap(PGConnection.class), COPY_MANTENIMIENTOS, TAMANIO_BUFFER_COPY)) {
+            Writer destino = new BufferedWriter(new OutputStreamWriter(copia, StandardCharsets.UTF_8), TAMANIO_BUFFER_COPY);
+            EscritorFilas escritor = EscritorFilas.para(FormatoExportacion.CSV, destino, null);
+
+            String[] registro;
+            while ((registro = lector.siguiente()) != null) {
+                if (registro.length == 1 && registro[0].isBlank()) {
+                    continue;
+                }
+                leidas++;
+                try {
+                    Object[] fila = interpretar(registro, indices, vehiculos, ahora);
+                    if (reservarActivo(fila, tiposActivos)) {
+                        vehiculosConActivosImportados.add((Long) fila[0]);
+                    }
+                    escritor.fila(fila);
+                    vehiculosAfectados.add((Long) fila[0]);
+                } catch (IllegalArgumentException e) {
+                    rechazadas++;
+                    if (errores.size() < MAXIMO_ERRORES_INFORMADOS) {
+                        errores.add("Registro " + lector.getNumeroRegistro() + ": " + e.getMessage());
+                    }
+                }
+            }
+            destino.flush();
+            importadas = copia.endCopy();
+        }
+
+        if (!vehiculosConActivosImportados.isEmpty()) {
+            verificarActivosUnicos(conexion, vehiculosConActivosImportados);
+        }
+
+        int actualizados = vehiculosAfectados.isEmpty() ? 0 : recalcularDisponibilidad(conexion, vehiculosAfectados);
+        // Las demás instancias no ven estas escrituras por Hibernate: vacían su caché cuando confirme la transacción
+        InvalidacionCache.registrarTodo();
+
+        return ResultadoImportacionDTO.builder()
+                .filasLeidas(leidas)
+                .filasImportadas(importadas)
+                .filasRechazadas(rechazadas)
+                .vehiculosActualizados(actualizados)
+                .errores(errores)
+                .build();
+    }
+
+    /**
+     * Las altas por API que corrieron durante la carga no estaban en la foto inicial de activos. Se bloquean los
+     * vehículos que recibieron filas activas y se vuelve a verificar la regla con lo confirmado: si otra alta ganó,
+     * se aborta la importación. Subir la versión hace que las altas todavía en curso sobre esos vehículos fallen
+     * por concurrencia optimista y se reintenten viendo las filas importadas.
+     */
+    private void verificarActivosUnicos(Connection conexion, Set<Long> vehiculoIds) throws SQLException {
+        Array ids = conexion.createArrayOf("bigint", vehiculoIds.toArray());
+        try {
+            jdbcTemplate.queryForList(BLOQUEAR_VEHICULOS, Long.class, ids);
+            Long duplicados = jdbcTemplate.queryForObject(ACTIVOS_DUPLICADOS, Long.class, ids);
+            if (duplicados != null && duplicados > 0) {
+                throw new ConflictoConcurrenciaException("importar-mantenimientos", null);
+            }
+            jdbcTemplate.update(VERSIONAR_VEHICULOS, ids);
+        } finally {
+            ids.free();
+        }
+    }
+
+    /**
+     * Aplica la regla de un solo mantenimiento activo por tipo y vehículo a una fila ya interpretada,
+     * registrando su tipo como activo para las filas siguientes
+     * @return true si la fila es activa
+     * @throws IllegalArgumentException si el vehículo ya tiene un mantenimiento activo de ese tipo
+     */
+    static boolean reservarActivo(Object[] fila, Map<Long, Set<String>> tiposActivos) {
+        if (!Estado.valueOf((String) fila[2]).esActivo()) {
+            return false;
+        }
+        if (!tiposActivos.computeIfAbsent((Long) fila[0], id -> new HashSet<>()).add((String) fila[1])) {
+            throw new IllegalArgumentException("el vehículo ya tiene un mantenimiento activo de tipo '" + fila[1] + "'");
+        }
+        return true;
+    }
+
+    /**
+     * Recalcula disponible de los vehículos afectados en una sola sentencia; solo toca (y versiona) los que cambian
+     */
+    private int recalcularDisponibilidad(Connection conexion, Set<Long> vehiculoIds) throws SQLException {
+        Array ids = conexion.createArrayOf("bigint", vehiculoIds.toArray());
+        try {
+            return jdbcTemplate.update(RECALCULAR_DISPONIBILIDAD, ids);
+        } finally {
+            ids.free();
+        }
+    }
+
+    private Map<String, Long> vehiculoIdPorPatente() {
+        Map<String, Long> vehiculos = new HashMap<>();
+        jdbcTemplate.query("SELECT id, patente FROM vehiculo",
+                rs -> { vehiculos.put(rs.getString(2), rs.getLong(1)); });
+        return vehiculos;
+    }
+
+    private Map<Long, Set<String>> tiposActivosPorVehiculo() {
+        Map<Long, Set<String>> activos = new HashMap<>();
+        jdbcTemplate.query(TIPOS_ACTIVOS,
+                rs -> { activos.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2)); });
+        return activos;
+    }
+
+    static Map<String, Integer> indicesPorColumna(String[] encabezado) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < encabezado.length; i++) {
+            indices.put(encabezado[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> faltantes = COLUMNAS_OBLIGATORIAS.stream().filter(c -> !indices.containsKey(c)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas obligatorias en el encabezado: " + String.join(", ", faltantes));
+        }
+        return indices;
+    }
+
+    /**
+     * Valida un registro y lo convierte a los valores del COPY, en el orden de sus columnas
+     * @throws IllegalArgumentException con el motivo si el registro es inválido
+     */
+    static Object[] interpretar(String[] registro, Map<String, Integer> indices, Map<String, Long> vehiculos,
+                                LocalDateTime ahora) {
+        String patente = campo(registro, indices, "patente").toUpperCase(Locale.ROOT);
+        Long vehiculoId = vehiculos.get(patente);
+        if (vehiculoId == null) {
+            throw new IllegalArgumentException("no existe un vehículo con patente '" + patente + "'");
+        }
+
+        String tipo = campo(registro, indices, "tipo_mantenimiento").toUpperCase(Locale.ROOT);
+        if (!TIPOS_VALIDOS.contains(tipo)) {
+            throw new IllegalArgumentException("tipo de mantenimiento inválido '" + tipo + "'");
+        }
+
+        String estado = campo(registro, indices, "estado").toUpperCase(Locale.ROOT);
+        if (!ESTADOS_VALIDOS.contains(estado)) {
+            throw new IllegalArgumentException("estado inválido '" + estado + "'");
+        }
+
+        String descripcion = campo(registro, indices, "descripcion");
+        if (descripcion.isEmpty()) {
+            throw new IllegalArgumentException("la descripción es obligatoria");
+        }
+
+        long kilometraje = numeroEntero(campo(registro, indices, "kilometraje"), "kilometraje");
+        double costoEstimado = numeroDecimal(campo(registro, indices, "costo_estimado"), "costo_estimado");
+        String costoFinalTexto = campo(registro, indices, "costo_final");
+        Double costoFinal = costoFinalTexto.isEmpty() ? null : numeroDecimal(costoFinalTexto, "costo_final");
+        String fechaTexto = campo(registro, indices, "fecha");
+        LocalDateTime fecha = fechaTexto.isEmpty() ? ahora : fecha(fechaTexto);
+
+        // Del historial solo se conoce una fecha: se toma también como entrada al estado importado
+        Estado estadoImportado = Estado.valueOf(estado);
+        LocalDateTime fechaEnProceso = estadoImportado == Estado.EN_PROCESO ? fecha : null;
+        LocalDateTime fechaFinalizacion = estadoImportado.esTerminal() ? fecha : null;
+
+        return new Object[]{vehiculoId, tipo, estado, descripcion, kilometraje, costoEstimado, costoFinal,
+                fecha, fecha, 0, fechaEnProceso, fechaFinalizacion};
+    }
+
+    private static String campo(String[] registro, Map<String, Integer> indices, String columna) {
+        Integer indice = indices.get(columna);
+        if (indice == null || indice >= registro.length) {
+            return "";
+        }
+        return registro[indice].trim();
+    }
+
+    private static long numeroEntero(String valor, String columna) {
+        try {
+            long numero = Long.parseLong(valor);
+            if (numero < 0) {
+                throw new IllegalArgumentException(columna + " no puede ser negativo");
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número entero: '" + valor + "'");
+        }
+    }
+
+    private static double numeroDecimal(String valor, String columna) {
+        try {
+            double numero = Double.parseDouble(valor);
+            if (numero < 0 || !Double.isFinite(numero)) {
+                throw new IllegalArgumentException(columna + " debe ser un número no negativo");
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número: '" + valor + "'");
+        }
+    }
+
+    private static LocalDateTime fecha(String valor) {
+        try {
+            return valor.length() <= 10 ? LocalDate.parse(valor).atStartOfDay() : LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("fecha inválida '" + valor + "' (formato ISO-8601)");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.dto.InactividadDTO;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.enums.AgrupacionInactividad;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.exception.VehiculoNotFoundException;
+import com.kavak.flota.repository.InactividadAgregada;
+import com.kavak.flota.repository.InactividadDiariaRepository;
+import com.kavak.flota.repository.InactividadEnCurso;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.VehiculoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Tiempo fuera de servicio por mantenimiento.
+ * Al salir de un estado activo, el tiempo que el mantenimiento pasó en él se reparte por día y se suma al
+ * acumulado de inactividad_diaria en la misma transacción de la transición. Las consultas leen esos acumulados
+ * y solo calculan en el momento el tramo en curso de los mantenimientos todavía activos.
+ * Si un vehículo tiene varios mantenimientos activos a la vez, su tiempo se suma por cada uno.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class InactividadService {
+
+    static final int MAXIMO_DIAS_CONSULTA = 366;
+
+    private final InactividadDiariaRepository inactividadRepository;
+    private final MantenimientoRepository mantenimientoRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final ConsultaRegional consultaRegional;
+
+    /**
+     * Acumular el tiempo en el estado actual antes de que el mantenimiento lo abandone.
+     * Debe llamarse en la misma transacción que aplica la transición
+     */
+    @Transactional
+    public void registrarSalidaDeEstado(Mantenimiento mantenimiento, LocalDateTime momento) {
+        Estado estado = mantenimiento.getEstado();
+        if (!estado.esActivo()) {
+            return;
+        }
+        repartirPorDia(mantenimiento.getFechaEntradaEstado(), momento).forEach((fecha, segundos) ->
+                inactividadRepository.acumular(mantenimiento.getVehiculo().getId(), fecha,
+                        mantenimiento.getTipoMantenimiento().name(), estado.name(), segundos));
+    }
+
+    /**
+     * Eliminar los acumulados de vehículos que se dan de baja por conjunto. Debe llamarse antes de eliminarlos
+     */
+    @Transactional
+    public void eliminarDeVehiculos(Collection<Long> vehiculoIds) {
+        inactividadRepository.eliminarPorVehiculoIds(vehiculoIds);
+    }
+
+    /**
+     * Horas en PENDIENTE y EN_PROCESO en el rango, agrupadas por vehículo, tipo de mantenimiento o día.
+     * Por vehículo y por tipo se ordenan de mayor a menor tiempo total; por día, cronológicamente
+     * Sin vehiculoId la consulta abarca todas las regiones; cada una corre en su propia transacción
+     * @param vehiculoId opcional, para limitar la consulta a un vehículo (en su región)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<InactividadDTO> obtenerInactividad(LocalDate desde, LocalDate hasta, String agrupacion,
+                                                   Long vehiculoId) {
+        AgrupacionInactividad agrupacionInactividad = validar(desde, hasta, agrupacion);
+        if (vehiculoId != null && !vehiculoRepository.existsById(vehiculoId)) {
+            throw new VehiculoNotFoundException("Vehículo con ID " + vehiculoId + " no encontrado");
+        }
+
+        Supplier<List<InactividadAgregada>> consultaAcumulados = () -> switch (agrupacionInactividad) {
+            case VEHICULO -> inactividadRepository.sumarPorVehiculo(desde, hasta, vehiculoId);
+            case TIPO -> inactividadRepository.sumarPorTipo(desde, hasta, vehiculoId);
+            case DIA -> inactividadRepository.sumarPorDia(desde, hasta, vehiculoId);
+        };
+        List<InactividadAgregada> acumulados = vehiculoId != null
+                ? consultaAcumulados.get()
+                : consultaRegional.concatenarEnTodas(consultaAcumulados);
+
+        // Segundos por clave: [PENDIENTE, EN_PROCESO]
+        Map<String, long[]> segundos = new HashMap<>();
+        for (InactividadAgregada acumulado : acumulados) {
+            sumar(segundos, String.valueOf(acumulado.getClave()), acumulado.getEstado(), acumulado.getSegundos());
+        }
+
+        LocalDateTime limite = LocalDateTime.now();
+        if (limite.isAfter(hasta.plusDays(1).atStartOfDay())) {
+            limite = hasta.plusDays(1).atStartOfDay();
+        }
+        LocalDateTime limiteConsulta = limite;
+        Supplier<List<InactividadEnCurso>> consultaEnCurso = () -> mantenimientoRepository.findInactividadEnCurso(
+                Estado.getEstadosActivos(), limiteConsulta, vehiculoId);
+        List<InactividadEnCurso> enCursos = vehiculoId != null
+                ? consultaEnCurso.get()
+                : consultaRegional.concatenarEnTodas(consultaEnCurso);
+        for (InactividadEnCurso enCurso : enCursos) {
+            LocalDateTime entrada = enCurso.getEstado() == Estado.EN_PROCESO && enCurso.getFechaEnProceso() != null
+                    ? enCurso.getFechaEnProceso()
+                    : enCurso.getFechaCreacion();
+            for (Map.Entry<LocalDate, Long> dia : repartirPorDia(entrada, limite).entrySet()) {
+                if (dia.getKey().isBefore(desde)) {
+                    continue;
+                }
+                String clave = switch (agrupacionInactividad) {
+                    case VEHICULO -> String.valueOf(enCurso.getVehiculoId());
+                    case TIPO -> enCurso.getTipoMantenimiento().name();
+                    case DIA -> dia.getKey().toString();
+                };
+                sumar(segundos, clave, enCurso.getEstado(), dia.getValue());
+            }
+        }
+
+        Comparator<InactividadDTO> orden = agrupacionInactividad == AgrupacionInactividad.DIA
+                ? Comparator.comparing(InactividadDTO::getClave)
+                : Comparator.comparing(InactividadDTO::getHorasTotales).reversed();
+        return segundos.entrySet().stream()
+                .map(e -> InactividadDTO.builder()
+                        .clave(e.getKey())
+                        .horasPendiente(aHoras(e.getValue()[0]))
+                        .horasEnProceso(aHoras(e.getValue()[1]))
+                        .horasTotales(aHoras(e.getValue()[0] + e.getValue()[1]))
+                        .build())
+                .sorted(orden)
+                .toList();
+    }
+
+    /**
+     * Segundos del intervalo [desde, hasta) que caen en cada día calendario
+     */
+    static Map<LocalDate, Long> repartirPorDia(LocalDateTime desde, LocalDateTime hasta) {
+        Map<LocalDate, Long> porDia = new LinkedHashMap<>();
+        LocalDateTime inicio = desde;
+        while (inicio.isBefore(hasta)) {
+            LocalDateTime finDelDia = inicio.toLocalDate().plusDays(1).atStartOfDay();
+            LocalDateTime fin = finDelDia.isBefore(hasta) ? finDelDia : hasta;
+            long tramo = Duration.between(inicio, fin).toSeconds();
+            if (tramo > 0) {
+                porDia.put(inicio.toLocalDate(), tramo);
+            }
+            inicio = fin;
+        }
+        return porDia;
+    }
+
+    private static void sumar(Map<String, long[]> segundos, String clave, Estado estado, long valor) {
+        segundos.computeIfAbsent(clave, c -> new long[2])[estado == Estado.PENDIENTE ? 0 : 1] += valor;
+    }
+
+    private static Double aHoras(long segundos) {
+        return Math.round(segundos / 36.0) / 100.0;
+    }
+
+    private AgrupacionInactividad validar(LocalDate desde, LocalDate hasta, String agrupacion) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException("El rango consultado no puede superar " + MAXIMO_DIAS_CONSULTA + " días");
+        }
+        try {
+            return AgrupacionInactividad.valueOf(agrupacion.toUpperCase().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Agrupación inválida: '" + agrupacion +
+                    "'. Valores permitidos: " + String.join(", ", AgrupacionInactividad.getValoresPermitidos()));
+        }
+    }
+}
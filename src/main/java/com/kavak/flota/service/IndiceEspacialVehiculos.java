@@ -0,0 +1,142 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.config.IndiceEspacialProperties;
+import com.kavak.flota.dto.VehiculoCercanoDTO;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.repository.PosicionDisponible;
+import com.kavak.flota.repository.VehiculoRepository;
+import com.kavak.flota.util.GrillaEspacial;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los vehículos disponibles con posición conocida, de todas las regiones, para
+ * responder "los k disponibles más cercanos a un punto" sin consultar la base.
+ * Se carga al arrancar, se ajusta con cada UbicacionVehiculo después del commit y se reconstruye
+ * periódicamente, lo que incorpora las posiciones y cambios de disponibilidad registrados por otras
+ * instancias. Los cambios que llegan mientras se arma la grilla nueva se guardan y se vuelven a aplicar
+ * sobre ella antes de reemplazar la anterior, para que la consulta de la reconstrucción no los pise.
+ */
+@Slf4j
+@Service
+public class IndiceEspacialVehiculos {
+
+    private final VehiculoRepository vehiculoRepository;
+    private final ConsultaRegional consultaRegional;
+    private final IndiceEspacialProperties properties;
+
+    /**
+     * Patente como dato asociado, para responder sin ir a la base. Se reemplaza completa al reconstruir
+     */
+    private volatile GrillaEspacial<String> grilla;
+
+    /**
+     * Cambios aplicados durante una reconstrucción en curso; null si no hay ninguna.
+     * Los cambios toman el cerrojo de lectura (se aplican en paralelo) y el reemplazo de la grilla el de escritura,
+     * así ningún cambio queda entre la reaplicación y el reemplazo
+     */
+    private ConcurrentLinkedQueue<UbicacionVehiculo> cambiosDuranteReconstruccion;
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    public IndiceEspacialVehiculos(VehiculoRepository vehiculoRepository, ConsultaRegional consultaRegional,
+                                   IndiceEspacialProperties properties) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.consultaRegional = consultaRegional;
+        this.properties = properties;
+        this.grilla = new GrillaEspacial<>(properties.getTamanoCelda());
+    }
+
+    /**
+     * Aplicar un cambio confirmado. Si la transacción se revierte el cambio nunca llega
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aplicar(UbicacionVehiculo ubicacion) {
+        cerrojo.readLock().lock();
+        try {
+            aplicarEn(grilla, ubicacion);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.add(ubicacion);
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    private static void aplicarEn(GrillaEspacial<String> destino, UbicacionVehiculo ubicacion) {
+        if (ubicacion.indexable()) {
+            destino.ubicar(ubicacion.vehiculoId(), ubicacion.latitud(), ubicacion.longitud(), ubicacion.patente());
+        } else {
+            destino.quitar(ubicacion.vehiculoId());
+        }
+    }
+
+    /**
+     * Los vehículos disponibles más cercanos al punto, del más cercano al más lejano
+     * @param radioKm null para el radio máximo configurado
+     */
+    public List<VehiculoCercanoDTO> cercanos(double latitud, double longitud, int cantidad, Double radioKm) {
+        double radio = radioKm == null ? properties.getRadioMaximoKm()
+                : Math.min(radioKm, properties.getRadioMaximoKm());
+        return grilla.cercanos(latitud, longitud, cantidad, radio).stream()
+                .map(vecino -> VehiculoCercanoDTO.builder()
+                        .vehiculoId(vecino.id())
+                        .patente(vecino.dato())
+                        .latitud(vecino.latitud())
+                        .longitud(vecino.longitud())
+                        .distanciaKm(vecino.distanciaKm())
+                        .build())
+                .toList();
+    }
+
+    public int cantidad() {
+        return grilla.cantidad();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${indice-espacial.recarga-ms:30000}",
+               initialDelayString = "${indice-espacial.recarga-ms:30000}")
+    public void reconstruir() {
+        ConcurrentLinkedQueue<UbicacionVehiculo> cambios = new ConcurrentLinkedQueue<>();
+        cerrojo.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = cambios;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+        try {
+            List<PosicionDisponible> posiciones = ContextoCargaTrabajo.ejecutarCon(ClaseCarga.ANALITICA,
+                    () -> consultaRegional.concatenarEnTodas(vehiculoRepository::findPosicionesDisponibles));
+            GrillaEspacial<String> nueva = new GrillaEspacial<>(properties.getTamanoCelda());
+            for (PosicionDisponible posicion : posiciones) {
+                nueva.ubicar(posicion.getId(), posicion.getLatitud(), posicion.getLongitud(), posicion.getPatente());
+            }
+            cerrojo.writeLock().lock();
+            try {
+                // La consulta pudo leer un estado anterior a estos cambios ya confirmados
+                cambios.forEach(ubicacion -> aplicarEn(nueva, ubicacion));
+                grilla = nueva;
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+            log.debug("Índice espacial reconstruido con {} vehículos disponibles ({} cambios reaplicados)",
+                    nueva.cantidad(), cambios.size());
+        } finally {
+            cerrojo.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        }
+    }
+}
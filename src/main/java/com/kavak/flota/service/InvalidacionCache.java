@@ -0,0 +1,265 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.InvalidacionCacheProperties;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.Vehiculo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coherencia de la caché de segundo nivel entre instancias.
+ * Cada transacción de escritura junta las claves de las entidades que modificó (InvalidacionCacheListener) y,
+ * justo antes del commit, las publica con pg_notify en su misma conexión: PostgreSQL entrega la notificación
+ * solo si la transacción confirma, y después del commit. Las demás instancias la reciben por
+ * SuscriptorInvalidacionCache y descartan esas claves de su caché local.
+ *
+ * Claves: V{id} vehículo, M{id} mantenimiento, C{id} colección de mantenimientos de un vehículo,
+ * Q regiones de consultas y * toda la caché.
+ */
+@Slf4j
+@Component
+public class InvalidacionCache {
+
+    public static final String TODO = "*";
+    public static final String CONSULTAS = "Q";
+
+    /**
+     * pg_notify admite hasta 8000 bytes por mensaje (las claves son ASCII); una transacción con más claves
+     * se parte en varios
+     */
+    static final int MAXIMO_BYTES_MENSAJE = 7900;
+
+    /**
+     * Por encima de esta cantidad de mensajes es más barato vaciar la caché en las demás instancias
+     */
+    static final int MAXIMO_MENSAJES = 16;
+
+    private static final String COLECCION_MANTENIMIENTOS = Vehiculo.class.getName() + ".mantenimientos";
+
+    private final InvalidacionCacheProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String origen = UUID.randomUUID().toString();
+    private final Counter recibidas;
+    private final Counter vaciados;
+
+    public InvalidacionCache(InvalidacionCacheProperties properties, EntityManagerFactory entityManagerFactory,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.recibidas = Counter.builder("flota.cache.invalidaciones")
+                .description("Mensajes de invalidación recibidos de otras instancias")
+                .register(meterRegistry);
+        this.vaciados = Counter.builder("flota.cache.vaciados")
+                .description("Vaciados completos de la caché (reconexiones o mensajes demasiado grandes)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identificador de esta instancia, primer elemento de cada mensaje que publica
+     */
+    String origen() {
+        return origen;
+    }
+
+    public static String claveVehiculo(Long id) {
+        return "V" + id;
+    }
+
+    public static String claveMantenimiento(Long id) {
+        return "M" + id;
+    }
+
+    public static String claveMantenimientosDeVehiculo(Long vehiculoId) {
+        return "C" + vehiculoId;
+    }
+
+    /**
+     * Agrega claves a invalidar en las demás instancias cuando confirme la transacción actual.
+     * Fuera de una transacción no hay nada que publicar y se ignora.
+     */
+    public static void registrar(String... claves) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pendientes = (Set<String>) TransactionSynchronizationManager.getResource(InvalidacionCache.class);
+        if (pendientes == null) {
+            Set<String> nuevas = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(InvalidacionCache.class, nuevas);
+            TransactionSynchronizationManager.registerSynchronization(new ClavesPendientes(nuevas));
+            pendientes = nuevas;
+        }
+        pendientes.addAll(List.of(claves));
+    }
+
+    /**
+     * Vaciar la caché de todas las instancias cuando confirme la transacción actual
+     * (escrituras por fuera de Hibernate, como la importación con COPY)
+     */
+    public static void registrarTodo() {
+        registrar(TODO);
+    }
+
+    /**
+     * Publica las claves pendientes de la transacción actual. Se llama antes del commit, después de
+     * sincronizar el contexto de persistencia para que todas las escrituras hayan registrado sus claves.
+     */
+    public void publicarPendientes(EntityManager entityManager) {
+        if (!properties.isHabilitado()) {
+            return;
+        }
+        entityManager.flush();
+        @SuppressWarnings("unchecked")
+        Set<String> pendientes = (Set<String>) TransactionSynchronizationManager.getResource(InvalidacionCache.class);
+        if (pendientes == null || pendientes.isEmpty()) {
+            return;
+        }
+        List<String> mensajes = mensajes(origen, pendientes);
+        entityManager.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement notificar = conexion.prepareStatement("SELECT pg_notify(?, ?)")) {
+                for (String mensaje : mensajes) {
+                    notificar.setString(1, properties.getCanal());
+                    notificar.setString(2, mensaje);
+                    notificar.execute();
+                }
+            }
+        });
+        pendientes.clear();
+    }
+
+    /**
+     * Arma los mensajes "origen clave clave ..." respetando el tamaño máximo de pg_notify
+     */
+    static List<String> mensajes(String origen, Collection<String> claves) {
+        if (claves.contains(TODO)) {
+            return List.of(origen + " " + TODO);
+        }
+        List<String> mensajes = new ArrayList<>();
+        StringBuilder actual = new StringBuilder(origen);
+        for (String clave : claves) {
+            if (actual.length() + 1 + clave.length() > MAXIMO_BYTES_MENSAJE) {
+                mensajes.add(actual.toString());
+                if (mensajes.size() == MAXIMO_MENSAJES) {
+                    return List.of(origen + " " + TODO);
+                }
+                actual = new StringBuilder(origen);
+            }
+            actual.append(' ').append(clave);
+        }
+        mensajes.add(actual.toString());
+        return mensajes;
+    }
+
+    /**
+     * Aplica un mensaje recibido por el canal. Los mensajes publicados por esta misma instancia se ignoran:
+     * Hibernate ya actualizó su caché local en el commit.
+     */
+    public void aplicar(String mensaje) {
+        String[] partes = mensaje.split(" ");
+        if (origen.equals(partes[0])) {
+            return;
+        }
+        recibidas.increment();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (int i = 1; i < partes.length; i++) {
+            if (partes[i].equals(TODO)) {
+                vaciarTodo();
+                return;
+            }
+            desalojarLocal(cache, partes[i]);
+        }
+    }
+
+    /**
+     * Desalojo puntual tras una escritura nativa, que Hibernate no refleja en la caché. Las claves se descartan
+     * de la caché local ahora y otra vez al terminar la transacción (una lectura concurrente pudo volver a
+     * cachear el valor anterior), y se publican a las demás instancias como las de cualquier escritura
+     */
+    public void desalojar(String... claves) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (String clave : claves) {
+            desalojarLocal(cache, clave);
+        }
+        registrar(claves);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (String clave : claves) {
+                        desalojarLocal(cache, clave);
+                    }
+                }
+            });
+        }
+    }
+
+    private void desalojarLocal(Cache cache, String clave) {
+        if (clave.equals(TODO)) {
+            cache.evictAllRegions();
+            return;
+        }
+        if (clave.equals(CONSULTAS)) {
+            cache.evictQueryRegions();
+            return;
+        }
+        try {
+            Long id = Long.valueOf(clave.substring(1));
+            switch (clave.charAt(0)) {
+                case 'V' -> cache.evictEntityData(Vehiculo.class, id);
+                case 'M' -> cache.evictEntityData(Mantenimiento.class, id);
+                case 'C' -> cache.evictCollectionData(COLECCION_MANTENIMIENTOS, id);
+                default -> log.warn("Clave de invalidación desconocida: {}", clave);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Clave de invalidación mal formada: {}", clave);
+        }
+    }
+
+    /**
+     * Descarta toda la caché local. Se usa al (re)conectar la escucha, porque mientras no hubo conexión
+     * pudieron perderse notificaciones
+     */
+    public void vaciarTodo() {
+        vaciados.increment();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    /**
+     * Libera el conjunto de claves de la transacción al terminar, y lo aparta mientras la transacción está
+     * suspendida por una REQUIRES_NEW (que junta y publica sus propias claves)
+     */
+    private record ClavesPendientes(Set<String> claves) implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidacionCache.class);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(InvalidacionCache.class, claves);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidacionCache.class);
+        }
+    }
+}
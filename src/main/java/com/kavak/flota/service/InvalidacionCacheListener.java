@@ -0,0 +1,56 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.Vehiculo;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Registra en la transacción actual las claves de caché que cada escritura de vehículos y mantenimientos
+ * deja obsoletas en las demás instancias (ver InvalidacionCache)
+ */
+public class InvalidacionCacheListener {
+
+    @PostPersist
+    public void despuesDeInsertar(Object entidad) {
+        if (entidad instanceof Vehiculo vehiculo) {
+            // Una búsqueda por patente pudo quedar cacheada sin resultado
+            InvalidacionCache.registrar(InvalidacionCache.claveVehiculo(vehiculo.getId()), InvalidacionCache.CONSULTAS);
+        } else if (entidad instanceof Mantenimiento mantenimiento) {
+            registrarMantenimiento(mantenimiento, true);
+        }
+    }
+
+    @PostUpdate
+    public void despuesDeActualizar(Object entidad) {
+        if (entidad instanceof Vehiculo vehiculo) {
+            InvalidacionCache.registrar(InvalidacionCache.claveVehiculo(vehiculo.getId()));
+        } else if (entidad instanceof Mantenimiento mantenimiento) {
+            registrarMantenimiento(mantenimiento, false);
+        }
+    }
+
+    @PostRemove
+    public void despuesDeEliminar(Object entidad) {
+        if (entidad instanceof Vehiculo vehiculo) {
+            InvalidacionCache.registrar(InvalidacionCache.claveVehiculo(vehiculo.getId()),
+                    InvalidacionCache.claveMantenimientosDeVehiculo(vehiculo.getId()), InvalidacionCache.CONSULTAS);
+        } else if (entidad instanceof Mantenimiento mantenimiento) {
+            registrarMantenimiento(mantenimiento, true);
+        }
+    }
+
+    /**
+     * Una actualización no cambia la colección de mantenimientos del vehículo (guarda solo ids); un alta o baja sí
+     */
+    private void registrarMantenimiento(Mantenimiento mantenimiento, boolean cambiaColeccion) {
+        String clave = InvalidacionCache.claveMantenimiento(mantenimiento.getId());
+        if (cambiaColeccion && mantenimiento.getVehiculo() != null) {
+            InvalidacionCache.registrar(clave,
+                    InvalidacionCache.claveMantenimientosDeVehiculo(mantenimiento.getVehiculo().getId()));
+        } else {
+            InvalidacionCache.registrar(clave);
+        }
+    }
+}
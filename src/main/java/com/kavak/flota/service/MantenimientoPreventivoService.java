@@ -0,0 +1,134 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.MantenimientoPreventivoProperties;
+import com.kavak.flota.config.MantenimientoPreventivoProperties.Regla;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.VehiculoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Planificador de mantenimientos preventivos por kilometraje.
+ * Evalúa de forma incremental solo los vehículos cuyo kilometraje cambió desde la última corrida,
+ * repartidos en lotes que se procesan en paralelo, cada uno en su propia transacción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mantenimiento.preventivo", name = "habilitado", havingValue = "true")
+public class MantenimientoPreventivoService {
+
+    private final VehiculoRepository vehiculoRepository;
+    private final MantenimientoRepository mantenimientoRepository;
+    private final MantenimientoService mantenimientoService;
+    private final MantenimientoPreventivoProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService ejecutorMantenimientoPreventivo;
+    private final ShardingProperties shardingProperties;
+    private final InvalidacionCache invalidacionCache;
+
+    /**
+     * Evaluar los vehículos con kilometraje pendiente de evaluación
+     * @return cantidad de mantenimientos preventivos creados
+     */
+    @Scheduled(fixedDelayString = "${mantenimiento.preventivo.intervalo-ms:300000}")
+    public int evaluarPendientes() {
+        int creados = 0;
+        for (String region : shardingProperties.nombresRegiones()) {
+            creados += ContextoRegion.ejecutarEn(region, () -> evaluarPendientesDeRegion(region));
+        }
+        return creados;
+    }
+
+    /**
+     * Los lotes corren en otros hilos: cada tarea fija la región para tomar conexiones de su shard
+     */
+    private int evaluarPendientesDeRegion(String region) {
+        List<Long> pendientes = vehiculoRepository.findIdsConKilometrajePendienteEvaluacion();
+        if (pendientes.isEmpty() || properties.getReglas().isEmpty()) {
+            return 0;
+        }
+
+        List<Future<Integer>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < pendientes.size(); desde += properties.getTamanioLote()) {
+            List<Long> lote = pendientes.subList(desde, Math.min(desde + properties.getTamanioLote(), pendientes.size()));
+            Callable<Integer> tarea = () -> ContextoRegion.ejecutarEn(region,
+                    () -> transactionTemplate.execute(status -> evaluarLote(lote)));
+            lotes.add(ejecutorMantenimientoPreventivo.submit(tarea));
+        }
+
+        int creados = 0;
+        for (Future<Integer> lote : lotes) {
+            try {
+                creados += lote.get();
+            } catch (ExecutionException e) {
+                // El lote fallido conserva la marca pendiente y se reintenta en la próxima corrida
+                log.warn("Falló la evaluación preventiva de un lote de vehículos", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        log.info("Evaluación preventiva ({}): {} vehículos evaluados, {} mantenimientos creados",
+                region, pendientes.size(), creados);
+        return creados;
+    }
+
+    private int evaluarLote(List<Long> vehiculoIds) {
+        int creados = 0;
+        for (Vehiculo vehiculo : vehiculoRepository.findAllById(vehiculoIds)) {
+            creados += evaluarVehiculo(vehiculo);
+            // Condicional: si entró una lectura de kilometraje mientras tanto, el vehículo queda pendiente
+            if (vehiculoRepository.marcarKilometrajeEvaluado(vehiculo.getId(), vehiculo.getKilometraje()) > 0) {
+                invalidacionCache.desalojar(InvalidacionCache.claveVehiculo(vehiculo.getId()));
+            }
+        }
+        return creados;
+    }
+
+    /**
+     * Crear los mantenimientos preventivos cuyo umbral de kilometraje fue superado
+     * respecto del último mantenimiento del mismo tipo
+     */
+    int evaluarVehiculo(Vehiculo vehiculo) {
+        Map<TipoMantenimiento, Long> ultimoKilometraje = new EnumMap<>(TipoMantenimiento.class);
+        for (Object[] fila : mantenimientoRepository.findUltimoKilometrajePorTipo(vehiculo.getId())) {
+            ultimoKilometraje.put((TipoMantenimiento) fila[0], (Long) fila[1]);
+        }
+
+        int creados = 0;
+        for (Map.Entry<TipoMantenimiento, Regla> entrada : properties.getReglas().entrySet()) {
+            TipoMantenimiento tipo = entrada.getKey();
+            Regla regla = entrada.getValue();
+            long recorridos = vehiculo.getKilometraje() - ultimoKilometraje.getOrDefault(tipo, 0L);
+
+            if (regla.getIntervaloKm() > 0 && recorridos >= regla.getIntervaloKm()) {
+                String descripcion = "Mantenimiento preventivo " + tipo + " por superar " +
+                        regla.getIntervaloKm() + " km desde el último registro";
+                if (mantenimientoService.crearMantenimientoPreventivo(
+                        vehiculo, tipo, descripcion, regla.getCostoEstimado()).isPresent()) {
+                    creados++;
+                }
+            }
+        }
+        return creados;
+    }
+}
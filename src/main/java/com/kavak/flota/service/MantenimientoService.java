@@ -1,5 +1,7 @@
 package com.kavak.flota.service;
 
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
 import com.kavak.flota.dto.CostoTotalMantenimientosDTO;
 import com.kavak.flota.dto.MantenimientoDTO;
 import com.kavak.flota.dto.TransicionEstadoResponseDTO;
@@ -9,13 +11,29 @@ import com.kavak.flota.enums.Estado;
 import com.kavak.flota.enums.TipoMantenimiento;
 import com.kavak.flota.exception.*;
 import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.ConsultaCampos;
 import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.MantenimientoSpecifications;
+import com.kavak.flota.repository.ResumenCostoMantenimientos;
 import com.kavak.flota.repository.VehiculoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,11 +45,27 @@ public class MantenimientoService {
     private final VehiculoRepository vehiculoRepository;
     private final Mapper mapper;
     private final TransicionEstadoService transicionEstadoService;
+    private final RecorridoStreaming recorridoStreaming;
+    private final ReintentoOptimista reintentoOptimista;
+    private final EntityManager entityManager;
+    private final InactividadService inactividadService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TallerService tallerService;
+    private final ShardingProperties shardingProperties;
+    private final ConsultaCampos consultaCampos;
 
     /**
-     * Crear un nuevo mantenimiento para un vehículo
+     * Columnas que se pueden pedir con fields=
      */
-    @Transactional
+    public static final List<String> CAMPOS_SELECCIONABLES = List.of("id", "tipoMantenimiento", "descripcion",
+            "estado", "kilometrajeEnMantenimiento", "costoEstimado", "costoFinal", "fechaCreacion",
+            "fechaActualizacion", "fechaEnProceso", "fechaFinalizacion");
+
+    /**
+     * Crear un nuevo mantenimiento para un vehículo.
+     * Cada intento corre en su propia transacción (ver ReintentoOptimista), por eso no se une a una externa.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MantenimientoDTO crearMantenimiento(Long idVehiculo, MantenimientoDTO mantenimientoDTO) {
 
         // Validar que el tipo de mantenimiento sea válido
@@ -44,32 +78,67 @@ public class MantenimientoService {
                             "'. Valores permitidos: " + String.join(", ", TipoMantenimiento.getValoresPermitidos()));
         }
 
-        Vehiculo vehiculo = vehiculoRepository.findById(idVehiculo)
-                .orElseThrow(() -> new VehiculoNotFoundException(
-                        "Vehículo con ID " + idVehiculo + " no encontrado"));
+        return reintentoOptimista.ejecutar("crear-mantenimiento", () -> {
+            Vehiculo vehiculo = vehiculoRepository.findById(idVehiculo)
+                    .orElseThrow(() -> new VehiculoNotFoundException(
+                            "Vehículo con ID " + idVehiculo + " no encontrado"));
+            // Dos altas concurrentes sobre el mismo vehículo compiten por su versión: la regla de duplicados
+            // activos se vuelve a evaluar en el reintento con los datos confirmados por la otra
+            entityManager.lock(vehiculo, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
 
-        boolean existeMantenimientoActivo = vehiculo.getMantenimientos().stream()
-                .anyMatch(m -> m.getTipoMantenimiento().equals(tipoMantenimiento)
-                        && m.getEstado().esActivo());
+            if (existeMantenimientoActivoDelTipo(vehiculo, tipoMantenimiento)) {
+                throw new MantenimientoActivoDelTipoException(
+                        "El vehículo ya tiene un mantenimiento activo de tipo '" + tipoMantenimiento +
+                                "'. No se pueden crear múltiples mantenimientos del mismo tipo en estados activos.");
+            }
+
+            return registrarMantenimiento(vehiculo, tipoMantenimiento, mantenimientoDTO.getDescripcion(),
+                    mantenimientoDTO.getCostoEstimado(), mantenimientoDTO.getCostoFinal());
+        });
+    }
 
-        if (existeMantenimientoActivo) {
-            throw new MantenimientoActivoDelTipoException(
-                    "El vehículo ya tiene un mantenimiento activo de tipo '" + tipoMantenimiento +
-                            "'. No se pueden crear múltiples mantenimientos del mismo tipo en estados activos.");
+    /**
+     * Crear un mantenimiento preventivo generado por el sistema.
+     * Aplica la misma regla de duplicados activos que crearMantenimiento, pero en lugar de
+     * lanzar excepción devuelve vacío para que el planificador continúe con el resto de la flota.
+     */
+    @Transactional
+    public Optional<MantenimientoDTO> crearMantenimientoPreventivo(
+            Vehiculo vehiculo, TipoMantenimiento tipoMantenimiento, String descripcion, Double costoEstimado) {
+        if (existeMantenimientoActivoDelTipo(vehiculo, tipoMantenimiento)) {
+            return Optional.empty();
         }
+        return Optional.of(registrarMantenimiento(vehiculo, tipoMantenimiento, descripcion, costoEstimado, null));
+    }
+
+    private boolean existeMantenimientoActivoDelTipo(Vehiculo vehiculo, TipoMantenimiento tipoMantenimiento) {
+        return vehiculo.getMantenimientos().stream()
+                .anyMatch(m -> m.getTipoMantenimiento().equals(tipoMantenimiento)
+                        && m.getEstado().esActivo());
+    }
 
+    private MantenimientoDTO registrarMantenimiento(Vehiculo vehiculo, TipoMantenimiento tipoMantenimiento,
+                                                    String descripcion, Double costoEstimado, Double costoFinal) {
+        boolean disponibleAntes = vehiculo.getDisponible();
         vehiculo.setDisponible(false);
         Mantenimiento mantenimiento = Mantenimiento.builder()
                 .tipoMantenimiento(tipoMantenimiento)
-                .descripcion(mantenimientoDTO.getDescripcion())
+                .descripcion(descripcion)
                 .kilometrajeEnMantenimiento(vehiculo.getKilometraje())
                 .estado(Estado.PENDIENTE)
-                .costoEstimado(mantenimientoDTO.getCostoEstimado())
-                .costoFinal(mantenimientoDTO.getCostoFinal())
+                .costoEstimado(costoEstimado)
+                .costoFinal(costoFinal)
                 .vehiculo(vehiculo)
                 .build();
 
         Mantenimiento mantenimientoGuardado = mantenimientoRepository.save(mantenimiento);
+        // Mantener la colección sincronizada (también la región de caché de Vehiculo.mantenimientos)
+        vehiculo.getMantenimientos().add(mantenimientoGuardado);
+        eventPublisher.publishEvent(CambioFlota.mantenimiento(
+                tipoMantenimiento, null, Estado.PENDIENTE, disponibleAntes, false));
+        if (disponibleAntes) {
+            eventPublisher.publishEvent(UbicacionVehiculo.de(vehiculo));
+        }
 
         return mapper.mantenimientoToDTO(mantenimientoGuardado);
     }
@@ -97,6 +166,65 @@ public class MantenimientoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Mantenimientos de varios vehículos agrupados por vehículo, con una consulta IN por región
+     * (cada mantenimiento vive en el shard de su vehículo). Todos los ids pedidos tienen entrada, vacía si no hay
+     * @param soloActivos solo PENDIENTE y EN_PROCESO
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Long, List<MantenimientoDTO>> obtenerPorVehiculos(Collection<Long> vehiculoIds, boolean soloActivos) {
+        List<Estado> estados = soloActivos ? Estado.getEstadosActivos() : List.of(Estado.values());
+        Map<Long, List<MantenimientoDTO>> resultado = new LinkedHashMap<>();
+        vehiculoIds.forEach(id -> resultado.put(id, new ArrayList<>()));
+
+        Map<String, List<Long>> idsPorRegion = resultado.keySet().stream()
+                .collect(Collectors.groupingBy(shardingProperties::regionDeId, LinkedHashMap::new, Collectors.toList()));
+        idsPorRegion.forEach((region, ids) -> ContextoRegion.ejecutarEn(region,
+                        () -> mantenimientoRepository.findDeVehiculos(ids, estados))
+                .forEach(m -> resultado.get(m.getVehiculoId()).add(mapper.mantenimientoDeVehiculoToDTO(m))));
+        return resultado;
+    }
+
+    /**
+     * Recorrer los mantenimientos de un vehículo entregando cada DTO al consumidor
+     * sin armar la lista completa en memoria
+     */
+    @Transactional(readOnly = true)
+    public void recorrerPorVehiculoId(Long vehiculoId, Consumer<MantenimientoDTO> consumidor) {
+        recorridoStreaming.recorrer(
+                mantenimientoRepository.streamByVehiculoId(vehiculoId),
+                mapper::mantenimientoToDTO,
+                consumidor);
+    }
+
+    /**
+     * Recorrer los mantenimientos activos de un vehículo entregando cada DTO al consumidor
+     */
+    @Transactional(readOnly = true)
+    public void recorrerMantenimientosActivosPorVehiculo(Long vehiculoId, Consumer<MantenimientoDTO> consumidor) {
+        recorridoStreaming.recorrer(
+                mantenimientoRepository.streamMantenimientosActivosPorVehiculo(vehiculoId, Estado.getEstadosActivos()),
+                mapper::mantenimientoToDTO,
+                consumidor);
+    }
+
+    /**
+     * Recorrer solo las columnas pedidas (fields=) de los mantenimientos de un vehículo, fila por fila
+     * @param soloActivos solo PENDIENTE y EN_PROCESO
+     */
+    @Transactional(readOnly = true)
+    public void recorrerCamposPorVehiculoId(Long vehiculoId, boolean soloActivos, List<String> campos,
+                                            Consumer<Map<String, Object>> consumidor) {
+        Specification<Mantenimiento> filtro = MantenimientoSpecifications.deVehiculo(vehiculoId);
+        if (soloActivos) {
+            filtro = filtro.and(MantenimientoSpecifications.enEstados(Estado.getEstadosActivos()));
+        }
+        recorridoStreaming.recorrer(
+                consultaCampos.recorrer(Mantenimiento.class, campos, filtro),
+                Function.identity(),
+                consumidor);
+    }
+
     /**
      * Obtener un mantenimiento por ID
      */
@@ -109,9 +237,10 @@ public class MantenimientoService {
 
 
     /**
-     * Transicionar el estado de un mantenimiento validando las reglas
+     * Transicionar el estado de un mantenimiento validando las reglas.
+     * Ante un conflicto de versión se relee el mantenimiento y se vuelve a validar y aplicar la transición.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransicionEstadoResponseDTO transicionarEstado(Long id, String nuevoEstadoStr, Double costoFinal) {
 
         Estado nuevoEstado;
@@ -123,24 +252,46 @@ public class MantenimientoService {
                             "'. Valores permitidos: " + String.join(", ", Estado.getValoresPermitidos()));
         }
 
+        return reintentoOptimista.ejecutar("transicionar-estado",
+                () -> aplicarTransicion(id, nuevoEstado, nuevoEstadoStr, costoFinal));
+    }
+
+    private TransicionEstadoResponseDTO aplicarTransicion(Long id, Estado nuevoEstado, String nuevoEstadoStr,
+                                                          Double costoFinal) {
         Mantenimiento mantenimiento = mantenimientoRepository.findById(id)
                 .orElseThrow(() -> new MantenimientoNotFoundException(
                         "Mantenimiento con ID " + id + " no encontrado"));
 
-        String anteriorEstado = mantenimiento.getEstado().toString();
+        Estado estadoAnterior = mantenimiento.getEstado();
+        String anteriorEstado = estadoAnterior.toString();
 
         // Validar la transición usando el servicio especializado
         transicionEstadoService.validarTransicion(mantenimiento.getEstado(), nuevoEstado);
 
-        // Si la validación pasó, actualizar el estado
-        mantenimiento.setEstado(nuevoEstado);
+        // Si la validación pasó, acumular el tiempo en el estado que se abandona y actualizar el estado
+        LocalDateTime ahora = LocalDateTime.now();
+        inactividadService.registrarSalidaDeEstado(mantenimiento, ahora);
+        mantenimiento.cambiarEstado(nuevoEstado, ahora);
 
         if(nuevoEstado.equals(Estado.COMPLETADO)) {
             mantenimiento.setCostoFinal(costoFinal);
         }
+        if (nuevoEstado == Estado.CANCELADO) {
+            tallerService.liberarTurno(id);
+        }
 
-        mantenimiento.getVehiculo().actualizarDisponibilidad();
+        // La disponibilidad depende de todos los mantenimientos del vehículo: forzar su versión hace que dos
+        // transiciones concurrentes sobre el mismo vehículo no calculen disponible con datos desactualizados
+        Vehiculo vehiculo = mantenimiento.getVehiculo();
+        entityManager.lock(vehiculo, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        boolean disponibleAntes = vehiculo.getDisponible();
+        vehiculo.actualizarDisponibilidad();
         mantenimientoRepository.save(mantenimiento);
+        eventPublisher.publishEvent(CambioFlota.mantenimiento(mantenimiento.getTipoMantenimiento(),
+                estadoAnterior, nuevoEstado, disponibleAntes, vehiculo.getDisponible()));
+        if (disponibleAntes != vehiculo.getDisponible()) {
+            eventPublisher.publishEvent(UbicacionVehiculo.de(vehiculo));
+        }
 
         return TransicionEstadoResponseDTO.builder()
                 .mantenimientoId(id)
@@ -160,18 +311,14 @@ public class MantenimientoService {
                 .orElseThrow(() -> new VehiculoNotFoundException(
                         "Vehículo con ID " + vehiculoId + " no encontrado"));
 
-        List<Mantenimiento> mantenimientosCompletados =
-                mantenimientoRepository.findMantenimientosCompletadosPorVehiculo(vehiculoId, Estado.COMPLETADO);
-
-        Double costoTotal = mantenimientosCompletados.stream()
-                .mapToDouble(m -> m.getCostoFinal() != null ? m.getCostoFinal() : m.getCostoEstimado())
-                .sum();
+        ResumenCostoMantenimientos resumen =
+                mantenimientoRepository.resumirCostosPorVehiculo(vehiculoId, Estado.COMPLETADO);
 
         return CostoTotalMantenimientosDTO.builder()
                 .vehiculoId(vehiculoId)
                 .patente(vehiculo.getPatente())
-                .cantidadMantenimientos(mantenimientosCompletados.size())
-                .costoTotal(costoTotal)
+                .cantidadMantenimientos(resumen.getCantidad().intValue())
+                .costoTotal(resumen.getCostoTotal())
                 .build();
     }
 
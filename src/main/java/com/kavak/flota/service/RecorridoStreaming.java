@@ -0,0 +1,40 @@
+package com.kavak.flota.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Recorre un Stream de entidades mapeando cada una a su DTO y entregándolo al consumidor.
+ * Limpia el contexto de persistencia cada cierta cantidad de elementos para que
+ * la memoria usada no crezca con el tamaño del resultado.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecorridoStreaming {
+
+    static final int TAMANIO_LOTE = 500;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Debe invocarse dentro de una transacción abierta (el Stream depende del cursor JDBC)
+     */
+    public <E, D> void recorrer(Stream<E> entidades, Function<E, D> mapeo, Consumer<D> consumidor) {
+        try (entidades) {
+            Iterator<E> iterador = entidades.iterator();
+            int procesados = 0;
+            while (iterador.hasNext()) {
+                consumidor.accept(mapeo.apply(iterador.next()));
+                if (++procesados % TAMANIO_LOTE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
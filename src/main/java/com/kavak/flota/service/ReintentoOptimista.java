@@ -0,0 +1,71 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ReintentoOptimistaProperties;
+import com.kavak.flota.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación de escritura en su propia transacción y, si falla por un conflicto de versión,
+ * la repite completa (relectura incluida) con backoff exponencial y jitter.
+ * En el camino sin contención no agrega bloqueos ni esperas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReintentoOptimista {
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReintentoOptimistaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param operacion nombre de la operación, usado en métricas y mensajes
+     * @param tarea operación completa a ejecutar en una transacción nueva por intento
+     * @throws ConflictoConcurrenciaException si se agotan los intentos
+     */
+    public <T> T ejecutar(String operacion, Supplier<T> tarea) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> tarea.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("flota.concurrencia.conflictos",
+                        "operacion", operacion, "entidad", entidad(e)).increment();
+
+                if (intento >= properties.getMaximoIntentos()) {
+                    meterRegistry.counter("flota.concurrencia.reintentos.agotados", "operacion", operacion).increment();
+                    throw new ConflictoConcurrenciaException(operacion, e);
+                }
+                log.debug("Conflicto de versión en '{}' (intento {}), reintentando", operacion, intento);
+                esperar(operacion, intento, e);
+            }
+        }
+    }
+
+    private void esperar(String operacion, int intento, OptimisticLockingFailureException causa) {
+        long techo = Math.min(properties.getEsperaMaxima().toMillis(),
+                properties.getEsperaBase().toMillis() << Math.min(intento - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(techo + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException(operacion, causa);
+        }
+    }
+
+    private static String entidad(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objeto && objeto.getPersistentClassName() != null) {
+            String nombre = objeto.getPersistentClassName();
+            return nombre.substring(nombre.lastIndexOf('.') + 1);
+        }
+        return "desconocida";
+    }
+}
@@ -0,0 +1,138 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.CargaTrabajoRoutingDataSource;
+import com.kavak.flota.config.InvalidacionCacheProperties;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.enums.ClaseCarga;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escucha el canal de invalidación de caché (LISTEN) en cada región y aplica los mensajes de las demás
+ * instancias apenas llegan. Usa una conexión dedicada por región, fuera de los pools, porque queda
+ * ocupada mientras la aplicación vive.
+ * Si la conexión se pierde se reabre tras una espera y se vacía la caché local completa: las notificaciones
+ * emitidas mientras no había escucha no se reenvían.
+ */
+@Slf4j
+@Component
+public class SuscriptorInvalidacionCache {
+
+    private final InvalidacionCacheProperties properties;
+    private final ShardingProperties shardingProperties;
+    private final CargaTrabajoRoutingDataSource dataSource;
+    private final InvalidacionCache invalidacionCache;
+    private final List<Thread> escuchas = new ArrayList<>();
+    private volatile boolean activo;
+
+    public SuscriptorInvalidacionCache(InvalidacionCacheProperties properties, ShardingProperties shardingProperties,
+                                       CargaTrabajoRoutingDataSource dataSource, InvalidacionCache invalidacionCache) {
+        this.properties = properties;
+        this.shardingProperties = shardingProperties;
+        this.dataSource = dataSource;
+        this.invalidacionCache = invalidacionCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (!properties.isHabilitado() || activo) {
+            return;
+        }
+        activo = true;
+        for (String region : shardingProperties.nombresRegiones()) {
+            escuchas.add(Thread.ofPlatform()
+                    .name("invalidacion-cache-" + region.toLowerCase())
+                    .daemon(true)
+                    .start(() -> escuchar(region)));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        activo = false;
+        escuchas.forEach(Thread::interrupt);
+        escuchas.clear();
+    }
+
+    private void escuchar(String region) {
+        boolean reconexion = false;
+        while (activo) {
+            try (Connection conexion = abrirConexion(region)) {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("LISTEN " + properties.getCanal());
+                }
+                if (reconexion) {
+                    invalidacionCache.vaciarTodo();
+                    log.info("Escucha de invalidaciones de caché restablecida en la región {}", region);
+                }
+                reconexion = true;
+                recibir(conexion);
+            } catch (SQLException e) {
+                if (activo) {
+                    log.warn("Se perdió la escucha de invalidaciones de caché en la región {}: {}", region, e.getMessage());
+                }
+            }
+            if (!esperarReconexion()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bloquea hasta el intervalo de latido esperando notificaciones; sin notificaciones verifica la conexión,
+     * para detectar una caída sin esperar a la próxima escritura
+     */
+    private void recibir(Connection conexion) throws SQLException {
+        PGConnection pgConexion = conexion.unwrap(PGConnection.class);
+        int espera = (int) properties.getIntervaloLatido().toMillis();
+        while (activo) {
+            PGNotification[] notificaciones = pgConexion.getNotifications(espera);
+            if (notificaciones == null || notificaciones.length == 0) {
+                try (Statement latido = conexion.createStatement()) {
+                    latido.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notificacion : notificaciones) {
+                try {
+                    invalidacionCache.aplicar(notificacion.getParameter());
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo aplicar la invalidación '{}'", notificacion.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private Connection abrirConexion(String region) throws SQLException {
+        HikariDataSource pool = dataSource.pool(region, ClaseCarga.TRANSACCIONAL);
+        Connection conexion = DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+        conexion.setAutoCommit(true);
+        return conexion;
+    }
+
+    private boolean esperarReconexion() {
+        if (!activo) {
+            return false;
+        }
+        try {
+            Thread.sleep(properties.getEsperaReconexion());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
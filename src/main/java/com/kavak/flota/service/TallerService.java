@@ -0,0 +1,319 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.config.TallerProperties;
+import com.kavak.flota.dto.BahiaTallerDTO;
+import com.kavak.flota.dto.TurnoTallerDTO;
+import com.kavak.flota.entity.BahiaTaller;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.TurnoTaller;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.exception.ConflictoConcurrenciaException;
+import com.kavak.flota.exception.MantenimientoNotFoundException;
+import com.kavak.flota.exception.MantenimientoYaAgendadoException;
+import com.kavak.flota.exception.SinCapacidadTallerException;
+import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.BahiaTallerRepository;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.TurnoTallerRepository;
+import com.kavak.flota.util.AgendaIntervalos;
+import com.kavak.flota.util.HorarioTaller;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bahías de taller y asignación de turnos a mantenimientos PENDIENTE.
+ * Cada instancia mantiene en memoria, por región, la agenda de turnos vigentes de cada bahía activa
+ * (AgendaIntervalos) y busca allí el primer hueco donde entra la duración del tipo de mantenimiento,
+ * sin consultar la base. La base sigue siendo la fuente de verdad: una restricción de exclusión impide
+ * turnos superpuestos, así que si otra instancia tomó el mismo hueco se recarga la agenda y se reintenta.
+ */
+@Slf4j
+@Service
+public class TallerService {
+
+    private final BahiaTallerRepository bahiaRepository;
+    private final TurnoTallerRepository turnoRepository;
+    private final MantenimientoRepository mantenimientoRepository;
+    private final EntityManager entityManager;
+    private final Mapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardingProperties shardingProperties;
+    private final TallerProperties properties;
+    private final HorarioTaller horario;
+
+    /**
+     * Región → agenda de cada bahía activa, ordenadas por id (desempata a favor de la bahía más antigua).
+     * Cada mapa se sincroniza sobre sí mismo y se reemplaza completo al recargar
+     */
+    private final Map<String, Map<Long, AgendaIntervalos>> agendas = new ConcurrentHashMap<>();
+
+    public TallerService(BahiaTallerRepository bahiaRepository, TurnoTallerRepository turnoRepository,
+                         MantenimientoRepository mantenimientoRepository, EntityManager entityManager, Mapper mapper,
+                         TransactionTemplate transactionTemplate, ShardingProperties shardingProperties,
+                         TallerProperties properties) {
+        this.bahiaRepository = bahiaRepository;
+        this.turnoRepository = turnoRepository;
+        this.mantenimientoRepository = mantenimientoRepository;
+        this.entityManager = entityManager;
+        this.mapper = mapper;
+        this.transactionTemplate = transactionTemplate;
+        this.shardingProperties = shardingProperties;
+        this.properties = properties;
+        this.horario = new HorarioTaller(properties.getApertura(), properties.getCierre(),
+                properties.getGranularidad(), properties.getDiasCerrados());
+    }
+
+    /**
+     * Primer hueco encontrado para un turno
+     */
+    record Hueco(Long bahiaId, LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    /**
+     * Carga las agendas de todas las regiones al iniciar y las recarga periódicamente, para descartar
+     * turnos terminados e incorporar los que asignaron otras instancias
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${taller.recarga-ms:60000}", initialDelayString = "${taller.recarga-ms:60000}")
+    public void recargarAgendas() {
+        for (String region : shardingProperties.nombresRegiones()) {
+            ContextoRegion.ejecutarEn(region, () -> {
+                cargarRegion(region);
+                return null;
+            });
+        }
+    }
+
+    private Map<Long, AgendaIntervalos> cargarRegion(String region) {
+        Map<Long, AgendaIntervalos> porBahia = new TreeMap<>();
+        for (BahiaTaller bahia : bahiaRepository.findByActivaTrueOrderByIdAsc()) {
+            porBahia.put(bahia.getId(), new AgendaIntervalos());
+        }
+        for (TurnoTaller turno : turnoRepository.findVigentes(LocalDateTime.now())) {
+            AgendaIntervalos agenda = porBahia.get(turno.getBahia().getId());
+            if (agenda != null) {
+                agenda.ocupar(turno.getInicio(), turno.getFin());
+            }
+        }
+        agendas.put(region, porBahia);
+        return porBahia;
+    }
+
+    private Map<Long, AgendaIntervalos> agendaDeRegion(String region) {
+        Map<Long, AgendaIntervalos> porBahia = agendas.get(region);
+        return porBahia != null ? porBahia : cargarRegion(region);
+    }
+
+    /**
+     * Crear una bahía en la región actual
+     * @throws IllegalArgumentException si ya existe una bahía con ese nombre
+     */
+    @Transactional
+    public BahiaTallerDTO crearBahia(BahiaTallerDTO bahiaDTO) {
+        String nombre = bahiaDTO.getNombre().trim();
+        if (bahiaRepository.existsByNombreIgnoreCase(nombre)) {
+            throw new IllegalArgumentException("Ya existe una bahía con nombre '" + nombre + "'");
+        }
+        BahiaTaller bahia = bahiaRepository.save(BahiaTaller.builder()
+                .nombre(nombre)
+                .activa(bahiaDTO.getActiva() == null || bahiaDTO.getActiva())
+                .build());
+
+        if (bahia.getActiva()) {
+            String region = shardingProperties.regionActual();
+            Long bahiaId = bahia.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    Map<Long, AgendaIntervalos> porBahia = agendas.get(region);
+                    if (porBahia != null) {
+                        synchronized (porBahia) {
+                            porBahia.putIfAbsent(bahiaId, new AgendaIntervalos());
+                        }
+                    }
+                }
+            });
+        }
+        return mapper.bahiaToDto(bahia);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BahiaTallerDTO> listarBahias() {
+        return bahiaRepository.findAllByOrderByIdAsc().stream().map(mapper::bahiaToDto).toList();
+    }
+
+    /**
+     * Turnos de una bahía que se superponen con el período indicado
+     */
+    @Transactional(readOnly = true)
+    public List<TurnoTallerDTO> obtenerTurnos(Long bahiaId, LocalDateTime desde, LocalDateTime hasta) {
+        if (!hasta.isAfter(desde)) {
+            throw new IllegalArgumentException("El fin del período debe ser posterior al inicio");
+        }
+        return turnoRepository.findSuperpuestos(bahiaId, desde, hasta).stream().map(mapper::turnoToDto).toList();
+    }
+
+    /**
+     * Asigna al mantenimiento el primer turno libre, en cualquier bahía activa, donde entre la duración
+     * de su tipo dentro del horario del taller
+     * @param desde momento a partir del cual buscar; null o pasado equivale a ahora
+     * @throws MantenimientoNotFoundException si el mantenimiento no existe
+     * @throws IllegalArgumentException si el mantenimiento no está PENDIENTE
+     * @throws MantenimientoYaAgendadoException si ya tiene un turno
+     * @throws SinCapacidadTallerException si no hay hueco dentro del horizonte de búsqueda
+     */
+    public TurnoTallerDTO agendar(Long mantenimientoId, LocalDateTime desde) {
+        String region = shardingProperties.regionActual();
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> agendarEnTransaccion(region, mantenimientoId, desde));
+            } catch (DataIntegrityViolationException e) {
+                if (turnoRepository.existsByMantenimientoId(mantenimientoId)) {
+                    throw new MantenimientoYaAgendadoException(mantenimientoId);
+                }
+                // Otra instancia ocupó el hueco: la agenda local estaba desactualizada
+                log.debug("Turno superpuesto al agendar el mantenimiento {} (intento {})", mantenimientoId, intento);
+                cargarRegion(region);
+                if (intento >= properties.getMaximoIntentos()) {
+                    throw new ConflictoConcurrenciaException("agendarMantenimiento", e);
+                }
+            }
+        }
+    }
+
+    private TurnoTallerDTO agendarEnTransaccion(String region, Long mantenimientoId, LocalDateTime desde) {
+        Mantenimiento mantenimiento = mantenimientoRepository.findById(mantenimientoId)
+                .orElseThrow(() -> new MantenimientoNotFoundException(
+                        "Mantenimiento no encontrado con ID: " + mantenimientoId));
+        if (mantenimiento.getEstado() != Estado.PENDIENTE) {
+            throw new IllegalArgumentException("Solo se agendan mantenimientos PENDIENTE; el mantenimiento "
+                    + mantenimientoId + " está " + mantenimiento.getEstado());
+        }
+        if (turnoRepository.existsByMantenimientoId(mantenimientoId)) {
+            throw new MantenimientoYaAgendadoException(mantenimientoId);
+        }
+        // Si el mantenimiento cambia de estado (p. ej. se cancela) antes del commit, el turno no se confirma
+        entityManager.lock(mantenimiento, LockModeType.OPTIMISTIC);
+
+        Duration duracion = mantenimiento.getTipoMantenimiento().getDuracion();
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime inicioBusqueda = desde != null && desde.isAfter(ahora) ? desde : ahora;
+
+        Map<Long, AgendaIntervalos> porBahia = agendaDeRegion(region);
+        Hueco hueco;
+        synchronized (porBahia) {
+            hueco = buscarHueco(porBahia, inicioBusqueda, duracion,
+                    inicioBusqueda.plusDays(properties.getHorizonteDias()));
+            if (hueco == null) {
+                throw new SinCapacidadTallerException("No hay bahías libres para " + mantenimiento.getTipoMantenimiento()
+                        + " en los próximos " + properties.getHorizonteDias() + " días");
+            }
+            porBahia.get(hueco.bahiaId()).ocupar(hueco.inicio(), hueco.fin());
+        }
+        // La reserva en memoria se deshace si la transacción no confirma
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (porBahia) {
+                        porBahia.get(hueco.bahiaId()).liberar(hueco.inicio(), hueco.fin());
+                    }
+                }
+            }
+        });
+
+        TurnoTaller turno = turnoRepository.saveAndFlush(TurnoTaller.builder()
+                .bahia(bahiaRepository.getReferenceById(hueco.bahiaId()))
+                .mantenimiento(mantenimiento)
+                .inicio(hueco.inicio())
+                .fin(hueco.fin())
+                .build());
+        return mapper.turnoToDto(turno);
+    }
+
+    /**
+     * El hueco más temprano entre todas las bahías. Deja de buscar en cuanto encuentra uno que empieza
+     * en el primer inicio posible, porque ninguna otra bahía puede mejorarlo
+     */
+    Hueco buscarHueco(Map<Long, AgendaIntervalos> porBahia, LocalDateTime desde, Duration duracion,
+                      LocalDateTime limite) {
+        LocalDateTime primerInicioPosible = horario.proximoInicio(desde, duracion);
+        if (primerInicioPosible == null) {
+            return null;
+        }
+        Hueco mejor = null;
+        for (Map.Entry<Long, AgendaIntervalos> entrada : porBahia.entrySet()) {
+            LocalDateTime limiteBahia = mejor != null ? mejor.inicio() : limite;
+            LocalDateTime inicio = entrada.getValue().primerHueco(desde, duracion, horario, limiteBahia);
+            if (inicio != null && (mejor == null || inicio.isBefore(mejor.inicio()))) {
+                mejor = new Hueco(entrada.getKey(), inicio, inicio.plus(duracion));
+                if (inicio.equals(primerInicioPosible)) {
+                    break;
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Libera el turno del mantenimiento, si tiene. Se llama dentro de la transacción que lo cancela;
+     * la agenda en memoria se actualiza cuando confirma
+     */
+    @Transactional
+    public void liberarTurno(Long mantenimientoId) {
+        turnoRepository.findByMantenimientoId(mantenimientoId).ifPresent(turno -> {
+            turnoRepository.delete(turno);
+            liberarAlConfirmar(turno);
+        });
+    }
+
+    /**
+     * Eliminar por conjunto los turnos de vehículos que se dan de baja, liberando los vigentes en la agenda en memoria
+     * cuando confirme la transacción. Debe llamarse antes de eliminar sus mantenimientos
+     */
+    public void eliminarTurnosDeVehiculos(Collection<Long> vehiculoIds) {
+        turnoRepository.findVigentesDeVehiculos(vehiculoIds, LocalDateTime.now()).forEach(this::liberarAlConfirmar);
+        turnoRepository.eliminarDeVehiculos(vehiculoIds);
+    }
+
+    private void liberarAlConfirmar(TurnoTaller turno) {
+        String region = shardingProperties.regionActual();
+        Long bahiaId = turno.getBahia().getId();
+        LocalDateTime inicio = turno.getInicio();
+        LocalDateTime fin = turno.getFin();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Map<Long, AgendaIntervalos> porBahia = agendas.get(region);
+                if (porBahia != null) {
+                    synchronized (porBahia) {
+                        AgendaIntervalos agenda = porBahia.get(bahiaId);
+                        if (agenda != null) {
+                            agenda.liberar(inicio, fin);
+                        }
+                    }
+                }
+            }
+        });
+    }
+}
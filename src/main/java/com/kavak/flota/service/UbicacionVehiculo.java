@@ -0,0 +1,27 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.entity.Vehiculo;
+
+/**
+ * Estado de un vehículo relevante para el índice espacial (posición y disponibilidad) después de una escritura.
+ * Se publica dentro de la transacción e IndiceEspacialVehiculos lo aplica recién cuando confirma;
+ * disponible null indica que el vehículo se eliminó.
+ */
+public record UbicacionVehiculo(Long vehiculoId, String patente, Double latitud, Double longitud, Boolean disponible) {
+
+    public static UbicacionVehiculo de(Vehiculo vehiculo) {
+        return new UbicacionVehiculo(vehiculo.getId(), vehiculo.getPatente(), vehiculo.getLatitud(),
+                vehiculo.getLongitud(), vehiculo.getDisponible());
+    }
+
+    public static UbicacionVehiculo eliminado(Long vehiculoId) {
+        return new UbicacionVehiculo(vehiculoId, null, null, null, null);
+    }
+
+    /**
+     * Si el vehículo debe estar en el índice: disponible y con posición conocida
+     */
+    public boolean indexable() {
+        return Boolean.TRUE.equals(disponible) && latitud != null && longitud != null;
+    }
+}
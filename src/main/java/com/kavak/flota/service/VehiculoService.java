@@ -1,17 +1,46 @@
 package com.kavak.flota.service;
 
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.EliminacionProperties;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.FiltroVehiculoDTO;
+import com.kavak.flota.dto.PaginaDTO;
+import com.kavak.flota.dto.PosicionVehiculoDTO;
+import com.kavak.flota.dto.ResultadoEliminacionDTO;
 import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.dto.VehiculoResumenDTO;
 import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
 import com.kavak.flota.exception.KilometrajeInvalidoException;
 import com.kavak.flota.exception.PatenteYaExisteException;
 import com.kavak.flota.exception.VehiculoNotFoundException;
 import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.ConsultaCampos;
+import com.kavak.flota.repository.ConteoFlota;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.PosicionRegistrada;
 import com.kavak.flota.repository.VehiculoRepository;
+import com.kavak.flota.repository.VehiculoSpecifications;
+import com.kavak.flota.util.CargaCompartida;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,10 +50,38 @@ public class VehiculoService {
 
     private final VehiculoRepository vehiculoRepository;
     private final Mapper mapper;
+    private final RecorridoStreaming recorridoStreaming;
+    private final ReintentoOptimista reintentoOptimista;
+    private final HistorialKilometrajeService historialKilometrajeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardingProperties shardingProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final MantenimientoRepository mantenimientoRepository;
+    private final TallerService tallerService;
+    private final InactividadService inactividadService;
+    private final EliminacionProperties eliminacionProperties;
+    private final ConsultaCampos consultaCampos;
+    private final InvalidacionCache invalidacionCache;
 
     /**
-     * Crear un nuevo vehículo
-     * Valida que la patente no exista previamente
+     * Lecturas concurrentes del mismo vehículo comparten una única consulta y su DTO
+     */
+    private final CargaCompartida<Long, VehiculoDTO> cargasPorId = new CargaCompartida<>();
+    private final CargaCompartida<String, VehiculoDTO> cargasPorPatente = new CargaCompartida<>();
+
+    private static final Set<String> CAMPOS_ORDENABLES =
+            Set.of("id", "patente", "marca", "modelo", "anio", "kilometraje", "fechaCreacion");
+
+    /**
+     * Columnas que se pueden pedir con fields= (los mantenimientos tienen sus propios endpoints)
+     */
+    public static final List<String> CAMPOS_SELECCIONABLES = List.of("id", "patente", "marca", "modelo", "anio",
+            "kilometraje", "disponible", "region", "latitud", "longitud", "fechaPosicion", "fechaCreacion",
+            "fechaActualizacion");
+
+    /**
+     * Crear un nuevo vehículo en la región de la petición
+     * Valida que la patente no exista previamente en esa región
      */
     @Transactional
     public VehiculoDTO crearVehiculo(VehiculoDTO vehiculoDTO) {
@@ -35,48 +92,188 @@ public class VehiculoService {
         }
 
         Vehiculo vehiculo = mapper.vehiculoDtoToEntity(vehiculoDTO);
+        // La transacción ya corre sobre el shard de la región de la petición
+        vehiculo.setRegion(shardingProperties.regionActual());
+        // Sin historial, el planificador preventivo lo evalúa contra su kilometraje inicial
+        vehiculo.setKilometrajePendienteEvaluacion(true);
         Vehiculo vehiculoGuardado = vehiculoRepository.save(vehiculo);
+        eventPublisher.publishEvent(CambioFlota.vehiculoCreado(vehiculoGuardado.getDisponible()));
         return mapper.vehiculoToDto(vehiculoGuardado);
     }
 
     /**
-     * Obtener vehículo por ID
+     * Obtener vehículo por ID.
+     * Las peticiones simultáneas por el mismo id esperan a una sola carga (en su propia transacción) y comparten
+     * el DTO o la excepción; mientras esperan no toman conexión
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public VehiculoDTO obtenerPorId(Long id) {
-        return vehiculoRepository.findById(id)
+        return cargasPorId.obtener(id, () -> transactionTemplate.execute(status -> vehiculoRepository.findById(id)
                 .map(mapper::vehiculoToDto)
                 .orElseThrow(() -> new VehiculoNotFoundException(
-                        "Vehículo con ID " + id + " no encontrado"));
+                        "Vehículo con ID " + id + " no encontrado"))));
     }
 
     /**
-     * Obtener vehículo por patente
+     * Obtener vehículo por patente, agrupando las peticiones simultáneas como obtenerPorId.
+     * La patente es única por región, así que la clave incluye la región
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public VehiculoDTO obtenerPorPatente(String patente) {
-        return vehiculoRepository.findByPatente(patente)
-                .map(mapper::vehiculoToDto)
-                .orElseThrow(() -> new VehiculoNotFoundException(
-                        "Vehículo con patente " + patente + " no encontrado"));
+        String clave = shardingProperties.regionActual() + ":" + patente;
+        return cargasPorPatente.obtener(clave, () -> transactionTemplate.execute(status ->
+                vehiculoRepository.findByPatente(patente)
+                        .map(mapper::vehiculoToDto)
+                        .orElseThrow(() -> new VehiculoNotFoundException(
+                                "Vehículo con patente " + patente + " no encontrado"))));
     }
 
     /**
-     * Actualizar kilometraje de un vehículo por patente
+     * Buscar vehículos por patente parcial o con errores de tipeo, con filtros opcionales por marca y modelo.
+     * La patente se sanitiza igual que en el alta (mayúsculas, solo alfanuméricos).
      */
-    @Transactional
-    public VehiculoDTO actualizarKilometraje(Long id, Long nuevoKilometraje) {
-        Vehiculo vehiculo = vehiculoRepository.findById(id)
+    public List<VehiculoResumenDTO> buscarPorPatente(String texto, String marca, String modelo, int limite) {
+        String patente = texto == null ? "" : texto.toUpperCase().replaceAll("[^A-Z0-9]", "");
+        if (patente.length() < 2) {
+            throw new IllegalArgumentException("La búsqueda por patente requiere al menos 2 caracteres alfanuméricos");
+        }
+
+        return vehiculoRepository.buscarPorPatente(patente, patente + "%",
+                        normalizarFiltro(marca), normalizarFiltro(modelo), limite)
+                .stream()
+                .map(mapper::vehiculoToResumenDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Consulta multi-criterio paginada (marca, modelo, rango de año y kilometraje, disponibilidad)
+     */
+    public PaginaDTO<VehiculoResumenDTO> consultarVehiculos(FiltroVehiculoDTO filtro, Pageable pageable) {
+        validarOrden(pageable);
+        return PaginaDTO.desde(vehiculoRepository
+                .findAll(VehiculoSpecifications.desdeFiltro(filtro), pageable)
+                .map(mapper::vehiculoToResumenDto));
+    }
+
+    /**
+     * Consulta multi-criterio paginada que lee solo las columnas pedidas (fields=)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<Map<String, Object>> consultarCamposVehiculos(FiltroVehiculoDTO filtro, Pageable pageable,
+                                                                   List<String> campos) {
+        validarOrden(pageable);
+        return PaginaDTO.desde(consultaCampos.listar(
+                Vehiculo.class, campos, VehiculoSpecifications.desdeFiltro(filtro), pageable));
+    }
+
+    /**
+     * Solo las columnas pedidas del vehículo (fields=), sin cargar la entidad ni sus mantenimientos.
+     * No pasa por la caché de segundo nivel: conviene para respuestas angostas, no para el vehículo completo
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenerCamposPorId(Long id, List<String> campos) {
+        return consultaCampos.buscar(Vehiculo.class, campos, VehiculoSpecifications.idIgual(id))
                 .orElseThrow(() -> new VehiculoNotFoundException(
                         "Vehículo con ID " + id + " no encontrado"));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenerCamposPorPatente(String patente, List<String> campos) {
+        return consultaCampos.buscar(Vehiculo.class, campos, VehiculoSpecifications.patenteIgual(patente))
+                .orElseThrow(() -> new VehiculoNotFoundException(
+                        "Vehículo con patente " + patente + " no encontrado"));
+    }
 
-        if (nuevoKilometraje < vehiculo.getKilometraje()) {
-            throw new KilometrajeInvalidoException(
-                    "El nuevo kilometraje (" + nuevoKilometraje +
-                    ") no puede ser menor que el actual (" + vehiculo.getKilometraje() + ")");
+    private void validarOrden(Pageable pageable) {
+        for (Sort.Order orden : pageable.getSort()) {
+            if (!CAMPOS_ORDENABLES.contains(orden.getProperty())) {
+                throw new IllegalArgumentException("No se puede ordenar por '" + orden.getProperty() +
+                        "'. Campos permitidos: " + String.join(", ", CAMPOS_ORDENABLES));
+            }
         }
+    }
+
+    /**
+     * Vehículo sin su colección de mantenimientos, para las consultas GraphQL que los cargan aparte.
+     * Se busca en la región dueña del id, porque la petición no la fija a partir del cuerpo
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VehiculoDTO> buscarSinMantenimientos(Long id) {
+        return ContextoRegion.ejecutarEn(shardingProperties.regionDeId(id),
+                () -> vehiculoRepository.findById(id).map(mapper::vehiculoToDtoSinMantenimientos));
+    }
 
-        vehiculo.setKilometraje(nuevoKilometraje);
-        Vehiculo vehiculoActualizado = vehiculoRepository.save(vehiculo);
-        return mapper.vehiculoToDto(vehiculoActualizado);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VehiculoDTO> buscarSinMantenimientosPorPatente(String patente) {
+        return vehiculoRepository.findByPatente(patente).map(mapper::vehiculoToDtoSinMantenimientos);
+    }
+
+    /**
+     * Vehículos de la región que cumplen el filtro, ordenados por id a partir del cursor y sin mantenimientos.
+     * Sin total de resultados: una sola consulta con LIMIT
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<VehiculoDTO> listarSinMantenimientos(FiltroVehiculoDTO filtro, Long despuesDe, int limite) {
+        return vehiculoRepository.findBy(
+                        VehiculoSpecifications.desdeFiltro(filtro).and(VehiculoSpecifications.idMayorQue(despuesDe)),
+                        consulta -> consulta.sortBy(Sort.by("id")).limit(limite).all())
+                .stream()
+                .map(mapper::vehiculoToDtoSinMantenimientos)
+                .toList();
+    }
+
+    private String normalizarFiltro(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    /**
+     * Actualizar kilometraje de un vehículo por patente.
+     * Ante un conflicto de versión se relee el vehículo y se vuelve a validar contra el kilometraje confirmado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public VehiculoDTO actualizarKilometraje(Long id, Long nuevoKilometraje) {
+        return reintentoOptimista.ejecutar("actualizar-kilometraje", () -> {
+            Vehiculo vehiculo = vehiculoRepository.findById(id)
+                    .orElseThrow(() -> new VehiculoNotFoundException(
+                            "Vehículo con ID " + id + " no encontrado"));
+
+            if (nuevoKilometraje < vehiculo.getKilometraje()) {
+                throw new KilometrajeInvalidoException(
+                        "El nuevo kilometraje (" + nuevoKilometraje +
+                        ") no puede ser menor que el actual (" + vehiculo.getKilometraje() + ")");
+            }
+
+            if (!nuevoKilometraje.equals(vehiculo.getKilometraje())) {
+                vehiculo.setKilometrajePendienteEvaluacion(true);
+            }
+            historialKilometrajeService.registrarLectura(
+                    id, vehiculo.getKilometraje(), nuevoKilometraje, LocalDateTime.now());
+            vehiculo.setKilometraje(nuevoKilometraje);
+            Vehiculo vehiculoActualizado = vehiculoRepository.save(vehiculo);
+            return mapper.vehiculoToDto(vehiculoActualizado);
+        });
+    }
+
+    /**
+     * Registrar la última posición informada por el vehículo.
+     * Las lecturas que llegan fuera de orden (más viejas que la registrada) se descartan sin escribir.
+     * Es la escritura más frecuente: un UPDATE puntual de las columnas de posición, sin cargar la entidad,
+     * y solo se desaloja la entrada de caché del vehículo
+     */
+    @Transactional
+    public void actualizarPosicion(Long id, PosicionVehiculoDTO posicion) {
+        LocalDateTime fecha = posicion.getFechaHora() != null ? posicion.getFechaHora() : LocalDateTime.now();
+        Optional<PosicionRegistrada> registrada = vehiculoRepository.registrarPosicion(
+                id, posicion.getLatitud(), posicion.getLongitud(), fecha);
+        if (registrada.isEmpty()) {
+            if (!vehiculoRepository.existsById(id)) {
+                throw new VehiculoNotFoundException("Vehículo con ID " + id + " no encontrado");
+            }
+            return;
+        }
+        invalidacionCache.desalojar(InvalidacionCache.claveVehiculo(id));
+        eventPublisher.publishEvent(new UbicacionVehiculo(id, registrada.get().getPatente(),
+                posicion.getLatitud(), posicion.getLongitud(), registrada.get().getDisponible()));
     }
 
     /**
@@ -99,6 +296,35 @@ public class VehiculoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recorrer los vehículos disponibles entregando cada DTO al consumidor
+     * sin armar la lista completa en memoria
+     */
+    @Transactional(readOnly = true)
+    public void recorrerVehiculosDisponibles(Consumer<VehiculoDTO> consumidor) {
+        recorridoStreaming.recorrer(vehiculoRepository.streamByDisponibleTrue(), mapper::vehiculoToDto, consumidor);
+    }
+
+    /**
+     * Recorrer las columnas pedidas de los vehículos disponibles o no disponibles, fila por fila
+     */
+    @Transactional(readOnly = true)
+    public void recorrerCamposPorDisponibilidad(boolean disponible, List<String> campos,
+                                                Consumer<Map<String, Object>> consumidor) {
+        recorridoStreaming.recorrer(
+                consultaCampos.recorrer(Vehiculo.class, campos, VehiculoSpecifications.disponible(disponible)),
+                Function.identity(),
+                consumidor);
+    }
+
+    /**
+     * Recorrer los vehículos no disponibles entregando cada DTO al consumidor
+     */
+    @Transactional(readOnly = true)
+    public void recorrerVehiculosNoDisponibles(Consumer<VehiculoDTO> consumidor) {
+        recorridoStreaming.recorrer(vehiculoRepository.streamByDisponibleFalse(), mapper::vehiculoToDto, consumidor);
+    }
+
     /**
      * Verificar si un vehículo está disponible por ID
      */
@@ -109,10 +335,102 @@ public class VehiculoService {
     }
 
     /**
-     * Eliminar vehículo por ID
+     * Eliminar vehículo por ID, con las mismas sentencias por conjunto que la baja masiva
      */
     public void eliminarVehiculo(Long id) {
-        vehiculoRepository.deleteById(id);
+        eliminarLote(List.of(id));
+    }
+
+    /**
+     * Eliminar varios vehículos con sus mantenimientos, por región y en transacciones de a
+     * eliminacion.tamanio-lote vehículos. Un lote que falla no revierte los ya confirmados
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoEliminacionDTO eliminarVehiculos(List<Long> ids) {
+        if (ids.size() > eliminacionProperties.getMaximoIds()) {
+            throw new IllegalArgumentException(
+                    "No se pueden eliminar más de " + eliminacionProperties.getMaximoIds() + " vehículos por petición");
+        }
+        long inicio = System.currentTimeMillis();
+        // Cada id codifica su región: los lotes se arman por región y corren en su shard
+        Map<String, List<Long>> porRegion = ids.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(shardingProperties::regionDeId, LinkedHashMap::new, Collectors.toList()));
+
+        int tamanioLote = eliminacionProperties.getTamanioLote();
+        int vehiculosEliminados = 0;
+        int mantenimientosEliminados = 0;
+        int lotes = 0;
+        List<Long> noEncontrados = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> region : porRegion.entrySet()) {
+            List<Long> idsRegion = region.getValue();
+            for (int desde = 0; desde < idsRegion.size(); desde += tamanioLote) {
+                List<Long> lote = idsRegion.subList(desde, Math.min(desde + tamanioLote, idsRegion.size()));
+                ResultadoLote resultado = ContextoRegion.ejecutarEn(region.getKey(),
+                        () -> transactionTemplate.execute(status -> eliminarLote(lote)));
+                vehiculosEliminados += resultado.vehiculos();
+                mantenimientosEliminados += resultado.mantenimientos();
+                noEncontrados.addAll(resultado.noEncontrados());
+                lotes++;
+            }
+        }
+
+        return ResultadoEliminacionDTO.builder()
+                .solicitados(ids.size())
+                .vehiculosEliminados(vehiculosEliminados)
+                .mantenimientosEliminados(mantenimientosEliminados)
+                .lotes(lotes)
+                .duracionMs(System.currentTimeMillis() - inicio)
+                .noEncontrados(noEncontrados)
+                .build();
+    }
+
+    private record ResultadoLote(int vehiculos, int mantenimientos, List<Long> noEncontrados) {
+    }
+
+    /**
+     * Baja por conjunto dentro de la transacción actual, sin cargar vehículos ni mantenimientos.
+     * Como no pasan por Hibernate, acá se hace lo que haría la baja entidad por entidad: ajuste de contadores,
+     * índice espacial, agenda del taller y desalojo de caché de las entradas afectadas, en esta instancia y en las
+     * demás. Las filas dependientes se borran explícitamente: con ddl-auto=update las claves foráneas no tienen
+     * ON DELETE CASCADE (solo las crean así los scripts 08, 09 y 11).
+     */
+    private ResultadoLote eliminarLote(List<Long> ids) {
+        List<Long> existentes = vehiculoRepository.bloquearParaEliminar(ids);
+        Set<Long> encontrados = Set.copyOf(existentes);
+        List<Long> noEncontrados = ids.stream().filter(id -> !encontrados.contains(id)).toList();
+        if (existentes.isEmpty()) {
+            return new ResultadoLote(0, 0, noEncontrados);
+        }
+
+        for (ConteoFlota conteo : vehiculoRepository.contarFlotaDe(existentes)) {
+            if ("VEHICULO".equals(conteo.getGrupo())) {
+                eventPublisher.publishEvent(CambioFlota.vehiculosEliminados(
+                        "DISPONIBLE".equals(conteo.getClave()), conteo.getCantidad()));
+            } else {
+                eventPublisher.publishEvent(CambioFlota.mantenimientosEliminados(
+                        TipoMantenimiento.valueOf(conteo.getTipo()), Estado.valueOf(conteo.getClave()),
+                        conteo.getCantidad()));
+            }
+        }
+        tallerService.eliminarTurnosDeVehiculos(existentes);
+        historialKilometrajeService.eliminarDeVehiculos(existentes);
+        inactividadService.eliminarDeVehiculos(existentes);
+
+        List<Long> mantenimientoIds = mantenimientoRepository.findIdsByVehiculoIds(existentes);
+        List<String> claves = new ArrayList<>(existentes.size() * 2 + mantenimientoIds.size() + 1);
+        existentes.forEach(id -> {
+            claves.add(InvalidacionCache.claveVehiculo(id));
+            claves.add(InvalidacionCache.claveMantenimientosDeVehiculo(id));
+        });
+        mantenimientoIds.forEach(id -> claves.add(InvalidacionCache.claveMantenimiento(id)));
+        claves.add(InvalidacionCache.CONSULTAS);
+
+        int mantenimientos = mantenimientoRepository.eliminarPorVehiculoIds(existentes);
+        int vehiculos = vehiculoRepository.eliminarPorIds(existentes);
+        invalidacionCache.desalojar(claves.toArray(String[]::new));
+        existentes.forEach(id -> eventPublisher.publishEvent(UbicacionVehiculo.eliminado(id)));
+        return new ResultadoLote(vehiculos, mantenimientos, noEncontrados);
     }
 }
 
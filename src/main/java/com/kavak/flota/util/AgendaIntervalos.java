@@ -0,0 +1,70 @@
+package com.kavak.flota.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Intervalos ocupados de una bahía, sin solapamientos, indexados por inicio.
+ * Como los intervalos de una bahía nunca se superponen, el árbol ordenado por inicio funciona como árbol de
+ * intervalos: el único ocupado que puede contener un instante es el de inicio inmediatamente anterior, así que
+ * detectar un conflicto cuesta O(log n) y buscar un hueco recorre solo los ocupados que lo preceden.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public class AgendaIntervalos {
+
+    private final TreeMap<LocalDateTime, LocalDateTime> ocupados = new TreeMap<>();
+
+    public int cantidad() {
+        return ocupados.size();
+    }
+
+    /**
+     * @return true si [inicio, fin) no se superpone con ningún intervalo ocupado
+     */
+    public boolean estaLibre(LocalDateTime inicio, LocalDateTime fin) {
+        Map.Entry<LocalDateTime, LocalDateTime> anterior = ocupados.floorEntry(inicio);
+        if (anterior != null && anterior.getValue().isAfter(inicio)) {
+            return false;
+        }
+        LocalDateTime siguiente = ocupados.higherKey(inicio);
+        return siguiente == null || !siguiente.isBefore(fin);
+    }
+
+    /**
+     * @throws IllegalStateException si el intervalo se superpone con uno ocupado
+     */
+    public void ocupar(LocalDateTime inicio, LocalDateTime fin) {
+        if (!estaLibre(inicio, fin)) {
+            throw new IllegalStateException("El intervalo " + inicio + " - " + fin + " ya está ocupado");
+        }
+        ocupados.put(inicio, fin);
+    }
+
+    public void liberar(LocalDateTime inicio, LocalDateTime fin) {
+        ocupados.remove(inicio, fin);
+    }
+
+    /**
+     * Primer inicio libre no anterior a desde donde entra un turno de la duración indicada dentro del horario
+     * @return null si no hay hueco que empiece antes del límite
+     */
+    public LocalDateTime primerHueco(LocalDateTime desde, Duration duracion, HorarioTaller horario, LocalDateTime limite) {
+        LocalDateTime candidato = horario.proximoInicio(desde, duracion);
+        while (candidato != null && !candidato.isAfter(limite)) {
+            Map.Entry<LocalDateTime, LocalDateTime> anterior = ocupados.floorEntry(candidato);
+            if (anterior != null && anterior.getValue().isAfter(candidato)) {
+                candidato = horario.proximoInicio(anterior.getValue(), duracion);
+                continue;
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> siguiente = ocupados.higherEntry(candidato);
+            if (siguiente != null && siguiente.getKey().isBefore(candidato.plus(duracion))) {
+                candidato = horario.proximoInicio(siguiente.getValue(), duracion);
+                continue;
+            }
+            return candidato;
+        }
+        return null;
+    }
+}
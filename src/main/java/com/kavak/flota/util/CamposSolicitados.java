@@ -0,0 +1,35 @@
+package com.kavak.flota.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interpreta el parámetro fields= de las consultas ("id,patente,disponible"): campos sin espacios
+ * ni repetidos, en el orden pedido, y todos dentro de los permitidos
+ */
+public final class CamposSolicitados {
+
+    private CamposSolicitados() {
+    }
+
+    /**
+     * @throws IllegalArgumentException si no indica ningún campo o alguno no está permitido
+     */
+    public static List<String> parsear(String fields, List<String> permitidos) {
+        List<String> campos = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(campo -> !campo.isEmpty())
+                .distinct()
+                .toList();
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("El parámetro 'fields' debe indicar al menos un campo");
+        }
+        for (String campo : campos) {
+            if (!permitidos.contains(campo)) {
+                throw new IllegalArgumentException("No se puede seleccionar el campo '" + campo +
+                        "'. Campos permitidos: " + String.join(", ", permitidos));
+            }
+        }
+        return campos;
+    }
+}
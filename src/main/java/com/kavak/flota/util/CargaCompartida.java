@@ -0,0 +1,63 @@
+package com.kavak.flota.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa cargas concurrentes de la misma clave (single-flight): la primera petición ejecuta la carga y las que
+ * llegan mientras está en curso esperan y reciben el mismo resultado o la misma excepción.
+ * No guarda nada más allá de la carga en curso: una petición que llega después de que terminó carga de nuevo,
+ * así que no agrega desactualización respecto de leer directamente.
+ * El valor se comparte entre todas las peticiones agrupadas y no debe modificarse.
+ */
+public final class CargaCompartida<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * @param carga se ejecuta en el hilo del llamador solo si no hay otra carga en curso para la clave
+     */
+    public V obtener(K clave, Supplier<V> carga) {
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            return esperar(existente);
+        }
+
+        try {
+            V valor = carga.get();
+            // Se quita antes de completar: quien llegue desde ahora inicia una carga nueva
+            enCurso.remove(clave, propia);
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            enCurso.remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cantidad de claves con una carga en curso
+     */
+    public int enCurso() {
+        return enCurso.size();
+    }
+
+    private V esperar(CompletableFuture<V> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kavak.flota.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación compacta de las lecturas de odómetro de un vehículo en un día.
+ * Cada lectura ocupa dos varints sin signo: el segundo del día (0..86399, hasta 3 bytes) y los kilómetros
+ * recorridos desde la lectura anterior (delta, normalmente 1 o 2 bytes). Los bloques de cada lectura se
+ * concatenan, por lo que agregar una lectura no requiere leer ni reescribir las anteriores.
+ */
+public final class CodificadorLecturas {
+
+    private CodificadorLecturas() {
+    }
+
+    /**
+     * Lectura decodificada, con el kilometraje absoluto
+     */
+    public record Lectura(int segundoDelDia, long kilometraje) {
+    }
+
+    /**
+     * Codifica una lectura para agregar al final del bloque del día
+     * @param segundoDelDia segundo del día de la lectura
+     * @param kilometrosDesdeAnterior kilómetros respecto de la lectura anterior (no negativo)
+     */
+    public static byte[] codificar(int segundoDelDia, long kilometrosDesdeAnterior) {
+        if (segundoDelDia < 0 || kilometrosDesdeAnterior < 0) {
+            throw new IllegalArgumentException("El segundo del día y el delta de kilómetros no pueden ser negativos");
+        }
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(6);
+        escribirVarint(salida, segundoDelDia);
+        escribirVarint(salida, kilometrosDesdeAnterior);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Reconstruye las lecturas absolutas de un bloque diario
+     * @param kilometrajeInicial kilometraje del vehículo antes de la primera lectura del día
+     */
+    public static List<Lectura> decodificar(byte[] bloque, long kilometrajeInicial) {
+        List<Lectura> lecturas = new ArrayList<>();
+        long kilometraje = kilometrajeInicial;
+        int[] posicion = {0};
+        while (posicion[0] < bloque.length) {
+            int segundo = (int) leerVarint(bloque, posicion);
+            kilometraje += leerVarint(bloque, posicion);
+            lecturas.add(new Lectura(segundo, kilometraje));
+        }
+        return lecturas;
+    }
+
+    private static void escribirVarint(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+
+    private static long leerVarint(byte[] bloque, int[] posicion) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            if (posicion[0] >= bloque.length) {
+                throw new IllegalArgumentException("Bloque de lecturas truncado");
+            }
+            byte b = bloque[posicion[0]++];
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo en el bloque de lecturas");
+    }
+}
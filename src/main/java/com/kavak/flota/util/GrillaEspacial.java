@@ -0,0 +1,203 @@
+package com.kavak.flota.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial en memoria: grilla de celdas de tamaño fijo en grados sobre latitud/longitud.
+ * La búsqueda de los k más cercanos recorre anillos de celdas alrededor del punto y corta en cuanto
+ * la distancia mínima posible del siguiente anillo supera al k-ésimo encontrado o al radio máximo,
+ * así que el costo depende de la densidad local y no del tamaño total.
+ * Admite escrituras y lecturas concurrentes; una búsqueda concurrente con una escritura puede ver el
+ * estado anterior o el nuevo de ese punto. No contempla el antimeridiano (longitud ±180).
+ */
+public final class GrillaEspacial<T> {
+
+    private static final double RADIO_TIERRA_KM = 6371.0;
+    private static final double KM_POR_GRADO = Math.PI * RADIO_TIERRA_KM / 180.0;
+    // Evita anillos sin fin cerca de los polos, donde un grado de longitud casi no mide distancia
+    private static final double COSENO_MINIMO = 0.01;
+
+    public record Vecino<T>(long id, double latitud, double longitud, T dato, double distanciaKm) {
+    }
+
+    private record Entrada<T>(long id, double latitud, double longitud, long celda, T dato) {
+    }
+
+    private final double tamanoCelda;
+    private final int filas;
+    private final int columnas;
+    private final ConcurrentMap<Long, Entrada<T>> entradas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Map<Long, Entrada<T>>> celdas = new ConcurrentHashMap<>();
+
+    /**
+     * @param tamanoCelda lado de cada celda en grados; conviene que contenga pocas decenas de puntos
+     */
+    public GrillaEspacial(double tamanoCelda) {
+        if (!(tamanoCelda > 0 && tamanoCelda <= 10)) {
+            throw new IllegalArgumentException("El tamaño de celda debe estar entre 0 y 10 grados");
+        }
+        this.tamanoCelda = tamanoCelda;
+        this.filas = (int) Math.ceil(180.0 / tamanoCelda) + 1;
+        this.columnas = (int) Math.ceil(360.0 / tamanoCelda) + 1;
+    }
+
+    /**
+     * Agrega el punto o lo mueve a su nueva posición
+     */
+    public void ubicar(long id, double latitud, double longitud, T dato) {
+        validarCoordenadas(latitud, longitud);
+        long celda = celda(fila(latitud), columna(longitud));
+        Entrada<T> nueva = new Entrada<>(id, latitud, longitud, celda, dato);
+        entradas.compute(id, (clave, anterior) -> {
+            if (anterior != null && anterior.celda() != celda) {
+                quitarDeCelda(anterior);
+            }
+            // compute y no computeIfAbsent + put: otro hilo podría descartar la celda vacía entre ambos
+            celdas.compute(celda, (c, puntos) -> {
+                Map<Long, Entrada<T>> destino = puntos != null ? puntos : new ConcurrentHashMap<>();
+                destino.put(id, nueva);
+                return destino;
+            });
+            return nueva;
+        });
+    }
+
+    public void quitar(long id) {
+        entradas.computeIfPresent(id, (clave, anterior) -> {
+            quitarDeCelda(anterior);
+            return null;
+        });
+    }
+
+    public int cantidad() {
+        return entradas.size();
+    }
+
+    /**
+     * Los k puntos más cercanos dentro del radio, del más cercano al más lejano
+     */
+    public List<Vecino<T>> cercanos(double latitud, double longitud, int k, double radioMaximoKm) {
+        validarCoordenadas(latitud, longitud);
+        if (k <= 0 || entradas.isEmpty()) {
+            return List.of();
+        }
+        int fila = fila(latitud);
+        int columna = columna(longitud);
+        // Cabeza = el más lejano de los k mejores
+        PriorityQueue<Vecino<T>> mejores =
+                new PriorityQueue<>(k + 1, Comparator.comparingDouble((Vecino<T> v) -> v.distanciaKm()).reversed());
+
+        for (int anillo = 0; ; anillo++) {
+            double cota = distanciaMinimaAnillo(latitud, anillo);
+            if (cota > radioMaximoKm || (mejores.size() == k && cota > mejores.peek().distanciaKm())) {
+                break;
+            }
+            if (fila - anillo < 0 && fila + anillo >= filas && columna - anillo < 0 && columna + anillo >= columnas) {
+                break;
+            }
+            recorrerAnillo(fila, columna, anillo, entrada -> {
+                double distancia = distanciaKm(latitud, longitud, entrada.latitud(), entrada.longitud());
+                if (distancia > radioMaximoKm) {
+                    return;
+                }
+                if (mejores.size() < k) {
+                    mejores.add(vecino(entrada, distancia));
+                } else if (distancia < mejores.peek().distanciaKm()) {
+                    mejores.poll();
+                    mejores.add(vecino(entrada, distancia));
+                }
+            });
+        }
+
+        List<Vecino<T>> resultado = new ArrayList<>(mejores);
+        resultado.sort(Comparator.comparingDouble(Vecino::distanciaKm));
+        return resultado;
+    }
+
+    /**
+     * Distancia de círculo máximo (haversine)
+     */
+    public static double distanciaKm(double latitud1, double longitud1, double latitud2, double longitud2) {
+        double dLat = Math.toRadians(latitud2 - latitud1);
+        double dLon = Math.toRadians(longitud2 - longitud1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitud1)) * Math.cos(Math.toRadians(latitud2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Cualquier punto del anillo r está al menos r-1 celdas completas más lejos en latitud o en longitud;
+     * un grado de longitud mide menos que uno de latitud, así que se acota con el coseno de la latitud
+     * más alejada del ecuador que alcanza el anillo
+     */
+    private double distanciaMinimaAnillo(double latitud, int anillo) {
+        if (anillo <= 1) {
+            return 0;
+        }
+        double latitudExtrema = Math.min(90.0, Math.abs(latitud) + (anillo + 1) * tamanoCelda);
+        double coseno = Math.max(COSENO_MINIMO, Math.cos(Math.toRadians(latitudExtrema)));
+        return (anillo - 1) * tamanoCelda * KM_POR_GRADO * coseno;
+    }
+
+    private void recorrerAnillo(int fila, int columna, int anillo, Consumer<Entrada<T>> visitante) {
+        if (anillo == 0) {
+            visitarCelda(fila, columna, visitante);
+            return;
+        }
+        for (int c = columna - anillo; c <= columna + anillo; c++) {
+            visitarCelda(fila - anillo, c, visitante);
+            visitarCelda(fila + anillo, c, visitante);
+        }
+        for (int f = fila - anillo + 1; f <= fila + anillo - 1; f++) {
+            visitarCelda(f, columna - anillo, visitante);
+            visitarCelda(f, columna + anillo, visitante);
+        }
+    }
+
+    private void visitarCelda(int fila, int columna, Consumer<Entrada<T>> visitante) {
+        if (fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return;
+        }
+        Map<Long, Entrada<T>> celda = celdas.get(celda(fila, columna));
+        if (celda != null) {
+            celda.values().forEach(visitante);
+        }
+    }
+
+    private void quitarDeCelda(Entrada<T> entrada) {
+        celdas.computeIfPresent(entrada.celda(), (c, puntos) -> {
+            puntos.remove(entrada.id());
+            return puntos.isEmpty() ? null : puntos;
+        });
+    }
+
+    private static <T> Vecino<T> vecino(Entrada<T> entrada, double distancia) {
+        return new Vecino<>(entrada.id(), entrada.latitud(), entrada.longitud(), entrada.dato(), distancia);
+    }
+
+    private int fila(double latitud) {
+        return (int) Math.floor((latitud + 90.0) / tamanoCelda);
+    }
+
+    private int columna(double longitud) {
+        return (int) Math.floor((longitud + 180.0) / tamanoCelda);
+    }
+
+    private long celda(int fila, int columna) {
+        return (long) fila * columnas + columna;
+    }
+
+    private static void validarCoordenadas(double latitud, double longitud) {
+        if (!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango: " + latitud + ", " + longitud);
+        }
+    }
+}
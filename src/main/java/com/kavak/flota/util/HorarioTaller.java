@@ -0,0 +1,57 @@
+package com.kavak.flota.util;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Horario de atención de un taller: un turno debe empezar y terminar dentro del mismo día hábil,
+ * en un múltiplo de la granularidad contado desde la apertura
+ */
+public record HorarioTaller(LocalTime apertura, LocalTime cierre, Duration granularidad, Set<DayOfWeek> diasCerrados) {
+
+    public HorarioTaller {
+        if (!cierre.isAfter(apertura)) {
+            throw new IllegalArgumentException("El cierre del taller debe ser posterior a la apertura");
+        }
+        if (granularidad.isZero() || granularidad.isNegative()) {
+            throw new IllegalArgumentException("La granularidad de los turnos debe ser positiva");
+        }
+        if (diasCerrados.size() >= DayOfWeek.values().length) {
+            throw new IllegalArgumentException("El taller debe abrir al menos un día de la semana");
+        }
+        diasCerrados = Set.copyOf(diasCerrados);
+    }
+
+    /**
+     * Primer inicio válido no anterior a desde para un turno de la duración indicada
+     * @return null si la duración no entra en una jornada
+     */
+    public LocalDateTime proximoInicio(LocalDateTime desde, Duration duracion) {
+        if (duracion.compareTo(Duration.between(apertura, cierre)) > 0) {
+            return null;
+        }
+        LocalDate dia = desde.toLocalDate();
+        LocalDateTime minimo = desde;
+        while (true) {
+            if (!diasCerrados.contains(dia.getDayOfWeek())) {
+                LocalDateTime abre = dia.atTime(apertura);
+                LocalDateTime candidato = minimo.isAfter(abre) ? alinear(abre, minimo) : abre;
+                if (!candidato.plus(duracion).isAfter(dia.atTime(cierre))) {
+                    return candidato;
+                }
+            }
+            dia = dia.plusDays(1);
+            minimo = dia.atTime(apertura);
+        }
+    }
+
+    private LocalDateTime alinear(LocalDateTime abre, LocalDateTime momento) {
+        long paso = granularidad.toNanos();
+        long pasos = Math.ceilDiv(Duration.between(abre, momento).toNanos(), paso);
+        return abre.plusNanos(pasos * paso);
+    }
+}
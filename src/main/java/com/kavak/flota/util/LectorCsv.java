@@ -0,0 +1,115 @@
+package com.kavak.flota.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que entrega un registro por vez, sin cargar el archivo en memoria.
+ * Soporta campos entre comillas con comas, comillas escapadas ("") y saltos de línea embebidos.
+ */
+public final class LectorCsv implements Closeable {
+
+    private static final int FIN = -1;
+
+    private final Reader origen;
+    private final char[] buffer = new char[64 * 1024];
+    private int posicion;
+    private int limite;
+
+    private final StringBuilder campo = new StringBuilder();
+    private final List<String> campos = new ArrayList<>();
+    private long numeroRegistro;
+
+    public LectorCsv(Reader origen) {
+        this.origen = origen;
+    }
+
+    /**
+     * @return los campos del siguiente registro, o null al llegar al final
+     * @throws IllegalArgumentException si un campo entre comillas no se cierra
+     */
+    public String[] siguiente() throws IOException {
+        campos.clear();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean leyoAlgo = false;
+
+        int c;
+        while ((c = leer()) != FIN) {
+            leyoAlgo = true;
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append((char) c);
+                } else if (mirar() == '"') {
+                    leer();
+                    campo.append('"');
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if (mirar() == '\n') {
+                    leer();
+                }
+                break;
+            } else {
+                campo.append((char) c);
+            }
+        }
+
+        if (!leyoAlgo) {
+            return null;
+        }
+        numeroRegistro++;
+        if (entreComillas) {
+            throw new IllegalArgumentException("Campo entre comillas sin cerrar en el registro " + numeroRegistro);
+        }
+        campos.add(campo.toString());
+        return campos.toArray(String[]::new);
+    }
+
+    /**
+     * @return número (desde 1) del último registro devuelto, contando el encabezado
+     */
+    public long getNumeroRegistro() {
+        return numeroRegistro;
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite && !llenar()) {
+            return FIN;
+        }
+        return buffer[posicion++];
+    }
+
+    private int mirar() throws IOException {
+        if (posicion == limite && !llenar()) {
+            return FIN;
+        }
+        return buffer[posicion];
+    }
+
+    private boolean llenar() throws IOException {
+        int leidos = origen.read(buffer, 0, buffer.length);
+        if (leidos <= 0) {
+            return false;
+        }
+        posicion = 0;
+        limite = leidos;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        origen.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.kavak.flota.config;
+
+import com.kavak.flota.enums.ClaseCarga;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CargaTrabajoRoutingDataSource Tests")
+class CargaTrabajoRoutingDataSourceTest {
+
+    private final Map<CargaTrabajoRoutingDataSource.Clave, HikariDataSource> pools = new HashMap<>();
+    private CargaTrabajoRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        for (String region : new String[]{"AR", "BR"}) {
+            for (ClaseCarga clase : ClaseCarga.values()) {
+                // Los pools no se conectan hasta la primera conexión
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName(region + "-" + clase);
+                pools.put(new CargaTrabajoRoutingDataSource.Clave(region, clase), pool);
+            }
+        }
+        dataSource = new CargaTrabajoRoutingDataSource("AR", pools);
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.cerrar();
+    }
+
+    @Test
+    @DisplayName("Entregar el pool de la región y la clase de carga del hilo")
+    void testEnrutaPorRegionYClase() {
+        // Act
+        Object brAnalitica = ContextoRegion.ejecutarEn("BR",
+                () -> ContextoCargaTrabajo.ejecutarCon(ClaseCarga.ANALITICA, this::poolResuelto));
+        Object brTransaccional = ContextoRegion.ejecutarEn("BR", this::poolResuelto);
+        Object sinRegion = poolResuelto();
+
+        // Assert
+        assertSame(dataSource.pool("BR", ClaseCarga.ANALITICA), brAnalitica);
+        assertSame(dataSource.pool("BR", ClaseCarga.TRANSACCIONAL), brTransaccional);
+        assertSame(dataSource.pool("AR", ClaseCarga.TRANSACCIONAL), sinRegion);
+        assertNotSame(brTransaccional, sinRegion);
+    }
+
+    private Object poolResuelto() {
+        return dataSource.getResolvedDataSources().get(dataSource.determineCurrentLookupKey());
+    }
+}
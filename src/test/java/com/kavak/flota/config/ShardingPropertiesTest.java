@@ -0,0 +1,56 @@
+package com.kavak.flota.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardingProperties Tests")
+class ShardingPropertiesTest {
+
+    private ShardingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShardingProperties();
+        ShardingProperties.Region ar = new ShardingProperties.Region();
+        ar.setIndice(0);
+        ShardingProperties.Region br = new ShardingProperties.Region();
+        br.setIndice(1);
+        properties.getRegiones().put("AR", ar);
+        properties.getRegiones().put("BR", br);
+    }
+
+    @Test
+    @DisplayName("Obtener la región dueña a partir del id")
+    void testRegionDeId() {
+        // Act & Assert
+        assertEquals("AR", properties.regionDeId(15L));
+        assertEquals("BR", properties.regionDeId((1L << ShardingProperties.BITS_ID_LOCAL) + 15));
+        assertThrows(IllegalArgumentException.class,
+                () -> properties.regionDeId((7L << ShardingProperties.BITS_ID_LOCAL) + 1));
+    }
+
+    @Test
+    @DisplayName("Normalizar y validar el nombre de la región")
+    void testValidar() {
+        // Act & Assert
+        assertEquals("BR", properties.validar(" br "));
+        assertThrows(IllegalArgumentException.class, () -> properties.validar("CL"));
+    }
+
+    @Test
+    @DisplayName("Sin shards configurados todo pertenece a la región por defecto")
+    void testSinShards() {
+        // Arrange
+        ShardingProperties sinShards = new ShardingProperties();
+
+        // Act & Assert
+        assertFalse(sinShards.isHabilitado());
+        assertEquals("AR", sinShards.regionDeId(1L << ShardingProperties.BITS_ID_LOCAL));
+        assertEquals(List.of("AR"), sinShards.nombresRegiones());
+    }
+}
@@ -0,0 +1,81 @@
+package com.kavak.flota.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CubetaTokens Tests")
+class CubetaTokensTest {
+
+    private static final long UN_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Permitir una ráfaga hasta la capacidad y luego rechazar")
+    void testRafagaHastaCapacidad() {
+        // Arrange
+        CubetaTokens cubeta = new CubetaTokens(3, 1, 0);
+
+        // Act & Assert
+        assertEquals(0, cubeta.intentarConsumir(0));
+        assertEquals(0, cubeta.intentarConsumir(0));
+        assertEquals(0, cubeta.intentarConsumir(0));
+        assertTrue(cubeta.intentarConsumir(0) > 0);
+    }
+
+    @Test
+    @DisplayName("Informar la espera hasta el próximo token")
+    void testEsperaHastaProximoToken() {
+        // Arrange
+        CubetaTokens cubeta = new CubetaTokens(1, 2, 0);
+        cubeta.intentarConsumir(0);
+
+        // Act
+        long espera = cubeta.intentarConsumir(0);
+
+        // Assert
+        assertEquals(UN_SEGUNDO / 2, espera, 1);
+    }
+
+    @Test
+    @DisplayName("Recargar tokens con el tiempo sin superar la capacidad")
+    void testRecargaConElTiempo() {
+        // Arrange
+        CubetaTokens cubeta = new CubetaTokens(2, 1, 0);
+        cubeta.intentarConsumir(0);
+        cubeta.intentarConsumir(0);
+
+        // Act & Assert
+        assertEquals(0, cubeta.intentarConsumir(10 * UN_SEGUNDO));
+        assertEquals(0, cubeta.intentarConsumir(10 * UN_SEGUNDO));
+        assertTrue(cubeta.intentarConsumir(10 * UN_SEGUNDO) > 0);
+    }
+
+    @Test
+    @DisplayName("No conceder más tokens que la capacidad bajo acceso concurrente")
+    void testAccesoConcurrente() throws Exception {
+        // Arrange
+        CubetaTokens cubeta = new CubetaTokens(100, 0.001, 0);
+        AtomicInteger concedidos = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            hilos.submit(() -> {
+                if (cubeta.intentarConsumir(0) == 0) {
+                    concedidos.incrementAndGet();
+                }
+            });
+        }
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, concedidos.get());
+    }
+}
@@ -0,0 +1,69 @@
+package com.kavak.flota.filter;
+
+import com.kavak.flota.config.ControlAdmisionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdentificacionCliente Tests")
+class IdentificacionClienteTest {
+
+    private IdentificacionCliente identificacionCliente;
+
+    @BeforeEach
+    void setUp() {
+        ControlAdmisionProperties properties = new ControlAdmisionProperties();
+        properties.setProxiesConfiables(Set.of("10.0.0.1"));
+        identificacionCliente = new IdentificacionCliente(properties);
+    }
+
+    private MockHttpServletRequest peticion(String remota, String cliente) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/vehiculos");
+        request.setRemoteAddr(remota);
+        if (cliente != null) {
+            request.addHeader(IdentificacionCliente.CABECERA_CLIENTE, cliente);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("Ignorar X-Client-Id de una dirección que no es un proxy confiable")
+    void testCabeceraDeClienteDirecto() {
+        // Act
+        String cliente = identificacionCliente.identificar(peticion("192.168.1.20", "otro-cliente"));
+
+        // Assert
+        assertEquals("ip:192.168.1.20", cliente);
+    }
+
+    @Test
+    @DisplayName("Respetar X-Client-Id cuando la petición llega desde un proxy confiable")
+    void testCabeceraDesdeProxyConfiable() {
+        // Act
+        String cliente = identificacionCliente.identificar(peticion("10.0.0.1", "cliente-42"));
+        String sinCabecera = identificacionCliente.identificar(peticion("10.0.0.1", null));
+
+        // Assert
+        assertEquals("cliente:cliente-42", cliente);
+        assertEquals("ip:10.0.0.1", sinCabecera);
+    }
+
+    @Test
+    @DisplayName("Preferir el usuario autenticado a cualquier cabecera")
+    void testUsuarioAutenticado() {
+        // Arrange
+        MockHttpServletRequest request = peticion("10.0.0.1", "cliente-42");
+        request.setUserPrincipal(() -> "operador");
+
+        // Act
+        String cliente = identificacionCliente.identificar(request);
+
+        // Assert
+        assertEquals("usuario:operador", cliente);
+    }
+}
@@ -0,0 +1,176 @@
+package com.kavak.flota.graphql;
+
+import com.kavak.flota.config.EliminacionProperties;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.ConsultaCampos;
+import com.kavak.flota.repository.VehiculoRepository;
+import com.kavak.flota.service.HistorialKilometrajeService;
+import com.kavak.flota.service.InactividadService;
+import com.kavak.flota.service.InvalidacionCache;
+import com.kavak.flota.service.MantenimientoService;
+import com.kavak.flota.service.RecorridoStreaming;
+import com.kavak.flota.service.ReintentoOptimista;
+import com.kavak.flota.service.TallerService;
+import com.kavak.flota.service.TransicionEstadoService;
+import com.kavak.flota.service.VehiculoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.graphql.autoconfigure.GraphQlAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Endpoint GraphQL con los servicios y repositorios reales sobre una base en memoria,
+ * para contar las sentencias SQL de una respuesta con las estadísticas de Hibernate.
+ * Sin transacción de prueba: cada consulta corre como en producción y los datos ya están confirmados
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(GraphQlAutoConfiguration.class)
+@EnableConfigurationProperties({ShardingProperties.class, EliminacionProperties.class})
+@Import({FlotaGraphQlController.class, VehiculoService.class, MantenimientoService.class, Mapper.class,
+        EscalarLong.class})
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@DisplayName("FlotaGraphQlController Tests")
+class FlotaGraphQlControllerTest {
+
+    private static final int VEHICULOS = 500;
+    private static final long KILOMETRAJE_MAYOR_A_INT = 3_000_000_000L;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private RecorridoStreaming recorridoStreaming;
+
+    @MockitoBean
+    private ReintentoOptimista reintentoOptimista;
+
+    @MockitoBean
+    private HistorialKilometrajeService historialKilometrajeService;
+
+    @MockitoBean
+    private TallerService tallerService;
+
+    @MockitoBean
+    private InactividadService inactividadService;
+
+    @MockitoBean
+    private TransicionEstadoService transicionEstadoService;
+
+    @MockitoBean
+    private ConsultaCampos consultaCampos;
+
+    @MockitoBean
+    private InvalidacionCache invalidacionCache;
+
+    private GraphQlTester graphQlTester;
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        graphQlTester = ExecutionGraphQlServiceTester.create(graphQlService);
+        vehiculoRepository.deleteAll();
+        List<Vehiculo> vehiculos = new ArrayList<>(VEHICULOS);
+        IntStream.range(0, VEHICULOS).forEach(i -> {
+            Vehiculo vehiculo = Vehiculo.builder()
+                    .patente(String.format("AA%03dBB", i))
+                    .marca("Toyota")
+                    .modelo("Corolla")
+                    .anio(2023)
+                    .kilometraje(i == 0 ? KILOMETRAJE_MAYOR_A_INT : 15000L)
+                    .disponible(false)
+                    .region("AR")
+                    .build();
+            vehiculo.setMantenimientos(List.of(Mantenimiento.builder()
+                    .tipoMantenimiento(TipoMantenimiento.FRENOS)
+                    .descripcion("Cambio de pastillas")
+                    .estado(Estado.PENDIENTE)
+                    .kilometrajeEnMantenimiento(vehiculo.getKilometraje())
+                    .costoEstimado(100.0)
+                    .vehiculo(vehiculo)
+                    .build()));
+            vehiculos.add(vehiculo);
+        });
+        vehiculoRepository.saveAll(vehiculos);
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    @DisplayName("Resolver 500 vehículos con sus mantenimientos activos en dos sentencias SQL")
+    void testListadoConMantenimientosEnDosSentencias() {
+        // Act
+        GraphQlTester.Response respuesta = graphQlTester.document("""
+                        {
+                          vehiculos(limite: 500) {
+                            id
+                            kilometraje
+                            mantenimientosActivos { id kilometrajeEnMantenimiento }
+                          }
+                        }
+                        """)
+                .execute();
+
+        // Assert
+        respuesta.path("vehiculos").entityList(Object.class).hasSize(VEHICULOS);
+        respuesta.path("vehiculos[*].mantenimientosActivos[*].id").entityList(Object.class).hasSize(VEHICULOS);
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Exponer kilometrajes que no entran en Int de GraphQL")
+    void testKilometrajeLong() {
+        // Act & Assert
+        graphQlTester.document("""
+                        {
+                          vehiculos(limite: 1, filtro: { kilometrajeDesde: 3000000000 }) {
+                            kilometraje
+                            mantenimientos { kilometrajeEnMantenimiento }
+                          }
+                        }
+                        """)
+                .execute()
+                .path("vehiculos[0].kilometraje").entity(Long.class).isEqualTo(KILOMETRAJE_MAYOR_A_INT)
+                .path("vehiculos[0].mantenimientos[0].kilometrajeEnMantenimiento").entity(Long.class)
+                .isEqualTo(KILOMETRAJE_MAYOR_A_INT);
+    }
+}
@@ -0,0 +1,205 @@
+package com.kavak.flota.grpc;
+
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.exception.KilometrajeInvalidoException;
+import com.kavak.flota.exception.VehiculoNotFoundException;
+import com.kavak.flota.grpc.v1.Disponibilidad;
+import com.kavak.flota.grpc.v1.DisponibilidadRequest;
+import com.kavak.flota.grpc.v1.LecturaKilometraje;
+import com.kavak.flota.grpc.v1.ObtenerVehiculoRequest;
+import com.kavak.flota.grpc.v1.ResultadoLecturas;
+import com.kavak.flota.grpc.v1.Vehiculo;
+import com.kavak.flota.grpc.v1.VehiculosGrpc;
+import com.kavak.flota.service.VehiculoService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Servicio gRPC sobre un servidor en proceso: las llamadas pasan por la serialización protobuf y el
+ * interceptor de región igual que por la red
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VehiculosGrpcService Tests")
+class VehiculosGrpcServiceTest {
+
+    @Mock
+    private VehiculoService vehiculoService;
+
+    private Server servidor;
+    private ManagedChannel canal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String nombre = InProcessServerBuilder.generateName();
+        VehiculosGrpcService servicio = new VehiculosGrpcService(vehiculoService,
+                new RegionGrpcInterceptor(new ShardingProperties()), new MapperGrpc());
+        servidor = InProcessServerBuilder.forName(nombre)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(servicio, new RegionGrpcInterceptor(new ShardingProperties())))
+                .build()
+                .start();
+        canal = InProcessChannelBuilder.forName(nombre).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        canal.shutdownNow();
+        servidor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Obtener vehículo por id")
+    void testObtenerVehiculo() {
+        // Arrange
+        when(vehiculoService.obtenerPorId(1L)).thenReturn(VehiculoDTO.builder()
+                .id(1L)
+                .patente("ABC123")
+                .marca("Toyota")
+                .modelo("Corolla")
+                .anio(2023)
+                .kilometraje(15000L)
+                .disponible(true)
+                .region("AR")
+                .fechaCreacion(LocalDateTime.of(2030, 1, 7, 10, 0))
+                .build());
+
+        // Act
+        Vehiculo vehiculo = VehiculosGrpc.newBlockingStub(canal)
+                .obtenerVehiculo(ObtenerVehiculoRequest.newBuilder().setId(1L).build());
+
+        // Assert
+        assertEquals("ABC123", vehiculo.getPatente());
+        assertEquals(15000L, vehiculo.getKilometraje());
+        assertTrue(vehiculo.getDisponible());
+        assertFalse(vehiculo.hasLatitud());
+        assertEquals("2030-01-07T10:00", vehiculo.getFechaCreacion());
+        assertEquals("", vehiculo.getFechaActualizacion());
+    }
+
+    @Test
+    @DisplayName("Informar NOT_FOUND cuando el vehículo no existe")
+    void testObtenerVehiculoNoEncontrado() {
+        // Arrange
+        when(vehiculoService.obtenerPorId(999L))
+                .thenThrow(new VehiculoNotFoundException("Vehículo con ID 999 no encontrado"));
+        VehiculosGrpc.VehiculosBlockingStub stub = VehiculosGrpc.newBlockingStub(canal);
+
+        // Act
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> stub.obtenerVehiculo(ObtenerVehiculoRequest.newBuilder().setId(999L).build()));
+
+        // Assert
+        assertEquals(Status.Code.NOT_FOUND, error.getStatus().getCode());
+        assertEquals("Vehículo con ID 999 no encontrado", error.getStatus().getDescription());
+    }
+
+    @Test
+    @DisplayName("Rechazar la búsqueda sin id ni patente")
+    void testObtenerVehiculoSinCriterio() {
+        // Act
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> VehiculosGrpc.newBlockingStub(canal).obtenerVehiculo(ObtenerVehiculoRequest.getDefaultInstance()));
+
+        // Assert
+        assertEquals(Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+        verifyNoInteractions(vehiculoService);
+    }
+
+    @Test
+    @DisplayName("Verificar disponibilidades en un stream bidireccional, una respuesta por consulta")
+    void testVerificarDisponibilidades() throws Exception {
+        // Arrange
+        when(vehiculoService.verificarDisponibilidad(1L)).thenReturn(true);
+        when(vehiculoService.verificarDisponibilidad(2L)).thenReturn(false);
+        List<Disponibilidad> respuestas = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> fin = new CompletableFuture<>();
+
+        // Act
+        StreamObserver<DisponibilidadRequest> consultas = VehiculosGrpc.newStub(canal)
+                .verificarDisponibilidades(observador(respuestas::add, fin));
+        consultas.onNext(DisponibilidadRequest.newBuilder().setVehiculoId(1L).build());
+        consultas.onNext(DisponibilidadRequest.newBuilder().setVehiculoId(2L).build());
+        consultas.onNext(DisponibilidadRequest.newBuilder().setVehiculoId(1L).build());
+        consultas.onCompleted();
+        fin.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 1L), respuestas.stream().map(Disponibilidad::getVehiculoId).toList());
+        assertEquals(List.of(true, false, true), respuestas.stream().map(Disponibilidad::getDisponible).toList());
+    }
+
+    @Test
+    @DisplayName("Ingerir lecturas de kilometraje sin cortar el stream por las rechazadas")
+    void testRegistrarKilometrajes() throws Exception {
+        // Arrange
+        when(vehiculoService.actualizarKilometraje(1L, 16000L)).thenReturn(VehiculoDTO.builder().id(1L).build());
+        when(vehiculoService.actualizarKilometraje(2L, 100L))
+                .thenThrow(new KilometrajeInvalidoException("El nuevo kilometraje (100) no puede ser menor que el actual (500)"));
+        List<ResultadoLecturas> resultados = new ArrayList<>();
+        CompletableFuture<Void> fin = new CompletableFuture<>();
+
+        // Act
+        StreamObserver<LecturaKilometraje> lecturas = VehiculosGrpc.newStub(canal)
+                .registrarKilometrajes(observador(resultados::add, fin));
+        lecturas.onNext(LecturaKilometraje.newBuilder().setVehiculoId(1L).setKilometraje(16000L).build());
+        lecturas.onNext(LecturaKilometraje.newBuilder().setVehiculoId(2L).setKilometraje(100L).build());
+        lecturas.onNext(LecturaKilometraje.newBuilder().setVehiculoId(3L).setKilometraje(-1L).build());
+        lecturas.onCompleted();
+        fin.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, resultados.size());
+        ResultadoLecturas resultado = resultados.get(0);
+        assertEquals(1, resultado.getAceptadas());
+        assertEquals(2, resultado.getRechazadas());
+        assertTrue(resultado.getErrores(0).startsWith("Vehículo 2: "));
+        verify(vehiculoService, never()).actualizarKilometraje(eq(3L), anyLong());
+    }
+
+    private static <T> StreamObserver<T> observador(Consumer<T> consumidor,
+                                                    CompletableFuture<Void> fin) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T valor) {
+                consumidor.accept(valor);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                fin.completeExceptionally(error);
+            }
+
+            @Override
+            public void onCompleted() {
+                fin.complete(null);
+            }
+        };
+    }
+}
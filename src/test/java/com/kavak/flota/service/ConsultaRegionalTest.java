@@ -0,0 +1,149 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.enums.ClaseCarga;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConsultaRegional Tests")
+class ConsultaRegionalTest {
+
+    private ConsultaRegional consultaRegional;
+
+    @BeforeEach
+    void setUp() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.getRegiones().put("AR", region(0));
+        properties.getRegiones().put("BR", region(1));
+        properties.getRegiones().put("MX", region(2));
+        consultaRegional = new ConsultaRegional(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultaRegional.cerrar();
+    }
+
+    @Test
+    @DisplayName("Cada región corre con su región y la clase de carga del llamador")
+    void testEnTodasFijaRegionYClase() {
+        // Act
+        List<String> resultado = ContextoCargaTrabajo.ejecutarCon(ClaseCarga.ANALITICA,
+                () -> consultaRegional.enTodas(() -> ContextoRegion.actual() + "-" + ContextoCargaTrabajo.actual()));
+
+        // Assert
+        assertEquals(List.of("AR-ANALITICA", "BR-ANALITICA", "MX-ANALITICA"), resultado);
+        assertNull(ContextoRegion.actual());
+    }
+
+    @Test
+    @DisplayName("Concatenar y recorrer los resultados de todas las regiones")
+    void testConcatenarYRecorrer() {
+        // Act
+        List<String> concatenados = consultaRegional.concatenarEnTodas(
+                () -> List.of(ContextoRegion.actual() + "1", ContextoRegion.actual() + "2"));
+        List<String> recorridos = new ArrayList<>();
+        consultaRegional.<String>recorrerEnTodas(
+                consumidor -> consumidor.accept(ContextoRegion.actual()), recorridos::add);
+
+        // Assert
+        assertEquals(List.of("AR1", "AR2", "BR1", "BR2", "MX1", "MX2"), concatenados);
+        assertEquals(3, recorridos.size());
+        assertTrue(recorridos.containsAll(List.of("AR", "BR", "MX")));
+    }
+
+    @Test
+    @DisplayName("Si una región falla, falla la consulta completa con la excepción original")
+    void testEnTodasPropagaFallo() {
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                consultaRegional.enTodas(() -> {
+                    if ("BR".equals(ContextoRegion.actual())) {
+                        throw new IllegalStateException("shard caído");
+                    }
+                    return 1;
+                }));
+        assertEquals("shard caído", error.getMessage());
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Si una región falla, los recorridos de las demás regiones se detienen")
+    void testRecorrerEnTodasCancelaRegionesRestantes() throws InterruptedException {
+        // Arrange
+        CountDownLatch recorriendo = new CountDownLatch(2);
+        CountDownLatch detenidas = new CountDownLatch(2);
+        AtomicInteger entregados = new AtomicInteger();
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                consultaRegional.<String>recorrerEnTodas(consumidor -> {
+                    if ("BR".equals(ContextoRegion.actual())) {
+                        awaitSinInterrupcion(recorriendo);
+                        throw new IllegalStateException("shard caído");
+                    }
+                    recorriendo.countDown();
+                    try {
+                        while (true) {
+                            consumidor.accept(ContextoRegion.actual());
+                            // Cede el carrier en cada elemento: con un solo CPU, BR también tiene que correr
+                            Thread.sleep(1);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        detenidas.countDown();
+                    }
+                }, elemento -> entregados.incrementAndGet()));
+
+        // Assert
+        assertEquals("shard caído", error.getMessage());
+        assertTrue(detenidas.await(5, TimeUnit.SECONDS));
+        int alDetenerse = entregados.get();
+        Thread.sleep(50);
+        assertEquals(alDetenerse, entregados.get());
+    }
+
+    @Test
+    @DisplayName("Sin shards la consulta corre en el hilo actual con la región por defecto")
+    void testUnaSolaRegion() {
+        // Arrange
+        ConsultaRegional sinShards = new ConsultaRegional(new ShardingProperties());
+        Thread llamador = Thread.currentThread();
+
+        // Act
+        List<Boolean> resultado = sinShards.enTodas(() -> Thread.currentThread() == llamador
+                && "AR".equals(ContextoRegion.actual()));
+
+        // Assert
+        assertEquals(List.of(true), resultado);
+        sinShards.cerrar();
+    }
+
+    private static void awaitSinInterrupcion(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ShardingProperties.Region region(int indice) {
+        ShardingProperties.Region region = new ShardingProperties.Region();
+        region.setIndice(indice);
+        return region;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.ResumenFlotaDTO;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.repository.ConteoFlota;
+import com.kavak.flota.repository.VehiculoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ContadoresFlota Tests")
+class ContadoresFlotaTest {
+
+    private VehiculoRepository vehiculoRepository;
+    private ContadoresFlota contadoresFlota;
+
+    @BeforeEach
+    void setUp() {
+        vehiculoRepository = mock(VehiculoRepository.class);
+        contadoresFlota = new ContadoresFlota(vehiculoRepository,
+                new ConsultaRegional(new ShardingProperties()), new SimpleMeterRegistry());
+        when(vehiculoRepository.contarFlota()).thenReturn(List.of(
+                conteo("VEHICULO", "DISPONIBLE", null, 8L),
+                conteo("VEHICULO", "NO_DISPONIBLE", null, 2L),
+                conteo("MANTENIMIENTO", "PENDIENTE", "FRENOS", 1L),
+                conteo("MANTENIMIENTO", "EN_PROCESO", "CAMBIO_ACEITE", 1L),
+                conteo("MANTENIMIENTO", "COMPLETADO", "FRENOS", 5L)));
+        contadoresFlota.inicializar();
+    }
+
+    @Test
+    @DisplayName("Inicializar los contadores con la consulta agregada")
+    void testInicializar() {
+        // Act
+        ResumenFlotaDTO resumen = contadoresFlota.resumen();
+
+        // Assert
+        assertEquals(10L, resumen.getTotalVehiculos());
+        assertEquals(8L, resumen.getVehiculosDisponibles());
+        assertEquals(1L, resumen.getMantenimientosPorEstado().get("PENDIENTE"));
+        assertEquals(0L, resumen.getMantenimientosPorEstado().get("CANCELADO"));
+        assertEquals(6L, resumen.getMantenimientosPorTipo().get("FRENOS"));
+        assertEquals(1L, resumen.getMantenimientosActivosPorTipo().get("FRENOS"));
+        assertNotNull(resumen.getUltimaReconciliacion());
+    }
+
+    @Test
+    @DisplayName("Aplicar alta y transición de mantenimiento")
+    void testAplicarCambios() {
+        // Act: un vehículo disponible entra a mantenimiento y luego se completa
+        contadoresFlota.aplicar(CambioFlota.mantenimiento(TipoMantenimiento.FRENOS, null, Estado.PENDIENTE, true, false));
+        contadoresFlota.aplicar(CambioFlota.mantenimiento(
+                TipoMantenimiento.FRENOS, Estado.PENDIENTE, Estado.COMPLETADO, false, true));
+        contadoresFlota.aplicar(CambioFlota.vehiculoCreado(true));
+
+        // Assert
+        ResumenFlotaDTO resumen = contadoresFlota.resumen();
+        assertEquals(9L, resumen.getVehiculosDisponibles());
+        assertEquals(2L, resumen.getVehiculosNoDisponibles());
+        assertEquals(1L, resumen.getMantenimientosPorEstado().get("PENDIENTE"));
+        assertEquals(6L, resumen.getMantenimientosPorEstado().get("COMPLETADO"));
+    }
+
+    @Test
+    @DisplayName("Reconciliar corrige solo el desvío")
+    void testReconciliar() {
+        // Arrange: un cambio que nunca llegó a los contadores
+        when(vehiculoRepository.contarFlota()).thenReturn(List.of(
+                conteo("VEHICULO", "DISPONIBLE", null, 7L),
+                conteo("VEHICULO", "NO_DISPONIBLE", null, 3L),
+                conteo("MANTENIMIENTO", "PENDIENTE", "FRENOS", 2L),
+                conteo("MANTENIMIENTO", "EN_PROCESO", "CAMBIO_ACEITE", 1L),
+                conteo("MANTENIMIENTO", "COMPLETADO", "FRENOS", 5L)));
+
+        // Act
+        long corregidos = contadoresFlota.reconciliar();
+
+        // Assert
+        assertEquals(3L, corregidos);
+        ResumenFlotaDTO resumen = contadoresFlota.resumen();
+        assertEquals(7L, resumen.getVehiculosDisponibles());
+        assertEquals(2L, resumen.getMantenimientosPorEstado().get("PENDIENTE"));
+    }
+
+    private static ConteoFlota conteo(String grupo, String clave, String tipo, Long cantidad) {
+        return new ConteoFlota() {
+            @Override
+            public String getGrupo() {
+                return grupo;
+            }
+
+            @Override
+            public String getClave() {
+                return clave;
+            }
+
+            @Override
+            public String getTipo() {
+                return tipo;
+            }
+
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
+}
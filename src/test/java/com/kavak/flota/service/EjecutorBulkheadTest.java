@@ -0,0 +1,97 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.BulkheadProperties;
+import com.kavak.flota.config.ContextoCargaTrabajo;
+import com.kavak.flota.enums.ClaseCarga;
+import com.kavak.flota.exception.BulkheadSaturadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EjecutorBulkhead Tests")
+class EjecutorBulkheadTest {
+
+    private EjecutorBulkhead ejecutorBulkhead;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getParticiones().put(ClaseCarga.ANALITICA, new BulkheadProperties.Particion(1, 1, 1));
+        ejecutorBulkhead = new EjecutorBulkhead(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ejecutorBulkhead.cerrar();
+    }
+
+    @Test
+    @DisplayName("La tarea corre con la clase de carga de su bulkhead")
+    void testEnviarFijaClaseDeCarga() {
+        // Act
+        ClaseCarga clase = ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, ContextoCargaTrabajo::actual).join();
+
+        // Assert
+        assertEquals(ClaseCarga.ANALITICA, clase);
+        assertEquals(ClaseCarga.TRANSACCIONAL, ContextoCargaTrabajo.actual());
+    }
+
+    @Test
+    @DisplayName("Rechazar cuando hilos y cola del bulkhead están ocupados")
+    void testEnviarBulkheadSaturado() throws InterruptedException {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> {
+            iniciada.countDown();
+            return esperar(liberar);
+        });
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> true);
+
+        // Act & Assert
+        assertThrows(BulkheadSaturadoException.class,
+                () -> ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> true));
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Completar el futuro con la excepción original de la tarea")
+    void testEnviarPropagaExcepcion() {
+        // Act
+        CompletableFuture<Object> futuro = ejecutorBulkhead.enviar(ClaseCarga.ANALITICA, () -> {
+            throw new IllegalStateException("fallo");
+        });
+
+        // Assert
+        CompletionException ex = assertThrows(CompletionException.class, futuro::join);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals("fallo", ex.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("La carga transaccional no tiene ejecutor: corre en el hilo de la petición")
+    void testTransaccionalSinEjecutor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> ejecutorBulkhead.enviar(ClaseCarga.TRANSACCIONAL, () -> true));
+    }
+
+    private static boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
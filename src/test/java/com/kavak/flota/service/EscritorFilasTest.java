@@ -0,0 +1,50 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.enums.FormatoExportacion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EscritorFilas Tests")
+class EscritorFilasTest {
+
+    @Test
+    @DisplayName("CSV con encabezado, campos escapados y nulos vacíos")
+    void testCsv() throws IOException {
+        // Arrange
+        StringWriter destino = new StringWriter();
+        EscritorFilas escritor = EscritorFilas.para(FormatoExportacion.CSV, destino, JsonMapper.builder().build());
+
+        // Act
+        escritor.encabezado(new String[]{"id", "descripcion", "costo_final"});
+        escritor.fila(new Object[]{1L, "Cambio de \"aceite\", filtro", null});
+        escritor.fila(new Object[]{2L, "Frenos", 8000.0});
+
+        // Assert
+        assertEquals("id,descripcion,costo_final\r\n" +
+                "1,\"Cambio de \"\"aceite\"\", filtro\",\r\n" +
+                "2,Frenos,8000.0\r\n", destino.toString());
+    }
+
+    @Test
+    @DisplayName("NDJSON con un objeto por línea")
+    void testNdjson() throws IOException {
+        // Arrange
+        StringWriter destino = new StringWriter();
+        EscritorFilas escritor = EscritorFilas.para(FormatoExportacion.NDJSON, destino, JsonMapper.builder().build());
+
+        // Act
+        escritor.encabezado(new String[]{"id", "patente", "disponible"});
+        escritor.fila(new Object[]{1L, "ABC123", true});
+        escritor.fila(new Object[]{2L, "XYZ\n789", null});
+
+        // Assert
+        assertEquals("{\"id\":1,\"patente\":\"ABC123\",\"disponible\":true}\n" +
+                "{\"id\":2,\"patente\":\"XYZ\\n789\",\"disponible\":null}\n", destino.toString());
+    }
+}
@@ -0,0 +1,105 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.dto.UsoKilometrajeDTO;
+import com.kavak.flota.enums.AgrupacionUso;
+import com.kavak.flota.repository.LecturaKilometrajeDiariaRepository;
+import com.kavak.flota.repository.UsoDiarioKilometraje;
+import com.kavak.flota.repository.VehiculoRepository;
+import com.kavak.flota.util.CodificadorLecturas;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HistorialKilometrajeService Tests")
+class HistorialKilometrajeServiceTest {
+
+    @Mock
+    private LecturaKilometrajeDiariaRepository lecturaRepository;
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @InjectMocks
+    private HistorialKilometrajeService historialKilometrajeService;
+
+    @Test
+    @DisplayName("Registrar lectura como delta sobre el kilometraje anterior")
+    void testRegistrarLectura() {
+        // Act
+        historialKilometrajeService.registrarLectura(1L, 15000L, 15045L, LocalDateTime.of(2026, 3, 2, 1, 0));
+
+        // Assert
+        verify(lecturaRepository).registrarLectura(eq(1L), eq(LocalDate.of(2026, 3, 2)), eq(15000L), eq(15045L),
+                aryEq(CodificadorLecturas.codificar(3600, 45)));
+    }
+
+    @Test
+    @DisplayName("Agrupar uso de la flota por semana desde el lunes")
+    void testAgruparPorSemana() {
+        // Arrange: domingo 1/3, lunes 2/3 y miércoles 4/3
+        List<UsoDiarioKilometraje> dias = List.of(
+                uso(LocalDate.of(2026, 3, 1), 100L, 4L, 2L),
+                uso(LocalDate.of(2026, 3, 2), 50L, 2L, 1L),
+                uso(LocalDate.of(2026, 3, 4), 70L, 3L, 3L));
+
+        // Act
+        List<UsoKilometrajeDTO> semanas = HistorialKilometrajeService.agrupar(dias, AgrupacionUso.SEMANA, true);
+
+        // Assert
+        assertEquals(2, semanas.size());
+        assertEquals(LocalDate.of(2026, 2, 23), semanas.get(0).getPeriodo());
+        assertEquals(100L, semanas.get(0).getKilometros());
+        assertEquals(LocalDate.of(2026, 3, 2), semanas.get(1).getPeriodo());
+        assertEquals(120L, semanas.get(1).getKilometros());
+        assertEquals(5L, semanas.get(1).getLecturas());
+        assertEquals(3L, semanas.get(1).getVehiculosActivos());
+    }
+
+    @Test
+    @DisplayName("Rechazar rango mayor al permitido o agrupación inválida")
+    void testValidarConsulta() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> historialKilometrajeService.obtenerUsoFlota(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 3, 1), "DIA"));
+        assertThrows(IllegalArgumentException.class, () -> historialKilometrajeService.obtenerUsoFlota(
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7), "MES"));
+        verifyNoInteractions(lecturaRepository);
+    }
+
+    private static UsoDiarioKilometraje uso(LocalDate fecha, Long kilometros, Long lecturas, Long vehiculos) {
+        return new UsoDiarioKilometraje() {
+            @Override
+            public LocalDate getFecha() {
+                return fecha;
+            }
+
+            @Override
+            public Long getKilometros() {
+                return kilometros;
+            }
+
+            @Override
+            public Long getLecturas() {
+                return lecturas;
+            }
+
+            @Override
+            public Long getVehiculos() {
+                return vehiculos;
+            }
+        };
+    }
+}
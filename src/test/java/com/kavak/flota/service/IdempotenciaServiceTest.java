@@ -0,0 +1,236 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.IdempotenciaProperties;
+import com.kavak.flota.entity.RegistroIdempotencia;
+import com.kavak.flota.exception.IdempotenciaClaveReutilizadaException;
+import com.kavak.flota.exception.IdempotenciaEnCursoException;
+import com.kavak.flota.repository.RegistroIdempotenciaRepository;
+import com.kavak.flota.service.IdempotenciaService.RespuestaIdempotente;
+import com.kavak.flota.service.IdempotenciaService.Resultado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotenciaService Tests")
+class IdempotenciaServiceTest {
+
+    @Mock
+    private RegistroIdempotenciaRepository registroRepository;
+
+    private static final String HUELLA = "huella-cuerpo";
+
+    private IdempotenciaProperties properties;
+    private IdempotenciaService idempotenciaService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotenciaProperties();
+        properties.setEsperaMaxima(Duration.ofSeconds(5));
+        idempotenciaService = new IdempotenciaService(properties, registroRepository);
+    }
+
+    private RespuestaIdempotente respuesta(int status) {
+        return new RespuestaIdempotente(status, "application/json", "{\"id\":1}".getBytes());
+    }
+
+    @Test
+    @DisplayName("Reproducir la respuesta original ante un reintento con la misma clave")
+    void testReintentoReproduceRespuesta() {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act
+        Resultado primero = idempotenciaService.ejecutar("clave-1", HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta(201);
+        });
+        Resultado reintento = idempotenciaService.ejecutar("clave-1", HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta(201);
+        });
+
+        // Assert
+        assertFalse(primero.reproducida());
+        assertTrue(reintento.reproducida());
+        assertEquals(201, reintento.respuesta().status());
+        assertEquals(1, ejecuciones.get());
+        verifyNoInteractions(registroRepository);
+    }
+
+    @Test
+    @DisplayName("No guardar respuestas de error de servidor")
+    void testErrorDeServidorNoSeGuarda() {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act
+        idempotenciaService.ejecutar("clave-2", HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta(500);
+        });
+        Resultado reintento = idempotenciaService.ejecutar("clave-2", HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta(201);
+        });
+
+        // Assert
+        assertFalse(reintento.reproducida());
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("Liberar la clave cuando la ejecución lanza una excepción")
+    void testExcepcionLiberaClave() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> {
+            idempotenciaService.ejecutar("clave-3", HUELLA, () -> {
+                throw new IllegalStateException("fallo");
+            });
+        });
+        Resultado reintento = idempotenciaService.ejecutar("clave-3", HUELLA, () -> respuesta(201));
+
+        // Assert
+        assertFalse(reintento.reproducida());
+    }
+
+    @Test
+    @DisplayName("Peticiones concurrentes con la misma clave comparten una única ejecución")
+    void testPeticionesConcurrentesSeCoalescen() throws Exception {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<Resultado> original = hilos.submit(() -> idempotenciaService.ejecutar("clave-4", HUELLA, () -> {
+                ejecuciones.incrementAndGet();
+                enEjecucion.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return respuesta(201);
+            }));
+            assertTrue(enEjecucion.await(5, TimeUnit.SECONDS));
+            Future<Resultado> concurrente = hilos.submit(() -> idempotenciaService.ejecutar("clave-4", HUELLA, () -> {
+                ejecuciones.incrementAndGet();
+                return respuesta(201);
+            }));
+            liberar.countDown();
+
+            // Assert
+            assertFalse(original.get(5, TimeUnit.SECONDS).reproducida());
+            assertTrue(concurrente.get(5, TimeUnit.SECONDS).reproducida());
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Informar ejecución en curso si la original no termina dentro de la espera máxima")
+    void testEsperaMaximaSuperada() throws Exception {
+        // Arrange
+        properties.setEsperaMaxima(Duration.ofMillis(50));
+        idempotenciaService = new IdempotenciaService(properties, registroRepository);
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newSingleThreadExecutor();
+
+        try {
+            hilos.submit(() -> idempotenciaService.ejecutar("clave-5", HUELLA, () -> {
+                enEjecucion.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return respuesta(201);
+            }));
+            assertTrue(enEjecucion.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            assertThrows(IdempotenciaEnCursoException.class, () -> {
+                idempotenciaService.ejecutar("clave-5", HUELLA, () -> respuesta(201));
+            });
+        } finally {
+            liberar.countDown();
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("En modo persistente reproducir la respuesta guardada en la base")
+    void testModoPersistenteReproduceDesdeBase() {
+        // Arrange
+        properties.setPersistente(true);
+        idempotenciaService = new IdempotenciaService(properties, registroRepository);
+        RegistroIdempotencia registro = RegistroIdempotencia.builder()
+                .clave("clave-6").huellaCuerpo(HUELLA).status(201).contentType("application/json").cuerpo(new byte[0]).build();
+        when(registroRepository.findById("clave-6")).thenReturn(Optional.of(registro));
+
+        // Act
+        Resultado resultado = idempotenciaService.ejecutar("clave-6", HUELLA, () -> respuesta(201));
+
+        // Assert
+        assertTrue(resultado.reproducida());
+        verify(registroRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Rechazar la reutilización de una clave con un cuerpo distinto")
+    void testClaveReutilizadaConOtroCuerpo() {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+        idempotenciaService.ejecutar("clave-7", HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta(201);
+        });
+
+        // Act & Assert
+        assertThrows(IdempotenciaClaveReutilizadaException.class, () -> {
+            idempotenciaService.ejecutar("clave-7", "otra-huella", () -> {
+                ejecuciones.incrementAndGet();
+                return respuesta(201);
+            });
+        });
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("En modo persistente rechazar la clave guardada con otro cuerpo")
+    void testModoPersistenteClaveReutilizada() {
+        // Arrange
+        properties.setPersistente(true);
+        idempotenciaService = new IdempotenciaService(properties, registroRepository);
+        RegistroIdempotencia registro = RegistroIdempotencia.builder()
+                .clave("clave-8").huellaCuerpo(HUELLA).status(201).cuerpo(new byte[0]).build();
+        when(registroRepository.findById("clave-8")).thenReturn(Optional.of(registro));
+
+        // Act & Assert
+        assertThrows(IdempotenciaClaveReutilizadaException.class, () -> {
+            idempotenciaService.ejecutar("clave-8", "otra-huella", () -> respuesta(201));
+        });
+        verify(registroRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,89 @@
+package com.kavak.flota.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImportacionMantenimientosService Tests")
+class ImportacionMantenimientosServiceTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Map<String, Integer> indices;
+    private Map<String, Long> vehiculos;
+
+    @BeforeEach
+    void setUp() {
+        indices = ImportacionMantenimientosService.indicesPorColumna(new String[]{
+                "patente", "tipo_mantenimiento", "estado", "descripcion", "kilometraje", "costo_estimado",
+                "costo_final", "fecha"});
+        vehiculos = Map.of("ABC123", 1L);
+    }
+
+    @Test
+    @DisplayName("Convertir un registro válido a los valores del COPY")
+    void testInterpretarValido() {
+        // Act
+        Object[] fila = ImportacionMantenimientosService.interpretar(
+                new String[]{"abc123", "frenos", "completado", "Pastillas", "45000", "8000", "", "2019-05-10"},
+                indices, vehiculos, AHORA);
+
+        // Assert
+        assertEquals(1L, fila[0]);
+        assertEquals("FRENOS", fila[1]);
+        assertEquals("COMPLETADO", fila[2]);
+        assertEquals(45000L, fila[4]);
+        assertEquals(8000.0, fila[5]);
+        assertNull(fila[6]);
+        assertEquals(LocalDateTime.of(2019, 5, 10, 0, 0), fila[7]);
+    }
+
+    @Test
+    @DisplayName("Rechazar registros con patente inexistente, tipo o estado inválidos")
+    void testInterpretarInvalido() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.interpretar(
+                new String[]{"ZZZ999", "FRENOS", "COMPLETADO", "x", "1", "1", "", ""}, indices, vehiculos, AHORA));
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.interpretar(
+                new String[]{"ABC123", "PINTURA", "COMPLETADO", "x", "1", "1", "", ""}, indices, vehiculos, AHORA));
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.interpretar(
+                new String[]{"ABC123", "FRENOS", "TERMINADO", "x", "1", "1", "", ""}, indices, vehiculos, AHORA));
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.interpretar(
+                new String[]{"ABC123", "FRENOS", "COMPLETADO", "x", "-5", "1", "", ""}, indices, vehiculos, AHORA));
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción si faltan columnas obligatorias")
+    void testEncabezadoIncompleto() {
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ImportacionMantenimientosService.indicesPorColumna(new String[]{"patente", "estado"}));
+        assertTrue(ex.getMessage().contains("tipo_mantenimiento"));
+    }
+
+    @Test
+    @DisplayName("Rechazar filas activas de un tipo que el vehículo ya tiene activo, en la base o en el archivo")
+    void testReservarActivo() {
+        // Arrange
+        Map<Long, Set<String>> tiposActivos = new HashMap<>();
+        tiposActivos.put(1L, new HashSet<>(Set.of("FRENOS")));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.reservarActivo(
+                new Object[]{1L, "FRENOS", "PENDIENTE"}, tiposActivos));
+        assertTrue(ImportacionMantenimientosService.reservarActivo(
+                new Object[]{1L, "LLANTAS", "EN_PROCESO"}, tiposActivos));
+        assertThrows(IllegalArgumentException.class, () -> ImportacionMantenimientosService.reservarActivo(
+                new Object[]{1L, "LLANTAS", "PENDIENTE"}, tiposActivos));
+        assertFalse(ImportacionMantenimientosService.reservarActivo(
+                new Object[]{1L, "FRENOS", "COMPLETADO"}, tiposActivos));
+    }
+}
@@ -0,0 +1,159 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.InactividadDTO;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.repository.InactividadAgregada;
+import com.kavak.flota.repository.InactividadDiariaRepository;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.VehiculoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InactividadService Tests")
+class InactividadServiceTest {
+
+    @Mock
+    private InactividadDiariaRepository inactividadRepository;
+
+    @Mock
+    private MantenimientoRepository mantenimientoRepository;
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Spy
+    private ConsultaRegional consultaRegional = new ConsultaRegional(new ShardingProperties());
+
+    @InjectMocks
+    private InactividadService inactividadService;
+
+    @Test
+    @DisplayName("Repartir un intervalo entre los días que abarca")
+    void testRepartirPorDia() {
+        // Act
+        Map<LocalDate, Long> porDia = InactividadService.repartirPorDia(
+                LocalDateTime.of(2026, 3, 1, 22, 0), LocalDateTime.of(2026, 3, 3, 1, 30));
+
+        // Assert
+        assertEquals(Map.of(
+                LocalDate.of(2026, 3, 1), 7200L,
+                LocalDate.of(2026, 3, 2), 86400L,
+                LocalDate.of(2026, 3, 3), 5400L), porDia);
+        assertTrue(InactividadService.repartirPorDia(
+                LocalDateTime.of(2026, 3, 1, 10, 0), LocalDateTime.of(2026, 3, 1, 10, 0)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Acumular el tiempo en PENDIENTE al salir del estado")
+    void testRegistrarSalidaDeEstado() {
+        // Arrange
+        Mantenimiento mantenimiento = mantenimiento(Estado.PENDIENTE, LocalDateTime.of(2026, 3, 1, 23, 0));
+
+        // Act
+        inactividadService.registrarSalidaDeEstado(mantenimiento, LocalDateTime.of(2026, 3, 2, 1, 0));
+
+        // Assert
+        verify(inactividadRepository).acumular(1L, LocalDate.of(2026, 3, 1), "FRENOS", "PENDIENTE", 3600L);
+        verify(inactividadRepository).acumular(1L, LocalDate.of(2026, 3, 2), "FRENOS", "PENDIENTE", 3600L);
+    }
+
+    @Test
+    @DisplayName("No acumular nada al salir de un estado terminal")
+    void testRegistrarSalidaDeEstadoTerminal() {
+        // Arrange
+        Mantenimiento mantenimiento = mantenimiento(Estado.COMPLETADO, LocalDateTime.of(2026, 3, 1, 8, 0));
+        mantenimiento.setFechaFinalizacion(LocalDateTime.of(2026, 3, 1, 9, 0));
+
+        // Act
+        inactividadService.registrarSalidaDeEstado(mantenimiento, LocalDateTime.of(2026, 3, 1, 10, 0));
+
+        // Assert
+        verify(inactividadRepository, never()).acumular(anyLong(), any(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Combinar acumulados por estado y ordenar por tiempo total")
+    void testObtenerInactividadPorVehiculo() {
+        // Arrange
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 12, 31);
+        when(inactividadRepository.sumarPorVehiculo(desde, hasta, null)).thenReturn(List.of(
+                agregada(1L, Estado.PENDIENTE, 3600L),
+                agregada(1L, Estado.EN_PROCESO, 7200L),
+                agregada(2L, Estado.EN_PROCESO, 36000L)));
+        when(mantenimientoRepository.findInactividadEnCurso(eq(Estado.getEstadosActivos()), any(), isNull()))
+                .thenReturn(List.of());
+
+        // Act
+        List<InactividadDTO> resultado = inactividadService.obtenerInactividad(desde, hasta, "vehiculo", null);
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals("2", resultado.get(0).getClave());
+        assertEquals(10.0, resultado.get(0).getHorasTotales());
+        assertEquals("1", resultado.get(1).getClave());
+        assertEquals(1.0, resultado.get(1).getHorasPendiente());
+        assertEquals(2.0, resultado.get(1).getHorasEnProceso());
+        assertEquals(3.0, resultado.get(1).getHorasTotales());
+    }
+
+    @Test
+    @DisplayName("Rechazar agrupación inválida")
+    void testAgrupacionInvalida() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> inactividadService.obtenerInactividad(
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7), "MES", null));
+        verifyNoInteractions(inactividadRepository);
+    }
+
+    private static Mantenimiento mantenimiento(Estado estado, LocalDateTime fechaCreacion) {
+        return Mantenimiento.builder()
+                .id(1L)
+                .tipoMantenimiento(TipoMantenimiento.FRENOS)
+                .estado(estado)
+                .fechaCreacion(fechaCreacion)
+                .vehiculo(Vehiculo.builder().id(1L).build())
+                .build();
+    }
+
+    private static InactividadAgregada agregada(Object clave, Estado estado, Long segundos) {
+        return new InactividadAgregada() {
+            @Override
+            public Object getClave() {
+                return clave;
+            }
+
+            @Override
+            public Estado getEstado() {
+                return estado;
+            }
+
+            @Override
+            public Long getSegundos() {
+                return segundos;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.IndiceEspacialProperties;
+import com.kavak.flota.dto.VehiculoCercanoDTO;
+import com.kavak.flota.repository.PosicionDisponible;
+import com.kavak.flota.repository.VehiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceEspacialVehiculos Tests")
+class IndiceEspacialVehiculosTest {
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private ConsultaRegional consultaRegional;
+
+    private IndiceEspacialVehiculos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceEspacialVehiculos(vehiculoRepository, consultaRegional, new IndiceEspacialProperties());
+    }
+
+    @Test
+    @DisplayName("Conservar los cambios confirmados mientras se reconstruye la grilla")
+    void testReconstruirReaplicaCambiosConcurrentes() {
+        // Arrange
+        PosicionDisponible leida = mock(PosicionDisponible.class);
+        when(leida.getId()).thenReturn(1L);
+        when(leida.getPatente()).thenReturn("ABC123");
+        when(leida.getLatitud()).thenReturn(-34.60);
+        when(leida.getLongitud()).thenReturn(-58.38);
+        indice.aplicar(new UbicacionVehiculo(2L, "XYZ789", -34.61, -58.39, true));
+        when(consultaRegional.concatenarEnTodas(any())).thenAnswer(invocacion -> {
+            // Confirmados después de que la consulta leyó su estado
+            indice.aplicar(new UbicacionVehiculo(1L, "ABC123", -34.60, -58.38, false));
+            indice.aplicar(new UbicacionVehiculo(3L, "DEF456", -34.62, -58.40, true));
+            return List.of(leida);
+        });
+
+        // Act
+        indice.reconstruir();
+
+        // Assert
+        List<Long> ids = indice.cercanos(-34.60, -58.38, 10, null).stream()
+                .map(VehiculoCercanoDTO::getVehiculoId)
+                .toList();
+        assertEquals(List.of(3L), ids);
+        assertEquals(1, indice.cantidad());
+    }
+}
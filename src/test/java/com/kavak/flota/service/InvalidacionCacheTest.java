@@ -0,0 +1,151 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.InvalidacionCacheProperties;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.Vehiculo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InvalidacionCache Tests")
+class InvalidacionCacheTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    private InvalidacionCache invalidacionCache;
+
+    @BeforeEach
+    void setUp() {
+        invalidacionCache = new InvalidacionCache(new InvalidacionCacheProperties(), entityManagerFactory,
+                new SimpleMeterRegistry());
+    }
+
+    private void conCache() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+    }
+
+    @Test
+    @DisplayName("Descartar solo las claves recibidas de otra instancia")
+    void testAplicarClaves() {
+        // Arrange
+        conCache();
+
+        // Act
+        invalidacionCache.aplicar("otra-instancia V12 M34 C12 Q");
+
+        // Assert
+        verify(cache).evictEntityData(Vehiculo.class, 12L);
+        verify(cache).evictEntityData(Mantenimiento.class, 34L);
+        verify(cache).evictCollectionData(Vehiculo.class.getName() + ".mantenimientos", 12L);
+        verify(cache).evictQueryRegions();
+        verify(cache, never()).evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Ignorar los mensajes publicados por la propia instancia")
+    void testAplicarPropio() {
+        // Act
+        invalidacionCache.aplicar(invalidacionCache.origen() + " V12");
+
+        // Assert
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Vaciar toda la caché ante un mensaje de vaciado completo")
+    void testAplicarTodo() {
+        // Arrange
+        conCache();
+
+        // Act
+        invalidacionCache.aplicar("otra-instancia *");
+
+        // Assert
+        verify(cache).evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Partir las claves en mensajes dentro del tamaño de pg_notify o pedir un vaciado completo")
+    void testMensajes() {
+        // Arrange
+        List<String> pocas = List.of("V1", "C1", "Q");
+        List<String> muchas = IntStream.range(0, 2_000).mapToObj(i -> "V" + (1_000_000_000L + i)).toList();
+        List<String> demasiadas = IntStream.range(0, 20_000).mapToObj(i -> "V" + (1_000_000_000L + i)).toList();
+
+        // Act
+        List<String> unMensaje = InvalidacionCache.mensajes("o", pocas);
+        List<String> varios = InvalidacionCache.mensajes("o", muchas);
+        List<String> vaciado = InvalidacionCache.mensajes("o", demasiadas);
+
+        // Assert
+        assertEquals(List.of("o V1 C1 Q"), unMensaje);
+        assertTrue(varios.size() > 1);
+        assertTrue(varios.stream().allMatch(m -> m.length() <= InvalidacionCache.MAXIMO_BYTES_MENSAJE && m.startsWith("o ")));
+        assertEquals(muchas.size(), varios.stream().mapToInt(m -> m.split(" ").length - 1).sum());
+        assertEquals(List.of("o *"), vaciado);
+    }
+
+    @Test
+    @DisplayName("Juntar las claves de la transacción y liberarlas al terminar")
+    void testRegistrarEnTransaccion() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            InvalidacionCache.registrar("V1", "Q");
+            InvalidacionCache.registrar("V1");
+
+            // Assert
+            assertEquals(Set.of("V1", "Q"), TransactionSynchronizationManager.getResource(InvalidacionCache.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(0));
+            assertNull(TransactionSynchronizationManager.getResource(InvalidacionCache.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Desalojar puntualmente ahora y al terminar la transacción, y publicar la clave")
+    void testDesalojar() {
+        // Arrange
+        conCache();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            invalidacionCache.desalojar("V7");
+            verify(cache).evictEntityData(Vehiculo.class, 7L);
+            assertEquals(Set.of("V7"), TransactionSynchronizationManager.getResource(InvalidacionCache.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(0));
+
+            // Assert
+            verify(cache, times(2)).evictEntityData(Vehiculo.class, 7L);
+            verify(cache, never()).evictAllRegions();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.MantenimientoPreventivoProperties;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.MantenimientoDTO;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.VehiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MantenimientoPreventivoService Tests")
+class MantenimientoPreventivoServiceTest {
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private MantenimientoRepository mantenimientoRepository;
+
+    @Mock
+    private MantenimientoService mantenimientoService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ExecutorService ejecutor;
+
+    @Mock
+    private InvalidacionCache invalidacionCache;
+
+    private MantenimientoPreventivoService preventivoService;
+    private Vehiculo vehiculo;
+
+    @BeforeEach
+    void setUp() {
+        MantenimientoPreventivoProperties.Regla aceite = new MantenimientoPreventivoProperties.Regla();
+        aceite.setIntervaloKm(10000);
+        aceite.setCostoEstimado(50000);
+
+        MantenimientoPreventivoProperties properties = new MantenimientoPreventivoProperties();
+        properties.getReglas().put(TipoMantenimiento.CAMBIO_ACEITE, aceite);
+
+        preventivoService = new MantenimientoPreventivoService(vehiculoRepository, mantenimientoRepository,
+                mantenimientoService, properties, transactionTemplate, ejecutor, new ShardingProperties(),
+                invalidacionCache);
+
+        vehiculo = Vehiculo.builder()
+                .id(1L)
+                .patente("ABC123")
+                .kilometraje(25000L)
+                .mantenimientos(new ArrayList<>())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Crear mantenimiento cuando se supera el intervalo desde el último del tipo")
+    void testEvaluarVehiculoSuperaUmbral() {
+        // Arrange
+        List<Object[]> ultimos = new ArrayList<>();
+        ultimos.add(new Object[]{TipoMantenimiento.CAMBIO_ACEITE, 14000L});
+        when(mantenimientoRepository.findUltimoKilometrajePorTipo(1L)).thenReturn(ultimos);
+        when(mantenimientoService.crearMantenimientoPreventivo(
+                eq(vehiculo), eq(TipoMantenimiento.CAMBIO_ACEITE), anyString(), eq(50000.0)))
+                .thenReturn(Optional.of(new MantenimientoDTO()));
+
+        // Act
+        int creados = preventivoService.evaluarVehiculo(vehiculo);
+
+        // Assert
+        assertEquals(1, creados);
+    }
+
+    @Test
+    @DisplayName("No crear mantenimiento cuando no se alcanzó el intervalo")
+    void testEvaluarVehiculoNoSuperaUmbral() {
+        // Arrange
+        List<Object[]> ultimos = new ArrayList<>();
+        ultimos.add(new Object[]{TipoMantenimiento.CAMBIO_ACEITE, 20000L});
+        when(mantenimientoRepository.findUltimoKilometrajePorTipo(1L)).thenReturn(ultimos);
+
+        // Act
+        int creados = preventivoService.evaluarVehiculo(vehiculo);
+
+        // Assert
+        assertEquals(0, creados);
+        verify(mantenimientoService, never()).crearMantenimientoPreventivo(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Crear mantenimiento para un vehículo sin historial cuyo kilometraje ya supera el intervalo")
+    void testEvaluarVehiculoSinHistorial() {
+        // Arrange
+        when(mantenimientoRepository.findUltimoKilometrajePorTipo(1L)).thenReturn(new ArrayList<>());
+        when(mantenimientoService.crearMantenimientoPreventivo(
+                eq(vehiculo), eq(TipoMantenimiento.CAMBIO_ACEITE), anyString(), eq(50000.0)))
+                .thenReturn(Optional.of(new MantenimientoDTO()));
+
+        // Act
+        int creados = preventivoService.evaluarVehiculo(vehiculo);
+
+        // Assert
+        assertEquals(1, creados);
+    }
+
+    @Test
+    @DisplayName("No contar como creado si ya existe un mantenimiento activo del tipo")
+    void testEvaluarVehiculoConMantenimientoActivo() {
+        // Arrange
+        when(mantenimientoRepository.findUltimoKilometrajePorTipo(1L)).thenReturn(new ArrayList<>());
+        when(mantenimientoService.crearMantenimientoPreventivo(any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        // Act
+        int creados = preventivoService.evaluarVehiculo(vehiculo);
+
+        // Assert
+        assertEquals(0, creados);
+    }
+
+    @Test
+    @DisplayName("No evaluar nada si no hay vehículos con kilometraje pendiente")
+    void testEvaluarPendientesSinVehiculos() {
+        // Arrange
+        when(vehiculoRepository.findIdsConKilometrajePendienteEvaluacion()).thenReturn(List.of());
+
+        // Act
+        int creados = preventivoService.evaluarPendientes();
+
+        // Assert
+        assertEquals(0, creados);
+        verifyNoInteractions(ejecutor);
+    }
+
+    @Test
+    @DisplayName("Quitar la marca pendiente solo si el kilometraje no cambió durante la evaluación")
+    @SuppressWarnings("unchecked")
+    void testEvaluarPendientesMarcaCondicional() {
+        // Arrange
+        Vehiculo conLecturaNueva = Vehiculo.builder()
+                .id(2L)
+                .patente("XYZ789")
+                .kilometraje(1000L)
+                .mantenimientos(new ArrayList<>())
+                .build();
+        when(vehiculoRepository.findIdsConKilometrajePendienteEvaluacion()).thenReturn(List.of(1L, 2L));
+        when(vehiculoRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(vehiculo, conLecturaNueva));
+        when(ejecutor.submit(any(Callable.class)))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(inv.<Callable<?>>getArgument(0).call()));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(mantenimientoRepository.findUltimoKilometrajePorTipo(anyLong())).thenReturn(new ArrayList<>());
+        when(mantenimientoService.crearMantenimientoPreventivo(any(), any(), any(), any()))
+                .thenReturn(Optional.of(new MantenimientoDTO()));
+        when(vehiculoRepository.marcarKilometrajeEvaluado(1L, 25000L)).thenReturn(1);
+        when(vehiculoRepository.marcarKilometrajeEvaluado(2L, 1000L)).thenReturn(0);
+
+        // Act
+        int creados = preventivoService.evaluarPendientes();
+
+        // Assert
+        assertEquals(1, creados);
+        verify(invalidacionCache).desalojar(InvalidacionCache.claveVehiculo(1L));
+        verify(invalidacionCache, never()).desalojar(InvalidacionCache.claveVehiculo(2L));
+    }
+}
@@ -1,5 +1,7 @@
 package com.kavak.flota.service;
 
+import com.kavak.flota.config.ContextoRegion;
+import com.kavak.flota.config.ShardingProperties;
 import com.kavak.flota.dto.MantenimientoDTO;
 import com.kavak.flota.dto.CostoTotalMantenimientosDTO;
 import com.kavak.flota.entity.Mantenimiento;
@@ -10,23 +12,33 @@ import com.kavak.flota.exception.MantenimientoNotFoundException;
 import com.kavak.flota.exception.TransicionEstadoInvalidaException;
 import com.kavak.flota.exception.VehiculoNotFoundException;
 import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.MantenimientoDeVehiculo;
 import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.ResumenCostoMantenimientos;
 import com.kavak.flota.repository.VehiculoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +57,24 @@ class MantenimientoServiceTest {
     @Mock
     private TransicionEstadoService transicionEstadoService;
 
+    @Mock
+    private ReintentoOptimista reintentoOptimista;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private InactividadService inactividadService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TallerService tallerService;
+
+    @Spy
+    private ShardingProperties shardingProperties = new ShardingProperties();
+
     @InjectMocks
     private MantenimientoService mantenimientoService;
 
@@ -80,6 +110,16 @@ class MantenimientoServiceTest {
                 .vehiculo(vehiculo)
                 .kilometrajeEnMantenimiento(15000L)
                 .build();
+
+        reintentoEjecutaDirecto();
+    }
+
+    /**
+     * El reintento ejecuta la operación una vez, directamente, como en el caso sin conflictos
+     */
+    private void reintentoEjecutaDirecto() {
+        lenient().when(reintentoOptimista.ejecutar(anyString(), any())).thenAnswer(
+                invocacion -> invocacion.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -98,6 +138,8 @@ class MantenimientoServiceTest {
         assertEquals("CAMBIO_ACEITE", resultado.getTipoMantenimiento());
         verify(vehiculoRepository, times(1)).findById(1L);
         verify(mantenimientoRepository, times(1)).save(any(Mantenimiento.class));
+        verify(eventPublisher).publishEvent(CambioFlota.mantenimiento(
+                TipoMantenimiento.CAMBIO_ACEITE, null, Estado.PENDIENTE, true, false));
     }
 
     @Test
@@ -154,6 +196,12 @@ class MantenimientoServiceTest {
         assertNotNull(resultado);
         assertEquals(1L, resultado.getMantenimientoId());
         verify(transicionEstadoService, times(1)).validarTransicion(Estado.PENDIENTE, Estado.EN_PROCESO);
+        verify(entityManager).lock(vehiculo, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        verify(inactividadService).registrarSalidaDeEstado(eq(mantenimiento), any(LocalDateTime.class));
+        assertEquals(Estado.EN_PROCESO, mantenimiento.getEstado());
+        assertNotNull(mantenimiento.getFechaEnProceso());
+        verify(eventPublisher).publishEvent(CambioFlota.mantenimiento(
+                TipoMantenimiento.CAMBIO_ACEITE, Estado.PENDIENTE, Estado.EN_PROCESO, true, true));
     }
 
     @Test
@@ -174,29 +222,9 @@ class MantenimientoServiceTest {
     @DisplayName("Calcular costo total de mantenimientos completados")
     void testCalcularCostoTotalMantenimientosCompletados() {
         // Arrange
-        Mantenimiento m1 = Mantenimiento.builder()
-                .id(1L)
-                .tipoMantenimiento(TipoMantenimiento.CAMBIO_ACEITE)
-                .estado(Estado.COMPLETADO)
-                .costoEstimado(5000.0)
-                .costoFinal(5200.0)
-                .vehiculo(vehiculo)
-                .build();
-
-        Mantenimiento m2 = Mantenimiento.builder()
-                .id(2L)
-                .tipoMantenimiento(TipoMantenimiento.FRENOS)
-                .estado(Estado.COMPLETADO)
-                .costoEstimado(8000.0)
-                .costoFinal(null) // Usa costoEstimado
-                .vehiculo(vehiculo)
-                .build();
-
-        List<Mantenimiento> mantenimientos = List.of(m1, m2);
-
         when(vehiculoRepository.findById(1L)).thenReturn(Optional.of(vehiculo));
-        when(mantenimientoRepository.findMantenimientosCompletadosPorVehiculo(1L, Estado.COMPLETADO))
-                .thenReturn(mantenimientos);
+        when(mantenimientoRepository.resumirCostosPorVehiculo(1L, Estado.COMPLETADO))
+                .thenReturn(resumenCostos(2L, 13200.0)); // 5200 (costoFinal) + 8000 (costoEstimado)
 
         // Act
         CostoTotalMantenimientosDTO resultado =
@@ -214,8 +242,8 @@ class MantenimientoServiceTest {
     void testCalcularCostoTotalSinMantenimientos() {
         // Arrange
         when(vehiculoRepository.findById(1L)).thenReturn(Optional.of(vehiculo));
-        when(mantenimientoRepository.findMantenimientosCompletadosPorVehiculo(1L, Estado.COMPLETADO))
-                .thenReturn(new ArrayList<>());
+        when(mantenimientoRepository.resumirCostosPorVehiculo(1L, Estado.COMPLETADO))
+                .thenReturn(resumenCostos(0L, 0.0));
 
         // Act
         CostoTotalMantenimientosDTO resultado =
@@ -244,5 +272,63 @@ class MantenimientoServiceTest {
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
     }
-}
 
+    @Test
+    @DisplayName("Obtener los mantenimientos de varios vehículos con una consulta por región")
+    void testObtenerPorVehiculos() {
+        // Arrange
+        ShardingProperties.Region ar = new ShardingProperties.Region();
+        ar.setIndice(0);
+        ShardingProperties.Region br = new ShardingProperties.Region();
+        br.setIndice(1);
+        shardingProperties.getRegiones().put("AR", ar);
+        shardingProperties.getRegiones().put("BR", br);
+        long idBrasil = (1L << ShardingProperties.BITS_ID_LOCAL) + 7;
+
+        MantenimientoDeVehiculo primero = mantenimientoDeVehiculo(1L);
+        MantenimientoDeVehiculo segundo = mantenimientoDeVehiculo(1L);
+        MantenimientoDeVehiculo deBrasil = mantenimientoDeVehiculo(idBrasil);
+        when(mantenimientoRepository.findDeVehiculos(List.of(1L, 2L), Estado.getEstadosActivos()))
+                .thenAnswer(invocacion -> {
+                    assertEquals("AR", ContextoRegion.actual());
+                    return List.of(primero, segundo);
+                });
+        when(mantenimientoRepository.findDeVehiculos(List.of(idBrasil), Estado.getEstadosActivos()))
+                .thenAnswer(invocacion -> {
+                    assertEquals("BR", ContextoRegion.actual());
+                    return List.of(deBrasil);
+                });
+        when(mapper.mantenimientoDeVehiculoToDTO(any(MantenimientoDeVehiculo.class))).thenReturn(mantenimientoDTO);
+
+        // Act
+        Map<Long, List<MantenimientoDTO>> resultado =
+                mantenimientoService.obtenerPorVehiculos(List.of(1L, idBrasil, 2L, 1L), true);
+
+        // Assert
+        assertEquals(List.of(1L, idBrasil, 2L), List.copyOf(resultado.keySet()));
+        assertEquals(2, resultado.get(1L).size());
+        assertEquals(1, resultado.get(idBrasil).size());
+        assertTrue(resultado.get(2L).isEmpty());
+        verify(mantenimientoRepository, times(2)).findDeVehiculos(any(), any());
+    }
+
+    private static MantenimientoDeVehiculo mantenimientoDeVehiculo(Long vehiculoId) {
+        MantenimientoDeVehiculo proyeccion = mock(MantenimientoDeVehiculo.class);
+        when(proyeccion.getVehiculoId()).thenReturn(vehiculoId);
+        return proyeccion;
+    }
+
+    private static ResumenCostoMantenimientos resumenCostos(Long cantidad, Double costoTotal) {
+        return new ResumenCostoMantenimientos() {
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+
+            @Override
+            public Double getCostoTotal() {
+                return costoTotal;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.kavak.flota.service;
 
+import com.kavak.flota.config.ShardingProperties;
 import com.kavak.flota.dto.VehiculoDTO;
 import com.kavak.flota.entity.Vehiculo;
 import com.kavak.flota.exception.PatenteYaExisteException;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -30,6 +32,12 @@ class PatenteValidationTest {
     @Mock
     private Mapper mapper;
 
+    @Mock
+    private ShardingProperties shardingProperties;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private VehiculoService vehiculoService;
 
@@ -93,6 +101,7 @@ class PatenteValidationTest {
                 .build();
 
         when(vehiculoRepository.findByPatente("ABC123")).thenReturn(Optional.empty());
+        when(shardingProperties.regionActual()).thenReturn("AR");
         when(mapper.vehiculoDtoToEntity(vehiculoDTO)).thenReturn(vehiculoNuevo);
         when(vehiculoRepository.save(any(Vehiculo.class))).thenReturn(vehiculoNuevo);
         when(mapper.vehiculoToDto(vehiculoNuevo)).thenReturn(vehiculoDTO);
@@ -104,6 +113,8 @@ class PatenteValidationTest {
         assertNotNull(resultado);
         assertEquals("ABC123", resultado.getPatente());
         verify(vehiculoRepository, times(1)).save(any(Vehiculo.class));
+        assertEquals("AR", vehiculoNuevo.getRegion());
+        verify(eventPublisher).publishEvent(CambioFlota.vehiculoCreado(true));
     }
 }
 
@@ -0,0 +1,69 @@
+package com.kavak.flota.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RecorridoStreaming Tests")
+class RecorridoStreamingTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private RecorridoStreaming recorridoStreaming;
+
+    @Test
+    @DisplayName("Mapear y entregar cada elemento en orden")
+    void testRecorrerEntregaElementosMapeados() {
+        // Arrange
+        List<String> recibidos = new ArrayList<>();
+
+        // Act
+        recorridoStreaming.recorrer(Stream.of(1, 2, 3), n -> "DTO-" + n, recibidos::add);
+
+        // Assert
+        assertEquals(List.of("DTO-1", "DTO-2", "DTO-3"), recibidos);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    @DisplayName("Limpiar el contexto de persistencia por cada lote completo")
+    void testRecorrerLimpiaContextoPorLote() {
+        // Arrange
+        int total = RecorridoStreaming.TAMANIO_LOTE * 2 + 10;
+
+        // Act
+        recorridoStreaming.recorrer(Stream.iterate(0, n -> n + 1).limit(total), n -> n, n -> { });
+
+        // Assert
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Cerrar el Stream al terminar el recorrido")
+    void testRecorrerCierraStream() {
+        // Arrange
+        AtomicBoolean cerrado = new AtomicBoolean(false);
+        Stream<Integer> entidades = Stream.of(1).onClose(() -> cerrado.set(true));
+
+        // Act
+        recorridoStreaming.recorrer(entidades, n -> n, n -> { });
+
+        // Assert
+        assertTrue(cerrado.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ReintentoOptimistaProperties;
+import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReintentoOptimista Tests")
+class ReintentoOptimistaTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReintentoOptimista reintentoOptimista;
+
+    @BeforeEach
+    void setUp() {
+        ReintentoOptimistaProperties properties = new ReintentoOptimistaProperties();
+        properties.setMaximoIntentos(3);
+        properties.setEsperaBase(Duration.ofMillis(1));
+        properties.setEsperaMaxima(Duration.ofMillis(2));
+
+        meterRegistry = new SimpleMeterRegistry();
+        reintentoOptimista = new ReintentoOptimista(transactionTemplate, properties, meterRegistry);
+
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Reintentar la operación completa tras un conflicto de versión")
+    void testReintentaTrasConflicto() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        String resultado = reintentoOptimista.ejecutar("prueba", () -> {
+            if (intentos.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Vehiculo.class, 1L);
+            }
+            return "ok";
+        });
+
+        // Assert
+        assertEquals("ok", resultado);
+        assertEquals(2, intentos.get());
+        assertEquals(1.0, meterRegistry.counter("flota.concurrencia.conflictos",
+                "operacion", "prueba", "entidad", "Vehiculo").count());
+    }
+
+    @Test
+    @DisplayName("Lanzar ConflictoConcurrenciaException al agotar los intentos")
+    void testAgotaIntentos() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ConflictoConcurrenciaException.class, () -> reintentoOptimista.ejecutar("prueba", () -> {
+            intentos.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Vehiculo.class, 1L);
+        }));
+        assertEquals(3, intentos.get());
+        assertEquals(1.0, meterRegistry.counter("flota.concurrencia.reintentos.agotados",
+                "operacion", "prueba").count());
+    }
+
+    @Test
+    @DisplayName("No reintentar errores de negocio")
+    void testNoReintentaOtrasExcepciones() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> reintentoOptimista.ejecutar("prueba", () -> {
+            intentos.incrementAndGet();
+            throw new IllegalStateException("negocio");
+        }));
+        assertEquals(1, intentos.get());
+    }
+}
@@ -0,0 +1,163 @@
+package com.kavak.flota.service;
+
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.config.TallerProperties;
+import com.kavak.flota.dto.TurnoTallerDTO;
+import com.kavak.flota.entity.BahiaTaller;
+import com.kavak.flota.entity.Mantenimiento;
+import com.kavak.flota.entity.TurnoTaller;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
+import com.kavak.flota.exception.SinCapacidadTallerException;
+import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.BahiaTallerRepository;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.TurnoTallerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TallerService Tests")
+class TallerServiceTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDateTime LUNES_8 = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @Mock
+    private BahiaTallerRepository bahiaRepository;
+
+    @Mock
+    private TurnoTallerRepository turnoRepository;
+
+    @Mock
+    private MantenimientoRepository mantenimientoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TallerProperties properties;
+    private TallerService tallerService;
+    private BahiaTaller bahia1;
+    private BahiaTaller bahia2;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TallerProperties();
+        tallerService = new TallerService(bahiaRepository, turnoRepository, mantenimientoRepository, entityManager,
+                new Mapper(), transactionTemplate, new ShardingProperties(), properties);
+
+        bahia1 = BahiaTaller.builder().id(1L).nombre("Bahía 1").build();
+        bahia2 = BahiaTaller.builder().id(2L).nombre("Bahía 2").build();
+        lenient().when(bahiaRepository.findByActivaTrueOrderByIdAsc()).thenReturn(List.of(bahia1, bahia2));
+        lenient().when(bahiaRepository.getReferenceById(1L)).thenReturn(bahia1);
+        lenient().when(bahiaRepository.getReferenceById(2L)).thenReturn(bahia2);
+        lenient().when(turnoRepository.saveAndFlush(any(TurnoTaller.class)))
+                .thenAnswer(invocacion -> invocacion.getArgument(0));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private Mantenimiento mantenimiento(Long id, TipoMantenimiento tipo, Estado estado) {
+        Mantenimiento mantenimiento = Mantenimiento.builder().id(id).tipoMantenimiento(tipo).estado(estado).build();
+        lenient().when(mantenimientoRepository.findById(id)).thenReturn(Optional.of(mantenimiento));
+        return mantenimiento;
+    }
+
+    private TurnoTaller turno(BahiaTaller bahia, LocalDateTime inicio, LocalDateTime fin) {
+        return TurnoTaller.builder().bahia(bahia).inicio(inicio).fin(fin).build();
+    }
+
+    @Test
+    @DisplayName("Asignar el hueco más temprano entre todas las bahías")
+    void testAgendarHuecoMasTemprano() {
+        // Arrange
+        when(turnoRepository.findVigentes(any())).thenReturn(List.of(
+                turno(bahia1, LUNES_8, LUNES_8.plusHours(4)),
+                turno(bahia2, LUNES_8, LUNES_8.plusHours(1))));
+        mantenimiento(10L, TipoMantenimiento.FRENOS, Estado.PENDIENTE);
+
+        // Act
+        TurnoTallerDTO resultado = tallerService.agendar(10L, LUNES_8);
+
+        // Assert
+        assertEquals(2L, resultado.getBahiaId());
+        assertEquals(LUNES_8.plusHours(1), resultado.getInicio());
+        assertEquals(LUNES_8.plusHours(4), resultado.getFin());
+        assertEquals(10L, resultado.getMantenimientoId());
+    }
+
+    @Test
+    @DisplayName("Liberar la reserva en memoria si la transacción no confirma")
+    void testAgendarRollbackLiberaHueco() {
+        // Arrange
+        when(turnoRepository.findVigentes(any())).thenReturn(List.of());
+        when(bahiaRepository.findByActivaTrueOrderByIdAsc()).thenReturn(List.of(bahia1));
+        mantenimiento(10L, TipoMantenimiento.MOTOR, Estado.PENDIENTE);
+        mantenimiento(11L, TipoMantenimiento.MOTOR, Estado.PENDIENTE);
+
+        // Act
+        TurnoTallerDTO primero = tallerService.agendar(10L, LUNES_8);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TurnoTallerDTO segundo = tallerService.agendar(11L, LUNES_8);
+
+        // Assert
+        assertEquals(LUNES_8, primero.getInicio());
+        assertEquals(LUNES_8, segundo.getInicio());
+    }
+
+    @Test
+    @DisplayName("Informar falta de capacidad dentro del horizonte de búsqueda")
+    void testAgendarSinCapacidad() {
+        // Arrange
+        properties.setHorizonteDias(1);
+        when(bahiaRepository.findByActivaTrueOrderByIdAsc()).thenReturn(List.of(bahia1));
+        when(turnoRepository.findVigentes(any())).thenReturn(List.of(
+                turno(bahia1, LUNES_8, LUNES_8.plusHours(10)),
+                turno(bahia1, LUNES_8.plusDays(1), LUNES_8.plusDays(1).plusHours(10))));
+        mantenimiento(10L, TipoMantenimiento.CAMBIO_ACEITE, Estado.PENDIENTE);
+
+        // Act & Assert
+        assertThrows(SinCapacidadTallerException.class, () -> tallerService.agendar(10L, LUNES_8));
+        verify(turnoRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Rechazar mantenimientos que no están PENDIENTE")
+    void testAgendarMantenimientoNoPendiente() {
+        // Arrange
+        mantenimiento(10L, TipoMantenimiento.FRENOS, Estado.EN_PROCESO);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tallerService.agendar(10L, LUNES_8));
+        verify(turnoRepository, never()).saveAndFlush(any());
+    }
+}
@@ -1,24 +1,56 @@
 package com.kavak.flota.service;
 
+import com.kavak.flota.config.EliminacionProperties;
+import com.kavak.flota.config.ShardingProperties;
+import com.kavak.flota.dto.FiltroVehiculoDTO;
+import com.kavak.flota.dto.PaginaDTO;
+import com.kavak.flota.dto.PosicionVehiculoDTO;
+import com.kavak.flota.dto.ResultadoEliminacionDTO;
 import com.kavak.flota.dto.VehiculoDTO;
+import com.kavak.flota.dto.VehiculoResumenDTO;
 import com.kavak.flota.entity.Vehiculo;
+import com.kavak.flota.enums.Estado;
+import com.kavak.flota.enums.TipoMantenimiento;
 import com.kavak.flota.exception.KilometrajeInvalidoException;
 import com.kavak.flota.exception.VehiculoNotFoundException;
 import com.kavak.flota.mapper.Mapper;
+import com.kavak.flota.repository.ConsultaCampos;
+import com.kavak.flota.repository.ConteoFlota;
+import com.kavak.flota.repository.MantenimientoRepository;
+import com.kavak.flota.repository.PosicionRegistrada;
 import com.kavak.flota.repository.VehiculoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +63,39 @@ class VehiculoServiceTest {
     @Mock
     private Mapper mapper;
 
+    @Mock
+    private ReintentoOptimista reintentoOptimista;
+
+    @Mock
+    private HistorialKilometrajeService historialKilometrajeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardingProperties shardingProperties;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private MantenimientoRepository mantenimientoRepository;
+
+    @Mock
+    private TallerService tallerService;
+
+    @Mock
+    private InactividadService inactividadService;
+
+    @Mock
+    private ConsultaCampos consultaCampos;
+
+    @Mock
+    private InvalidacionCache invalidacionCache;
+
+    @Spy
+    private EliminacionProperties eliminacionProperties = new EliminacionProperties();
+
     @InjectMocks
     private VehiculoService vehiculoService;
 
@@ -58,6 +123,18 @@ class VehiculoServiceTest {
                 .fechaCreacion(LocalDateTime.now())
                 .fechaActualizacion(LocalDateTime.now())
                 .build();
+
+        reintentoEjecutaDirecto();
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /**
+     * El reintento ejecuta la operación una vez, directamente, como en el caso sin conflictos
+     */
+    private void reintentoEjecutaDirecto() {
+        lenient().when(reintentoOptimista.ejecutar(anyString(), any())).thenAnswer(
+                invocacion -> invocacion.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -76,6 +153,8 @@ class VehiculoServiceTest {
         assertEquals("ABC123", resultado.getPatente());
         assertEquals("Toyota", resultado.getMarca());
         verify(vehiculoRepository, times(1)).save(any(Vehiculo.class));
+        verify(eventPublisher).publishEvent(CambioFlota.vehiculoCreado(true));
+        assertTrue(vehiculo.getKilometrajePendienteEvaluacion());
     }
 
     @Test
@@ -138,6 +217,8 @@ class VehiculoServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(vehiculoRepository, times(1)).save(any(Vehiculo.class));
+        verify(historialKilometrajeService).registrarLectura(
+                eq(1L), eq(20000L), eq(nuevoKilometraje), any(LocalDateTime.class));
     }
 
     @Test
@@ -153,6 +234,56 @@ class VehiculoServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("Registrar la posición sin cargar el vehículo y publicarla para el índice espacial")
+    void testActualizarPosicion() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2030, 1, 7, 10, 0);
+        PosicionRegistrada registrada = mock(PosicionRegistrada.class);
+        when(registrada.getPatente()).thenReturn("ABC123");
+        when(registrada.getDisponible()).thenReturn(true);
+        when(vehiculoRepository.registrarPosicion(1L, -34.6037, -58.3816, fecha)).thenReturn(Optional.of(registrada));
+
+        // Act
+        vehiculoService.actualizarPosicion(1L, PosicionVehiculoDTO.builder()
+                .latitud(-34.6037).longitud(-58.3816).fechaHora(fecha).build());
+
+        // Assert
+        verify(vehiculoRepository, never()).findById(anyLong());
+        verify(invalidacionCache).desalojar(InvalidacionCache.claveVehiculo(1L));
+        verify(eventPublisher).publishEvent(
+                new UbicacionVehiculo(1L, "ABC123", -34.6037, -58.3816, true));
+    }
+
+    @Test
+    @DisplayName("Descartar una posición más vieja que la registrada")
+    void testActualizarPosicionFueraDeOrden() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(vehiculoRepository.registrarPosicion(1L, -34.7, -58.5, fecha)).thenReturn(Optional.empty());
+        when(vehiculoRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        vehiculoService.actualizarPosicion(1L, PosicionVehiculoDTO.builder()
+                .latitud(-34.7).longitud(-58.5).fechaHora(fecha).build());
+
+        // Assert
+        verify(invalidacionCache, never()).desalojar(any(String[].class));
+        verify(eventPublisher, never()).publishEvent(any(UbicacionVehiculo.class));
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción al registrar la posición de un vehículo inexistente")
+    void testActualizarPosicionVehiculoInexistente() {
+        // Arrange
+        when(vehiculoRepository.registrarPosicion(eq(99L), anyDouble(), anyDouble(), any())).thenReturn(Optional.empty());
+        when(vehiculoRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(VehiculoNotFoundException.class, () -> vehiculoService.actualizarPosicion(99L,
+                PosicionVehiculoDTO.builder().latitud(-34.7).longitud(-58.5).build()));
+    }
+
     @Test
     @DisplayName("Verificar disponibilidad de vehículo")
     void testVerificarDisponibilidad() {
@@ -182,13 +313,202 @@ class VehiculoServiceTest {
     }
 
     @Test
-    @DisplayName("Eliminar vehículo exitosamente")
+    @DisplayName("Eliminar vehículo con sentencias por conjunto y publicar los cambios")
     void testEliminarVehiculo() {
+        // Arrange
+        when(vehiculoRepository.bloquearParaEliminar(List.of(1L))).thenReturn(List.of(1L));
+        when(vehiculoRepository.contarFlotaDe(List.of(1L))).thenReturn(List.of(
+                conteo("VEHICULO", "NO_DISPONIBLE", null, 1L),
+                conteo("MANTENIMIENTO", "EN_PROCESO", "FRENOS", 1L)));
+        when(mantenimientoRepository.findIdsByVehiculoIds(List.of(1L))).thenReturn(List.of(10L));
+        when(mantenimientoRepository.eliminarPorVehiculoIds(List.of(1L))).thenReturn(1);
+        when(vehiculoRepository.eliminarPorIds(List.of(1L))).thenReturn(1);
+
         // Act
         vehiculoService.eliminarVehiculo(1L);
 
         // Assert
-        verify(vehiculoRepository, times(1)).deleteById(1L);
+        InOrder orden = inOrder(tallerService, historialKilometrajeService, inactividadService,
+                mantenimientoRepository, vehiculoRepository, invalidacionCache);
+        orden.verify(tallerService).eliminarTurnosDeVehiculos(List.of(1L));
+        orden.verify(historialKilometrajeService).eliminarDeVehiculos(List.of(1L));
+        orden.verify(inactividadService).eliminarDeVehiculos(List.of(1L));
+        orden.verify(mantenimientoRepository).eliminarPorVehiculoIds(List.of(1L));
+        orden.verify(vehiculoRepository).eliminarPorIds(List.of(1L));
+        orden.verify(invalidacionCache).desalojar(InvalidacionCache.claveVehiculo(1L),
+                InvalidacionCache.claveMantenimientosDeVehiculo(1L), InvalidacionCache.claveMantenimiento(10L),
+                InvalidacionCache.CONSULTAS);
+        verify(vehiculoRepository, never()).delete(any(Vehiculo.class));
+        verify(eventPublisher).publishEvent(CambioFlota.vehiculoEliminado(false));
+        verify(eventPublisher).publishEvent(CambioFlota.mantenimientoEliminado(TipoMantenimiento.FRENOS, Estado.EN_PROCESO));
+        verify(eventPublisher).publishEvent(UbicacionVehiculo.eliminado(1L));
     }
-}
 
+    @Test
+    @DisplayName("Eliminar vehículo inexistente no hace nada")
+    void testEliminarVehiculoInexistente() {
+        // Arrange
+        when(vehiculoRepository.bloquearParaEliminar(List.of(999L))).thenReturn(List.of());
+
+        // Act
+        vehiculoService.eliminarVehiculo(999L);
+
+        // Assert
+        verify(vehiculoRepository, never()).eliminarPorIds(any());
+        verify(mantenimientoRepository, never()).eliminarPorVehiculoIds(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Eliminación masiva en lotes, informando los ids inexistentes")
+    void testEliminarVehiculosPorLotes() {
+        // Arrange
+        eliminacionProperties.setTamanioLote(2);
+        when(shardingProperties.regionDeId(anyLong())).thenReturn("AR");
+        when(vehiculoRepository.bloquearParaEliminar(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(vehiculoRepository.bloquearParaEliminar(List.of(3L))).thenReturn(List.of());
+        when(vehiculoRepository.contarFlotaDe(List.of(1L, 2L))).thenReturn(List.of(
+                conteo("VEHICULO", "DISPONIBLE", null, 2L)));
+        when(mantenimientoRepository.eliminarPorVehiculoIds(List.of(1L, 2L))).thenReturn(0);
+        when(vehiculoRepository.eliminarPorIds(List.of(1L, 2L))).thenReturn(2);
+
+        // Act
+        ResultadoEliminacionDTO resultado = vehiculoService.eliminarVehiculos(List.of(1L, 2L, 3L, 2L));
+
+        // Assert
+        assertEquals(4, resultado.getSolicitados());
+        assertEquals(2, resultado.getVehiculosEliminados());
+        assertEquals(2, resultado.getLotes());
+        assertEquals(List.of(3L), resultado.getNoEncontrados());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(eventPublisher).publishEvent(CambioFlota.vehiculosEliminados(true, 2));
+    }
+
+    @Test
+    @DisplayName("Rechazar una eliminación masiva con demasiados ids")
+    void testEliminarVehiculosExcedeMaximo() {
+        // Arrange
+        eliminacionProperties.setMaximoIds(2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> vehiculoService.eliminarVehiculos(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(vehiculoRepository);
+    }
+
+    @Test
+    @DisplayName("Buscar vehículos por patente parcial sanitizando el texto")
+    void testBuscarPorPatente() {
+        // Arrange
+        VehiculoResumenDTO resumen = VehiculoResumenDTO.builder().id(1L).patente("ABC123").build();
+        when(vehiculoRepository.buscarPorPatente("AB1", "AB1%", "Toyota", null, 10))
+                .thenReturn(List.of(vehiculo));
+        when(mapper.vehiculoToResumenDto(vehiculo)).thenReturn(resumen);
+
+        // Act
+        List<VehiculoResumenDTO> resultado = vehiculoService.buscarPorPatente(" ab-1 ", "Toyota", " ", 10);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals("ABC123", resultado.get(0).getPatente());
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción cuando el texto de búsqueda es demasiado corto")
+    void testBuscarPorPatenteTextoCorto() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            vehiculoService.buscarPorPatente("A", null, null, 10);
+        });
+        verify(vehiculoRepository, never()).buscarPorPatente(anyString(), anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Consultar vehículos con filtros y paginación")
+    void testConsultarVehiculos() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("anio"));
+        FiltroVehiculoDTO filtro = FiltroVehiculoDTO.builder().marca("Toyota").anioDesde(2019).disponible(true).build();
+        VehiculoResumenDTO resumen = VehiculoResumenDTO.builder().id(1L).patente("ABC123").build();
+        when(vehiculoRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(vehiculo), pageable, 1));
+        when(mapper.vehiculoToResumenDto(vehiculo)).thenReturn(resumen);
+
+        // Act
+        PaginaDTO<VehiculoResumenDTO> resultado = vehiculoService.consultarVehiculos(filtro, pageable);
+
+        // Assert
+        assertEquals(1, resultado.getContenido().size());
+        assertEquals(1L, resultado.getTotalElementos());
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción al ordenar por un campo no permitido")
+    void testConsultarVehiculosOrdenInvalido() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("mantenimientos"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            vehiculoService.consultarVehiculos(new FiltroVehiculoDTO(), pageable);
+        });
+    }
+
+    @Test
+    @DisplayName("Consultar solo las columnas pedidas con paginación")
+    void testConsultarCamposVehiculos() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+        List<String> campos = List.of("id", "patente", "disponible");
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("id", 1L);
+        fila.put("patente", "ABC123");
+        fila.put("disponible", true);
+        when(consultaCampos.listar(eq(Vehiculo.class), eq(campos), any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(fila), pageable, 1));
+
+        // Act
+        PaginaDTO<Map<String, Object>> resultado =
+                vehiculoService.consultarCamposVehiculos(new FiltroVehiculoDTO(), pageable, campos);
+
+        // Assert
+        assertEquals(List.of(fila), resultado.getContenido());
+        assertEquals(1L, resultado.getTotalElementos());
+        verifyNoInteractions(vehiculoRepository, mapper);
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción si el vehículo pedido por columnas no existe")
+    void testObtenerCamposPorIdNoEncontrado() {
+        // Arrange
+        when(consultaCampos.buscar(eq(Vehiculo.class), eq(List.of("patente")), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(VehiculoNotFoundException.class,
+                () -> vehiculoService.obtenerCamposPorId(999L, List.of("patente")));
+    }
+
+    private static ConteoFlota conteo(String grupo, String clave, String tipo, Long cantidad) {
+        return new ConteoFlota() {
+            @Override
+            public String getGrupo() {
+                return grupo;
+            }
+
+            @Override
+            public String getClave() {
+                return clave;
+            }
+
+            @Override
+            public String getTipo() {
+                return tipo;
+            }
+
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
+}
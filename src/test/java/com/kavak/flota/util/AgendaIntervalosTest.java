@@ -0,0 +1,83 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AgendaIntervalos Tests")
+class AgendaIntervalosTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDateTime LUNES_8 = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    private final HorarioTaller horario = new HorarioTaller(LocalTime.of(8, 0), LocalTime.of(18, 0),
+            Duration.ofMinutes(15), Set.of(DayOfWeek.SUNDAY));
+
+    @Test
+    @DisplayName("Alinear el inicio a la granularidad y pasar al próximo día hábil si no entra en la jornada")
+    void testProximoInicio() {
+        // Act & Assert
+        assertEquals(LUNES_8.plusMinutes(15), horario.proximoInicio(LUNES_8.plusMinutes(1), Duration.ofHours(1)));
+        assertEquals(LUNES_8, horario.proximoInicio(LUNES_8.minusHours(3), Duration.ofHours(1)));
+        assertEquals(LUNES_8.plusDays(1), horario.proximoInicio(LUNES_8.withHour(17), Duration.ofHours(2)));
+        // Sábado 17:00 -> lunes 8:00 (domingo cerrado)
+        assertEquals(LUNES_8.plusDays(7), horario.proximoInicio(LUNES_8.plusDays(5).withHour(17), Duration.ofHours(2)));
+        assertNull(horario.proximoInicio(LUNES_8, Duration.ofHours(11)));
+    }
+
+    @Test
+    @DisplayName("Detectar superposiciones con el intervalo anterior y el siguiente")
+    void testEstaLibre() {
+        // Arrange
+        AgendaIntervalos agenda = new AgendaIntervalos();
+        agenda.ocupar(LUNES_8.plusHours(1), LUNES_8.plusHours(3));
+
+        // Act & Assert
+        assertTrue(agenda.estaLibre(LUNES_8, LUNES_8.plusHours(1)));
+        assertTrue(agenda.estaLibre(LUNES_8.plusHours(3), LUNES_8.plusHours(4)));
+        assertFalse(agenda.estaLibre(LUNES_8.plusHours(2), LUNES_8.plusHours(4)));
+        assertFalse(agenda.estaLibre(LUNES_8, LUNES_8.plusHours(2)));
+        assertFalse(agenda.estaLibre(LUNES_8, LUNES_8.plusHours(5)));
+        assertThrows(IllegalStateException.class, () -> agenda.ocupar(LUNES_8.plusHours(2), LUNES_8.plusHours(5)));
+    }
+
+    @Test
+    @DisplayName("Encontrar el primer hueco donde entra la duración")
+    void testPrimerHueco() {
+        // Arrange: libres 8:00-9:00, 11:30-12:00 y 14:00-18:00
+        AgendaIntervalos agenda = new AgendaIntervalos();
+        agenda.ocupar(LUNES_8.plusHours(1), LUNES_8.plusHours(3).plusMinutes(30));
+        agenda.ocupar(LUNES_8.plusHours(4), LUNES_8.plusHours(6));
+        LocalDateTime limite = LUNES_8.plusDays(30);
+
+        // Act & Assert
+        assertEquals(LUNES_8, agenda.primerHueco(LUNES_8, Duration.ofHours(1), horario, limite));
+        assertEquals(LUNES_8.plusHours(3).plusMinutes(30),
+                agenda.primerHueco(LUNES_8.plusMinutes(45), Duration.ofMinutes(30), horario, limite));
+        assertEquals(LUNES_8.plusHours(6), agenda.primerHueco(LUNES_8, Duration.ofHours(2), horario, limite));
+        assertEquals(LUNES_8.plusDays(1), agenda.primerHueco(LUNES_8, Duration.ofHours(5), horario, limite));
+        assertNull(agenda.primerHueco(LUNES_8, Duration.ofHours(5), horario, LUNES_8.plusHours(12)));
+    }
+
+    @Test
+    @DisplayName("Liberar un intervalo lo deja disponible")
+    void testLiberar() {
+        // Arrange
+        AgendaIntervalos agenda = new AgendaIntervalos();
+        agenda.ocupar(LUNES_8, LUNES_8.plusHours(10));
+
+        // Act
+        agenda.liberar(LUNES_8, LUNES_8.plusHours(10));
+
+        // Assert
+        assertEquals(0, agenda.cantidad());
+        assertEquals(LUNES_8, agenda.primerHueco(LUNES_8, Duration.ofHours(10), horario, LUNES_8.plusDays(1)));
+    }
+}
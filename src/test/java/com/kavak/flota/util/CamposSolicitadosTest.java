@@ -0,0 +1,43 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CamposSolicitados Tests")
+class CamposSolicitadosTest {
+
+    private static final List<String> PERMITIDOS = List.of("id", "patente", "marca", "disponible");
+
+    @Test
+    @DisplayName("Respetar el orden pedido, sin espacios ni repetidos")
+    void testParsear() {
+        // Act
+        List<String> campos = CamposSolicitados.parsear(" patente, id ,,disponible,id", PERMITIDOS);
+
+        // Assert
+        assertEquals(List.of("patente", "id", "disponible"), campos);
+    }
+
+    @Test
+    @DisplayName("Rechazar un campo no permitido indicando los permitidos")
+    void testCampoNoPermitido() {
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> CamposSolicitados.parsear("id,mantenimientos", PERMITIDOS));
+
+        // Assert
+        assertEquals("No se puede seleccionar el campo 'mantenimientos'. Campos permitidos: id, patente, marca, disponible",
+                error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Rechazar un parámetro fields sin campos")
+    void testSinCampos() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CamposSolicitados.parsear(" , ", PERMITIDOS));
+    }
+}
@@ -0,0 +1,133 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CargaCompartida Tests")
+class CargaCompartidaTest {
+
+    private final CargaCompartida<Long, String> cargaCompartida = new CargaCompartida<>();
+
+    @Test
+    @DisplayName("Las peticiones simultáneas por la misma clave comparten una sola carga")
+    void testPeticionesSimultaneasCompartenCarga() throws Exception {
+        // Arrange
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<String> resultadoPrimera = new AtomicReference<>();
+        Thread primera = Thread.ofPlatform().start(() -> resultadoPrimera.set(cargaCompartida.obtener(1L, () -> {
+            cargas.incrementAndGet();
+            iniciada.countDown();
+            esperar(liberar);
+            return "vehiculo-1";
+        })));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<Thread> siguientes = new ArrayList<>();
+        List<String> resultados = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            siguientes.add(Thread.ofPlatform().start(() -> resultados.add(cargaCompartida.obtener(1L, () -> {
+                cargas.incrementAndGet();
+                return "otra carga";
+            }))));
+        }
+        for (Thread siguiente : siguientes) {
+            esperarBloqueado(siguiente);
+        }
+        liberar.countDown();
+        primera.join(5000);
+        for (Thread siguiente : siguientes) {
+            siguiente.join(5000);
+        }
+
+        // Assert
+        assertEquals(1, cargas.get());
+        assertEquals("vehiculo-1", resultadoPrimera.get());
+        assertEquals(List.of("vehiculo-1", "vehiculo-1", "vehiculo-1", "vehiculo-1", "vehiculo-1"), resultados);
+        assertEquals(0, cargaCompartida.enCurso());
+    }
+
+    @Test
+    @DisplayName("Una petición posterior a la carga terminada vuelve a cargar")
+    void testPeticionPosteriorVuelveACargar() {
+        // Arrange
+        AtomicInteger cargas = new AtomicInteger();
+
+        // Act
+        String primera = cargaCompartida.obtener(1L, () -> "v" + cargas.incrementAndGet());
+        String segunda = cargaCompartida.obtener(1L, () -> "v" + cargas.incrementAndGet());
+
+        // Assert
+        assertEquals("v1", primera);
+        assertEquals("v2", segunda);
+        assertEquals(0, cargaCompartida.enCurso());
+    }
+
+    @Test
+    @DisplayName("La excepción de la carga llega también a las peticiones que esperaban")
+    void testExcepcionSePropagaALasQueEsperan() throws Exception {
+        // Arrange
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<Throwable> errorPrimera = new AtomicReference<>();
+        AtomicReference<Throwable> errorSiguiente = new AtomicReference<>();
+        Thread primera = Thread.ofPlatform().start(() -> {
+            try {
+                cargaCompartida.obtener(7L, () -> {
+                    iniciada.countDown();
+                    esperar(liberar);
+                    throw new IllegalStateException("no encontrado");
+                });
+            } catch (IllegalStateException e) {
+                errorPrimera.set(e);
+            }
+        });
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        Thread siguiente = Thread.ofPlatform().start(() -> {
+            try {
+                cargaCompartida.obtener(7L, () -> "no debería cargar");
+            } catch (IllegalStateException e) {
+                errorSiguiente.set(e);
+            }
+        });
+        esperarBloqueado(siguiente);
+
+        // Act
+        liberar.countDown();
+        primera.join(5000);
+        siguiente.join(5000);
+
+        // Assert
+        assertNotNull(errorPrimera.get());
+        assertSame(errorPrimera.get(), errorSiguiente.get());
+        assertEquals(0, cargaCompartida.enCurso());
+    }
+
+    private static void esperarBloqueado(Thread hilo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hilo.getState() != Thread.State.WAITING && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, hilo.getState());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
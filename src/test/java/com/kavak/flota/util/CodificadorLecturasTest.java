@@ -0,0 +1,53 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CodificadorLecturas Tests")
+class CodificadorLecturasTest {
+
+    @Test
+    @DisplayName("Decodificar bloques concatenados a lecturas absolutas")
+    void testCodificarYDecodificar() {
+        // Arrange
+        ByteArrayOutputStream bloque = new ByteArrayOutputStream();
+        bloque.writeBytes(CodificadorLecturas.codificar(0, 0));
+        bloque.writeBytes(CodificadorLecturas.codificar(3600, 45));
+        bloque.writeBytes(CodificadorLecturas.codificar(86399, 1_000_000));
+
+        // Act
+        List<CodificadorLecturas.Lectura> lecturas = CodificadorLecturas.decodificar(bloque.toByteArray(), 15000L);
+
+        // Assert
+        assertEquals(List.of(
+                new CodificadorLecturas.Lectura(0, 15000L),
+                new CodificadorLecturas.Lectura(3600, 15045L),
+                new CodificadorLecturas.Lectura(86399, 1_015_045L)), lecturas);
+    }
+
+    @Test
+    @DisplayName("Una lectura típica ocupa pocos bytes")
+    void testTamanioCompacto() {
+        // Act & Assert
+        assertEquals(2, CodificadorLecturas.codificar(60, 5).length);
+        assertEquals(5, CodificadorLecturas.codificar(86399, 300).length);
+    }
+
+    @Test
+    @DisplayName("Rechazar deltas negativos y bloques truncados")
+    void testValoresInvalidos() {
+        // Arrange
+        byte[] completo = CodificadorLecturas.codificar(86399, 300);
+        byte[] truncado = Arrays.copyOf(completo, completo.length - 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CodificadorLecturas.codificar(10, -1));
+        assertThrows(IllegalArgumentException.class, () -> CodificadorLecturas.decodificar(truncado, 0L));
+    }
+}
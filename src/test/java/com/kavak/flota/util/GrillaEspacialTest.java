@@ -0,0 +1,110 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GrillaEspacial Tests")
+class GrillaEspacialTest {
+
+    // Obelisco, Buenos Aires
+    private static final double LATITUD = -34.6037;
+    private static final double LONGITUD = -58.3816;
+
+    private final GrillaEspacial<String> grilla = new GrillaEspacial<>(0.01);
+
+    @Test
+    @DisplayName("Devolver los k más cercanos ordenados por distancia")
+    void testCercanosOrdenados() {
+        // Arrange
+        grilla.ubicar(1L, LATITUD + 0.001, LONGITUD, "A");   // ~0,1 km
+        grilla.ubicar(2L, LATITUD + 0.05, LONGITUD, "B");    // ~5,6 km
+        grilla.ubicar(3L, LATITUD, LONGITUD - 0.02, "C");    // ~1,8 km
+        grilla.ubicar(4L, LATITUD + 0.3, LONGITUD, "D");     // ~33 km
+
+        // Act
+        List<GrillaEspacial.Vecino<String>> cercanos = grilla.cercanos(LATITUD, LONGITUD, 3, 50);
+
+        // Assert
+        assertEquals(List.of(1L, 3L, 2L), cercanos.stream().map(GrillaEspacial.Vecino::id).toList());
+        assertEquals("A", cercanos.get(0).dato());
+        assertEquals(0.11, cercanos.get(0).distanciaKm(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Respetar el radio máximo")
+    void testRadioMaximo() {
+        // Arrange
+        grilla.ubicar(1L, LATITUD + 0.001, LONGITUD, "A");
+        grilla.ubicar(2L, LATITUD + 0.3, LONGITUD, "B");
+
+        // Act
+        List<GrillaEspacial.Vecino<String>> cercanos = grilla.cercanos(LATITUD, LONGITUD, 5, 10);
+
+        // Assert
+        assertEquals(List.of(1L), cercanos.stream().map(GrillaEspacial.Vecino::id).toList());
+    }
+
+    @Test
+    @DisplayName("Mover y quitar puntos")
+    void testUbicarYQuitar() {
+        // Arrange
+        grilla.ubicar(1L, LATITUD, LONGITUD, "A");
+        grilla.ubicar(2L, LATITUD + 0.01, LONGITUD, "B");
+
+        // Act
+        grilla.ubicar(1L, LATITUD + 0.2, LONGITUD, "A");
+        grilla.quitar(2L);
+        grilla.quitar(99L);
+
+        // Assert
+        assertEquals(1, grilla.cantidad());
+        List<GrillaEspacial.Vecino<String>> cercanos = grilla.cercanos(LATITUD, LONGITUD, 5, 50);
+        assertEquals(1, cercanos.size());
+        assertEquals(LATITUD + 0.2, cercanos.get(0).latitud());
+    }
+
+    @Test
+    @DisplayName("Coincidir con la búsqueda exhaustiva")
+    void testCoincideConFuerzaBruta() {
+        // Arrange
+        Random random = new Random(42);
+        double[][] puntos = new double[2000][];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new double[]{LATITUD + (random.nextDouble() - 0.5) * 0.4,
+                    LONGITUD + (random.nextDouble() - 0.5) * 0.4};
+            grilla.ubicar(i, puntos[i][0], puntos[i][1], null);
+        }
+
+        for (int consulta = 0; consulta < 20; consulta++) {
+            double latitud = LATITUD + (random.nextDouble() - 0.5) * 0.5;
+            double longitud = LONGITUD + (random.nextDouble() - 0.5) * 0.5;
+
+            // Act
+            List<Long> obtenidos = grilla.cercanos(latitud, longitud, 10, 50).stream()
+                    .map(GrillaEspacial.Vecino::id).toList();
+
+            // Assert
+            List<Long> esperados = IntStream.range(0, puntos.length).boxed()
+                    .sorted(Comparator.comparingDouble(i ->
+                            GrillaEspacial.distanciaKm(latitud, longitud, puntos[i][0], puntos[i][1])))
+                    .limit(10)
+                    .map(Integer::longValue)
+                    .toList();
+            assertEquals(esperados, obtenidos);
+        }
+    }
+
+    @Test
+    @DisplayName("Rechazar coordenadas fuera de rango")
+    void testCoordenadasInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> grilla.ubicar(1L, 91, 0, "A"));
+        assertThrows(IllegalArgumentException.class, () -> grilla.cercanos(0, 181, 1, 10));
+    }
+}
@@ -0,0 +1,48 @@
+package com.kavak.flota.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LectorCsv Tests")
+class LectorCsvTest {
+
+    @Test
+    @DisplayName("Leer registros simples con fin de línea LF y CRLF")
+    void testRegistrosSimples() throws IOException {
+        // Arrange
+        LectorCsv lector = new LectorCsv(new StringReader("a,b,c\r\n1,,3\n"));
+
+        // Act & Assert
+        assertArrayEquals(new String[]{"a", "b", "c"}, lector.siguiente());
+        assertArrayEquals(new String[]{"1", "", "3"}, lector.siguiente());
+        assertNull(lector.siguiente());
+        assertEquals(2, lector.getNumeroRegistro());
+    }
+
+    @Test
+    @DisplayName("Leer campos entre comillas con comas, comillas escapadas y saltos de línea")
+    void testCamposEntreComillas() throws IOException {
+        // Arrange
+        LectorCsv lector = new LectorCsv(new StringReader("\"Frenos, \"\"delanteros\"\"\",\"línea 1\nlínea 2\"\nx,y"));
+
+        // Act & Assert
+        assertArrayEquals(new String[]{"Frenos, \"delanteros\"", "línea 1\nlínea 2"}, lector.siguiente());
+        assertArrayEquals(new String[]{"x", "y"}, lector.siguiente());
+        assertNull(lector.siguiente());
+    }
+
+    @Test
+    @DisplayName("Lanzar excepción si un campo entre comillas no se cierra")
+    void testComillasSinCerrar() {
+        // Arrange
+        LectorCsv lector = new LectorCsv(new StringReader("\"abierto,1\n"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, lector::siguiente);
+    }
+}